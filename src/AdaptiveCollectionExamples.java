@@ -0,0 +1,136 @@
+import collectionExample.AccessProfile.Mode;
+import collectionExample.AdaptiveList;
+import collectionExample.AdaptiveMap;
+import diagnosticsExample.JfrRecorder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    Shows AdaptiveList / AdaptiveMap fixing the "wrong collection picked" mistakes of
+    JavaOptimizationExampleThree.testDataStructureChoice and the collectionExample trade-offs:
+    the wrappers record the operation mix and switch (MIGRATE) or advise (RECOMMEND).
+*/
+
+// It's a "Runnable Class"
+public class AdaptiveCollectionExamples {
+    // Benchmark utility
+    private static void benchmark(String label, Runnable task) {
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            long start = System.nanoTime();
+            task.run();
+            long duration = System.nanoTime() - start;
+            System.out.printf("%-50s : %d ms\n", label, duration / 1_000_000);
+        } finally {
+            phase.end();
+        }
+    }
+
+    // LinkedList picked for a list that is then read by index (O(n) per get)
+    public static void testRandomAccessOnLinkedList() {
+        int elements = 100_000;
+
+        benchmark("[BAD] LinkedList random access", () -> randomAccess(new LinkedList<>(), elements));
+        benchmark("[GOOD] AdaptiveList(LinkedList, MIGRATE)", () ->
+                randomAccess(new AdaptiveList<>("randomAccess", new LinkedList<>(), Mode.MIGRATE), elements));
+        benchmark("[INFO] ArrayList random access (best case)", () -> randomAccess(new ArrayList<>(), elements));
+        System.out.println();
+    }
+
+    // ArrayList used as a FIFO queue: remove(0) shifts the whole array
+    public static void testQueueOnArrayList() {
+        int elements = 200_000;
+
+        benchmark("[BAD] ArrayList add + remove(0)", () -> fifo(new ArrayList<>(), elements));
+        benchmark("[GOOD] AdaptiveList(ArrayList, MIGRATE)", () ->
+                fifo(new AdaptiveList<>("fifo", new ArrayList<>(), Mode.MIGRATE), elements));
+        System.out.println();
+    }
+
+    // HashMap used for time-range queries (every query scans the whole map)
+    public static void testRangeQueriesOnHashMap() {
+        int elements = 50_000;
+        int queries = 20_000;
+
+        benchmark("[BAD] HashMap + manual range scan", () -> {
+            Map<Long, String> events = new HashMap<>();
+            for (long t = 0; t < elements; t++) events.put(t, "event" + t);
+            long found = 0;
+            for (long q = 0; q < queries; q++) {
+                long from = q * 2 % elements;
+                for (Long t : events.keySet()) {
+                    if (t >= from && t < from + 10) found++;
+                }
+            }
+        });
+
+        benchmark("[GOOD] AdaptiveMap(HashMap, MIGRATE).subMap", () -> {
+            AdaptiveMap<Long, String> events = new AdaptiveMap<>("events", new HashMap<>(), Mode.MIGRATE);
+            for (long t = 0; t < elements; t++) events.put(t, "event" + t);
+            long found = 0;
+            for (long q = 0; q < queries; q++) {
+                long from = q * 2 % elements;
+                SortedMap<Long, String> range = events.subMap(from, from + 10);
+                found += range.size();
+            }
+        });
+
+        benchmark("[INFO] TreeMap.subMap (best case)", () -> {
+            TreeMap<Long, String> events = new TreeMap<>();
+            for (long t = 0; t < elements; t++) events.put(t, "event" + t);
+            long found = 0;
+            for (long q = 0; q < queries; q++) {
+                long from = q * 2 % elements;
+                found += events.subMap(from, from + 10).size();
+            }
+        });
+        System.out.println();
+    }
+
+    // RECOMMEND mode: leave production behavior untouched, just report the bad call sites
+    public static void testRecommendMode() {
+        List<Integer> list = new AdaptiveList<>("OrderService.lines", new LinkedList<>(), Mode.RECOMMEND);
+        randomAccess(list, 20_000);
+        Map<String, Integer> map = new AdaptiveMap<>("PriceCache.byName", new TreeMap<>(), Mode.RECOMMEND);
+        for (int i = 0; i < 20_000; i++) {
+            map.put("sku" + i, i);
+            map.get("sku" + (i / 2));
+        }
+        System.out.println();
+    }
+
+    private static void randomAccess(List<Integer> list, int elements) {
+        for (int i = 0; i < elements; i++) {
+            list.add(i);
+        }
+        long sum = 0;
+        for (int i = 0; i < list.size(); i++) {
+            sum += list.get(i);
+        }
+    }
+
+    private static void fifo(List<Integer> queue, int elements) {
+        for (int i = 0; i < elements; i++) {
+            queue.add(i);
+        }
+        while (!queue.isEmpty()) {
+            queue.remove(0);
+        }
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- Adaptive collections (pick the implementation from the access pattern) ---");
+        testRandomAccessOnLinkedList();
+        testQueueOnArrayList();
+        testRangeQueriesOnHashMap();
+        testRecommendMode();
+    }
+}
@@ -0,0 +1,98 @@
+import concurrencyExample.AdmissionExecutor;
+import concurrencyExample.ConcurrencyLimiter;
+import concurrencyExample.TokenBucket;
+import diagnosticsExample.JfrRecorder;
+import diagnosticsExample.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    Overload protection. A service of 4 workers x 2 ms per request (capacity ~2 000 requests/s, I/O-like: the
+    workers park) is offered 4 000 requests/s – 2x overload – by an open-loop load generator for 3 s.
+    Clients give up after 50 ms: goodput = requests answered within 50 ms, per second.
+    - [BAD] no admission control: the pool queue grows without bound (like MemoryLeakExamples' lists) and almost
+      every answer comes too late – the service is busy 100% of the time producing nothing useful
+    - TokenBucket at the nominal capacity: fine only if the capacity is exactly right
+    - ConcurrencyLimiter: fixed, AIMD and gradient limits, refused requests fail fast instead of timing out
+*/
+
+// It's a "Runnable Class"
+public class AdmissionControlExamples {
+    private static final int WORKERS = 4;
+    private static final long SERVICE_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final int OFFERED_PER_SECOND = 4_000;
+    private static final int SECONDS = 3;
+    private static final long TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    // Builds the admission layer in front of a fresh service pool
+    private interface Admission {
+        AdmissionExecutor wrap(ThreadPoolExecutor service);
+    }
+
+    public static void testOverload() {
+        benchmark("[BAD] no admission control", service -> new AdmissionExecutor(service, null, null));
+        benchmark("[INFO] TokenBucket 2 000/s, burst 20",
+                service -> new AdmissionExecutor(service, new TokenBucket(2_000, 20), null));
+        benchmark("[INFO] ConcurrencyLimiter fixed at 8", service -> new AdmissionExecutor(service, null,
+                new ConcurrencyLimiter(ConcurrencyLimiter.fixed(), 8, 8, 8)));
+        benchmark("[GOOD] ConcurrencyLimiter AIMD", service -> new AdmissionExecutor(service, null,
+                new ConcurrencyLimiter(ConcurrencyLimiter.aimd(0.9, Duration.ofMillis(20)), 20, 1, 200)));
+        benchmark("[GOOD] ConcurrencyLimiter gradient", service -> new AdmissionExecutor(service, null,
+                new ConcurrencyLimiter(ConcurrencyLimiter.gradient(1.5, 4), 20, 1, 200)));
+        System.out.println();
+    }
+
+    private static void benchmark(String label, Admission admission) {
+        ThreadPoolExecutor service = new ThreadPoolExecutor(WORKERS, WORKERS, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        AdmissionExecutor executor = admission.wrap(service);
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder inTime = new LongAdder();
+        int requests = OFFERED_PER_SECOND * SECONDS;
+        long intervalNanos = 1_000_000_000L / OFFERED_PER_SECOND;
+        long refused = 0;
+
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            long begin = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                long intended = begin + i * intervalNanos; // Open loop: the clients do not wait for the service
+                long wait = intended - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+                boolean admitted = executor.tryExecute(() -> {
+                    LockSupport.parkNanos(SERVICE_NANOS);
+                    long nanos = System.nanoTime() - intended;
+                    if (nanos <= TIMEOUT_NANOS) inTime.increment();
+                    synchronized (latency) {
+                        latency.record(nanos);
+                    }
+                });
+                if (!admitted) refused++;
+            }
+            service.shutdown();
+            try {
+                service.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            phase.end();
+        }
+        System.out.printf("%-50s : goodput %d/s, %d%% refused, %d%% too late\n", label, inTime.sum() / SECONDS,
+                refused * 100 / requests, (executor.admitted() - inTime.sum()) * 100 / requests);
+        synchronized (latency) {
+            System.out.printf("%-50s : %s\n", "    admitted", latency.percentiles());
+        }
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- Admission control under 2x overload: rate limit, concurrency limits ---");
+        testOverload();
+    }
+}
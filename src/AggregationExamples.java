@@ -0,0 +1,108 @@
+import concurrencyExample.CombiningAccumulator;
+import concurrencyExample.CombiningAccumulator.Stats;
+import diagnosticsExample.JfrRecorder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    JavaOptimizationExampleTwo.testSynchronizedUsage accumulates locally and locks once – on one thread.
+    Here 1 to 64 threads record request latencies into shared statistics (count, sum, min, max, histogram):
+    - one synchronized update per value
+    - LongAdder / LongAccumulator (striped CAS cells, no histogram)
+    - CombiningAccumulator (thread-local buffer, one locked merge every 1024 values)
+    Results depend heavily on the number of cores.
+*/
+
+// It's a "Runnable Class"
+public class AggregationExamples {
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+    private static final int TOTAL_OPS = 16_000_000; // Split between the threads
+
+    public static void testStatisticsAggregation() {
+        for (int threads : THREADS) {
+            int opsPerThread = TOTAL_OPS / threads;
+
+            Stats locked = new Stats();
+            Object lock = new Object();
+            benchmarkThreads("[BAD] synchronized Stats.record per value", threads, opsPerThread, value -> {
+                synchronized (lock) {
+                    locked.record(value);
+                }
+            }, () -> {
+            });
+
+            LongAdder count = new LongAdder();
+            LongAdder sum = new LongAdder();
+            LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+            LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+            benchmarkThreads("[GOOD] LongAdder + LongAccumulator (no histogram)", threads, opsPerThread, value -> {
+                count.increment();
+                sum.add(value);
+                min.accumulate(value);
+                max.accumulate(value);
+            }, () -> {
+            });
+
+            CombiningAccumulator<Stats, Stats> combining = CombiningAccumulator.stats(1024);
+            benchmarkThreads("[GOOD] CombiningAccumulator (flush every 1024)", threads, opsPerThread,
+                    combining::record, combining::flush);
+
+            long expected = (long) threads * opsPerThread;
+            long combined = combining.read(Stats::count);
+            if (locked.count() != expected || count.sum() != expected || combined != expected) {
+                System.out.println("[ERROR] lost updates: " + locked.count() + " / " + count.sum() + " / " + combined);
+            }
+            System.out.println("[INFO] " + combining.read(Stats::toString) + ", " + combining.flushes() + " locked merges");
+            System.out.println();
+        }
+    }
+
+    // Runs 'recorder' opsPerThread times on each thread, then 'onExit' on each thread, and prints the throughput
+    private static void benchmarkThreads(String label, int threads, int opsPerThread, LongConsumer recorder, Runnable onExit) {
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(threads);
+            for (int i = 0; i < threads; i++) {
+                new Thread(() -> {
+                    try {
+                        start.await();
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        for (int op = 0; op < opsPerThread; op++) {
+                            recorder.accept(random.nextLong(1, 50_000)); // Latency in microseconds
+                        }
+                        onExit.run();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }).start();
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            long duration = System.nanoTime() - begin;
+            double opsPerSecond = (double) threads * opsPerThread / (duration / 1_000_000_000.0);
+            System.out.printf("%-50s : %d ms (%.2f M ops/s)\n", label + " x" + threads, duration / 1_000_000, opsPerSecond / 1_000_000);
+        } finally {
+            phase.end();
+        }
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- Shared statistics under contention: lock per value vs LongAdder vs combining ---");
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+        testStatisticsAggregation();
+    }
+}
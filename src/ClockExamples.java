@@ -0,0 +1,109 @@
+import concurrencyExample.CachedClock;
+import diagnosticsExample.JfrRecorder;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    JavaOptimizationExampleOne.testObjectCreation allocates 10M Date objects just to read the time.
+    Timestamping every log line / metric this way shows up in profiles: compare the usual ways of reading
+    and formatting "now" with CachedClock (one volatile load, one preformatted string per tick).
+*/
+
+// It's a "Runnable Class"
+public class ClockExamples {
+    private static final int ITERATIONS = 10_000_000;
+
+    // Benchmark utility
+    private static void benchmark(String label, Runnable task) {
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            long start = System.nanoTime();
+            task.run();
+            long duration = System.nanoTime() - start;
+            System.out.printf("%-50s : %d ms\n", label, duration / 1_000_000);
+        } finally {
+            phase.end();
+        }
+    }
+
+    // 1. Reading the wall-clock time
+    public static void testReadingTime(CachedClock clock) {
+        benchmark("[BAD] new Date().getTime()", () -> {
+            long sum = 0;
+            for (int i = 0; i < ITERATIONS; i++) sum += new Date().getTime();
+            report(sum);
+        });
+        benchmark("[BAD] Instant.now().toEpochMilli()", () -> {
+            long sum = 0;
+            for (int i = 0; i < ITERATIONS; i++) sum += Instant.now().toEpochMilli();
+            report(sum);
+        });
+        benchmark("[INFO] System.currentTimeMillis()", () -> {
+            long sum = 0;
+            for (int i = 0; i < ITERATIONS; i++) sum += System.currentTimeMillis();
+            report(sum);
+        });
+        benchmark("[GOOD] CachedClock.currentTimeMillis()", () -> {
+            long sum = 0;
+            for (int i = 0; i < ITERATIONS; i++) sum += clock.currentTimeMillis();
+            report(sum);
+        });
+        System.out.println();
+    }
+
+    // 2. Formatting a timestamp for each log line
+    public static void testFormatting(CachedClock clock) {
+        int lines = ITERATIONS / 10;
+
+        benchmark("[BAD] new Date().toString() per line", () -> {
+            long length = 0;
+            for (int i = 0; i < lines; i++) length += new Date().toString().length();
+            report(length);
+        });
+        benchmark("[BAD] DateTimeFormatter.format(Instant.now())", () -> {
+            long length = 0;
+            for (int i = 0; i < lines; i++) length += CachedClock.ISO.format(Instant.now()).length();
+            report(length);
+        });
+        benchmark("[GOOD] CachedClock.isoTimestamp()", () -> {
+            long length = 0;
+            for (int i = 0; i < lines; i++) length += clock.isoTimestamp().length();
+            report(length);
+        });
+        CachedClock.Tick tick = clock.tick(); // String and millis from the same tick
+        System.out.println("[INFO] sample: " + tick.iso() + " (" + tick.millis() + " ms) / " + LocalDateTime.now(clock.asClock()));
+        System.out.println();
+    }
+
+    // 3. Monotonic time: precise (durations) vs coarse (timeouts, TTLs)
+    public static void testMonotonicTime(CachedClock clock) {
+        benchmark("[INFO] System.nanoTime()", () -> {
+            long sum = 0;
+            for (int i = 0; i < ITERATIONS; i++) sum += CachedClock.nanoTime();
+            report(sum);
+        });
+        benchmark("[GOOD] CachedClock.coarseNanoTime()", () -> {
+            long sum = 0;
+            for (int i = 0; i < ITERATIONS; i++) sum += clock.coarseNanoTime();
+            report(sum);
+        });
+        System.out.println();
+    }
+
+    private static void report(long checksum) {
+        if (checksum == 42) System.out.println(); // Keeps the loop from being eliminated
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- Cheap timestamps: cached clock vs Date / Instant / formatter ---");
+        try (CachedClock clock = CachedClock.start()) {
+            testReadingTime(clock);
+            testFormatting(clock);
+            testMonotonicTime(clock);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+import collectionExample.ConcurrentBPlusTreeMap;
+import collectionExample.SnapshotMap;
+import collectionExample.SnapshotSet;
+import diagnosticsExample.JfrRecorder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    Concurrent collections under a mixed workload (reads, writes and range scans from several threads).
+    Results depend heavily on the number of cores: run it on a machine with at least 4.
+*/
+
+// It's a "Runnable Class"
+public class ConcurrentCollectionExamples {
+    private static final int[] THREADS = {1, 2, 4, 8};
+
+    // Runs 'task' on n threads at once and prints the aggregated throughput
+    private static void benchmarkThreads(String label, int threads, int opsPerThread, Runnable task) {
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(threads);
+            for (int i = 0; i < threads; i++) {
+                new Thread(() -> {
+                    try {
+                        start.await();
+                        task.run();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }).start();
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            long duration = System.nanoTime() - begin;
+            double opsPerSecond = (double) threads * opsPerThread / (duration / 1_000_000_000.0);
+            System.out.printf("%-50s : %d ms (%.2f M ops/s)\n", label + " x" + threads, duration / 1_000_000, opsPerSecond / 1_000_000);
+        } finally {
+            phase.end();
+        }
+    }
+
+    // The three operations of the order-book workload, whatever the map
+    interface OrderedMap {
+        Long get(long key);
+
+        void put(long key, long value);
+
+        int countRange(long from, long to);
+    }
+
+    // 1. Sorted map with range scans while writers insert continuously (time-indexed order book)
+    // 70% point reads / 20% inserts / 10% scans of 100 consecutive timestamps
+    public static void testSortedMapUnderContention() {
+        int keys = 100_000;
+        int opsPerThread = 200_000;
+
+        for (int threads : THREADS) {
+            SortedMap<Long, Long> synchronizedTree = Collections.synchronizedSortedMap(new TreeMap<>());
+            fill(synchronizedTree, keys);
+            benchmarkThreads("[BAD] synchronizedSortedMap(TreeMap)", threads, opsPerThread,
+                    () -> orderBookWorkload(new OrderedMap() {
+                        public Long get(long key) {
+                            return synchronizedTree.get(key);
+                        }
+
+                        public void put(long key, long value) {
+                            synchronizedTree.put(key, value);
+                        }
+
+                        public int countRange(long from, long to) {
+                            // Iterating a synchronized view must hold its lock for the whole scan
+                            synchronized (synchronizedTree) {
+                                return synchronizedTree.subMap(from, to).size();
+                            }
+                        }
+                    }, keys, opsPerThread));
+
+            ConcurrentSkipListMap<Long, Long> skipList = new ConcurrentSkipListMap<>();
+            fill(skipList, keys);
+            benchmarkThreads("[GOOD] ConcurrentSkipListMap", threads, opsPerThread,
+                    () -> orderBookWorkload(new OrderedMap() {
+                        public Long get(long key) {
+                            return skipList.get(key);
+                        }
+
+                        public void put(long key, long value) {
+                            skipList.put(key, value);
+                        }
+
+                        public int countRange(long from, long to) {
+                            int count = 0;
+                            for (Long ignored : skipList.subMap(from, to).keySet()) count++;
+                            return count;
+                        }
+                    }, keys, opsPerThread));
+
+            ConcurrentBPlusTreeMap<Long, Long> bTree = new ConcurrentBPlusTreeMap<>();
+            fill(bTree, keys);
+            benchmarkThreads("[GOOD] ConcurrentBPlusTreeMap", threads, opsPerThread,
+                    () -> orderBookWorkload(new OrderedMap() {
+                        public Long get(long key) {
+                            return bTree.get(key);
+                        }
+
+                        public void put(long key, long value) {
+                            bTree.put(key, value);
+                        }
+
+                        public int countRange(long from, long to) {
+                            return bTree.countInRange(from, to);
+                        }
+                    }, keys, opsPerThread));
+            System.out.println();
+        }
+    }
+
+    private static void fill(Map<Long, Long> map, int keys) {
+        for (long i = 0; i < keys; i++) {
+            map.put(i * 2, i); // Even timestamps pre-filled, writers add odd ones
+        }
+    }
+
+    private static void orderBookWorkload(OrderedMap map, int keys, int ops) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long checksum = 0;
+        for (int i = 0; i < ops; i++) {
+            int dice = random.nextInt(100);
+            long key = random.nextLong(keys * 2L);
+            if (dice < 70) {
+                Long value = map.get(key);
+                if (value != null) checksum += value;
+            } else if (dice < 90) {
+                map.put(key | 1, key);
+            } else {
+                checksum += map.countRange(key, key + 100);
+            }
+        }
+        if (checksum == 42) System.out.println(); // Keeps the loop from being eliminated
+    }
+
+    // The two operations of the routing-table workload, whatever the set
+    interface ReadMostlySet {
+        boolean contains(String route);
+
+        void add(String route);
+
+        void remove(String route);
+    }
+
+    // 2. Read-mostly set (routing / feature-flag table): 99/1 and 90/10 read/write ratios.
+    // Even 1% of writes is far too many for the copy-on-write sets: they are for tables changed a few times a minute
+    public static void testReadMostlySet() {
+        int routes = 1_000;
+        int opsPerThread = 200_000;
+        List<String> initial = new ArrayList<>();
+        for (int i = 0; i < routes; i++) initial.add("/api/v1/route" + i);
+
+        for (int writePercent : new int[]{1, 10}) {
+            for (int threads : new int[]{1, 4, 8}) {
+                String ratio = " " + (100 - writePercent) + "/" + writePercent;
+
+                CopyOnWriteArraySet<String> cow = new CopyOnWriteArraySet<>(initial);
+                benchmarkThreads("[BAD] CopyOnWriteArraySet" + ratio, threads, opsPerThread,
+                        () -> routingWorkload(adapt(cow::contains, cow::add, cow::remove), routes, writePercent, opsPerThread));
+
+                Set<String> synchronizedSet = Collections.synchronizedSet(new HashSet<>(initial));
+                benchmarkThreads("[BAD] synchronizedSet(HashSet)" + ratio, threads, opsPerThread,
+                        () -> routingWorkload(adapt(synchronizedSet::contains, synchronizedSet::add, synchronizedSet::remove), routes, writePercent, opsPerThread));
+
+                Set<String> concurrentSet = ConcurrentHashMap.newKeySet();
+                concurrentSet.addAll(initial);
+                benchmarkThreads("[GOOD] ConcurrentHashMap.newKeySet" + ratio, threads, opsPerThread,
+                        () -> routingWorkload(adapt(concurrentSet::contains, concurrentSet::add, concurrentSet::remove), routes, writePercent, opsPerThread));
+
+                SnapshotSet<String> snapshotSet = new SnapshotSet<>(initial);
+                benchmarkThreads("[INFO] SnapshotSet (copies on every write)" + ratio, threads, opsPerThread,
+                        () -> routingWorkload(adapt(snapshotSet::contains, snapshotSet::add, snapshotSet::remove), routes, writePercent, opsPerThread));
+                System.out.println();
+            }
+        }
+    }
+
+    private static ReadMostlySet adapt(Predicate<String> contains, Consumer<String> add, Consumer<String> remove) {
+        return new ReadMostlySet() {
+            public boolean contains(String route) {
+                return contains.test(route);
+            }
+
+            public void add(String route) {
+                add.accept(route);
+            }
+
+            public void remove(String route) {
+                remove.accept(route);
+            }
+        };
+    }
+
+    private static void routingWorkload(ReadMostlySet set, int routes, int writePercent, int ops) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String[] lookups = new String[1024];
+        for (int i = 0; i < lookups.length; i++) lookups[i] = "/api/v1/route" + random.nextInt(routes * 2);
+        // Every write really changes the set (re-adding a known route is a no-op for all of them): each thread adds
+        // a route of its own, then removes it again – the size stays stable, every write copies / publishes
+        String ownRoute = "/api/v2/thread" + Thread.currentThread().threadId();
+        boolean added = false;
+        int hits = 0;
+        for (int i = 0; i < ops; i++) {
+            String route = lookups[i & 1023];
+            if (random.nextInt(100) < writePercent) {
+                if (added) set.remove(ownRoute);
+                else set.add(ownRoute);
+                added = !added;
+            } else if (set.contains(route)) {
+                hits++;
+            }
+        }
+        if (hits == -1) System.out.println(); // Keeps the loop from being eliminated
+    }
+
+    // The two operations of the feature-flag workload, whatever the map
+    interface ReadMostlyMap {
+        Integer get(String flag);
+
+        void put(String flag, Integer rolloutPercent);
+    }
+
+    // 3. Read-mostly map (feature flags: flag name -> rollout percentage), one write every 10 000 and every 100 ops.
+    // ConcurrentHashMap stays ahead on raw throughput; SnapshotMap copies all the flags on each write and is only
+    // worth it when a request must read several flags from one consistent version (snapshot())
+    public static void testReadMostlyMap() {
+        int flags = 200;
+        int opsPerThread = 1_000_000;
+        Map<String, Integer> initial = new HashMap<>();
+        for (int i = 0; i < flags; i++) initial.put("feature.flag" + i, i % 100);
+
+        for (int writeEvery : new int[]{10_000, 100}) {
+            for (int threads : new int[]{1, 4, 8}) {
+                String ratio = " 1/" + writeEvery + " writes";
+
+                Map<String, Integer> synchronizedMap = Collections.synchronizedMap(new HashMap<>(initial));
+                benchmarkThreads("[BAD] synchronizedMap(HashMap)" + ratio, threads, opsPerThread,
+                        () -> flagWorkload(adapt(synchronizedMap::get, synchronizedMap::put), flags, writeEvery, opsPerThread));
+
+                ConcurrentHashMap<String, Integer> concurrentMap = new ConcurrentHashMap<>(initial);
+                benchmarkThreads("[GOOD] ConcurrentHashMap" + ratio, threads, opsPerThread,
+                        () -> flagWorkload(adapt(concurrentMap::get, concurrentMap::put), flags, writeEvery, opsPerThread));
+
+                SnapshotMap<String, Integer> snapshotMap = new SnapshotMap<>(initial);
+                benchmarkThreads("[INFO] SnapshotMap" + ratio, threads, opsPerThread,
+                        () -> flagWorkload(adapt(snapshotMap::get, snapshotMap::put), flags, writeEvery, opsPerThread));
+                System.out.println();
+            }
+        }
+    }
+
+    private static ReadMostlyMap adapt(Function<String, Integer> get, BiConsumer<String, Integer> put) {
+        return new ReadMostlyMap() {
+            public Integer get(String flag) {
+                return get.apply(flag);
+            }
+
+            public void put(String flag, Integer rolloutPercent) {
+                put.accept(flag, rolloutPercent);
+            }
+        };
+    }
+
+    private static void flagWorkload(ReadMostlyMap map, int flags, int writeEvery, int ops) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String[] lookups = new String[1024];
+        for (int i = 0; i < lookups.length; i++) lookups[i] = "feature.flag" + random.nextInt(flags);
+        // Each thread ramps a flag of its own: every write changes a value, so every snapshot write publishes
+        String ownFlag = "feature.thread" + Thread.currentThread().threadId();
+        int rollout = 0;
+        long enabled = 0;
+        for (int i = 0; i < ops; i++) {
+            if (random.nextInt(writeEvery) == 0) {
+                map.put(ownFlag, rollout = (rollout + 1) % 100);
+            } else {
+                Integer percent = map.get(lookups[i & 1023]);
+                if (percent != null && percent > 50) enabled++;
+            }
+        }
+        if (enabled == -1) System.out.println(); // Keeps the loop from being eliminated
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- Concurrent collections under contention ---");
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+        testSortedMapUnderContention();
+        testReadMostlySet();
+        testReadMostlyMap();
+    }
+}
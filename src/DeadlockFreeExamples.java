@@ -1,13 +1,15 @@
+import diagnosticsExample.JfrEvents;
+import diagnosticsExample.ProfiledLock;
+
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 public class DeadlockFreeExamples {
 
-    private static final Lock lockA = new ReentrantLock();
-    private static final Lock lockB = new ReentrantLock();
+    private static final Lock lockA = new ProfiledLock("DeadlockFreeExamples.lockA");
+    private static final Lock lockB = new ProfiledLock("DeadlockFreeExamples.lockB");
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
         System.out.println("Starting deadlock-free version...");
 
         Thread thread1 = new Thread(() -> tryLockBoth("Thread 1", lockA, lockB));
@@ -15,6 +17,9 @@ public class DeadlockFreeExamples {
 
         thread1.start();
         thread2.start();
+        thread1.join();
+        thread2.join();
+        System.out.print(ProfiledLock.report(2)); // Waits and failed tryLock per lock
     }
 
     static void tryLockBoth(String name, Lock firstLock, Lock secondLock) {
@@ -23,11 +28,11 @@ public class DeadlockFreeExamples {
             boolean gotSecond = false;
 
             try {
-                gotFirst = firstLock.tryLock(500, TimeUnit.MILLISECONDS);
+                gotFirst = tryLock(name + " first", firstLock);
                 if (gotFirst) {
                     System.out.println(name + ": Acquired first lock");
 
-                    gotSecond = secondLock.tryLock(500, TimeUnit.MILLISECONDS);
+                    gotSecond = tryLock(name + " second", secondLock);
                     if (gotSecond) {
                         System.out.println(name + ": Acquired second lock. Doing work...");
                         // Simulate work
@@ -51,4 +56,22 @@ public class DeadlockFreeExamples {
             }
         }
     }
+
+    // tryLock with a JFR LockAcquisition event: how long each attempt waited and whether it succeeded
+    private static boolean tryLock(String lockName, Lock lock) throws InterruptedException {
+        JfrEvents.LockAcquisition event = new JfrEvents.LockAcquisition();
+        event.begin();
+        boolean acquired = false;
+        try {
+            acquired = lock.tryLock(500, TimeUnit.MILLISECONDS);
+            return acquired;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.lock = lockName;
+                event.acquired = acquired;
+                event.commit();
+            }
+        }
+    }
 }
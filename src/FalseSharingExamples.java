@@ -0,0 +1,205 @@
+import concurrencyExample.PaddedCounter;
+import diagnosticsExample.FieldLayout;
+import diagnosticsExample.JfrRecorder;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    VisibleAtomicExample keeps 'running', 'unsafeCounter' and 'safeCounter' side by side and four threads hammer
+    them: each write invalidates the cache line holding the neighbours in every other core (false sharing).
+    Here every thread increments ITS OWN counter – no logical sharing at all – laid out:
+    - side by side in one object / in one AtomicLongArray, or as small per-worker objects allocated back to back
+    - padded to 128 bytes (array stride, or PaddedCounter's superclass padding)
+    Then FieldLayout prints the real field offsets and flags hot fields that may share a line.
+    False sharing needs real parallelism: on a single core every layout costs the same.
+*/
+
+// It's a "Runnable Class"
+public class FalseSharingExamples {
+    private static final int OPS_PER_THREAD = 50_000_000;
+    private static final int PADDED_STRIDE = FieldLayout.PREFETCH_PAIR / Long.BYTES;
+
+    // Per-worker counters side by side, like the fields of VisibleAtomicExample
+    static final class AdjacentCounters {
+        private static final VarHandle WORKER0 = handle("worker0");
+        private static final VarHandle WORKER1 = handle("worker1");
+        private static final VarHandle WORKER2 = handle("worker2");
+        private static final VarHandle WORKER3 = handle("worker3");
+        long worker0;
+        long worker1;
+        long worker2;
+        long worker3;
+
+        private static VarHandle handle(String field) {
+            try {
+                return MethodHandles.lookup().findVarHandle(AdjacentCounters.class, field, long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+    }
+
+    // Small per-worker stats struct: 32 bytes, so consecutive allocations share a line
+    static final class WorkerStats {
+        private static final VarHandle OPS;
+
+        static {
+            try {
+                OPS = MethodHandles.lookup().findVarHandle(WorkerStats.class, "ops", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        long ops;
+        long errors;
+
+        void increment() {
+            OPS.setRelease(this, ops + 1);
+        }
+
+        long get() {
+            return (long) OPS.getAcquire(this);
+        }
+    }
+
+    // Body of one benchmark thread, receives its index
+    private interface Worker {
+        void run(int thread);
+    }
+
+    public static void testFalseSharing() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("Available processors: " + cores + (cores < 2 ? " – expect no difference between layouts" : ""));
+
+        for (int threads = 1; threads <= Math.max(4, cores); threads *= 2) {
+            System.out.println("--- " + threads + " thread(s), " + OPS_PER_THREAD / 1_000_000 + "M increments each ---");
+
+            if (threads <= 4) {
+                AdjacentCounters adjacent = new AdjacentCounters();
+                benchmarkThreads("[BAD] adjacent fields in one object", threads, thread -> {
+                    switch (thread) { // Same release store as every other layout, one writer per field
+                        case 0 -> {
+                            for (int i = 0; i < OPS_PER_THREAD; i++) AdjacentCounters.WORKER0.setRelease(adjacent, adjacent.worker0 + 1);
+                        }
+                        case 1 -> {
+                            for (int i = 0; i < OPS_PER_THREAD; i++) AdjacentCounters.WORKER1.setRelease(adjacent, adjacent.worker1 + 1);
+                        }
+                        case 2 -> {
+                            for (int i = 0; i < OPS_PER_THREAD; i++) AdjacentCounters.WORKER2.setRelease(adjacent, adjacent.worker2 + 1);
+                        }
+                        default -> {
+                            for (int i = 0; i < OPS_PER_THREAD; i++) AdjacentCounters.WORKER3.setRelease(adjacent, adjacent.worker3 + 1);
+                        }
+                    }
+                });
+            }
+
+            AtomicLongArray packed = new AtomicLongArray(threads);
+            benchmarkThreads("[BAD] AtomicLongArray, index = thread", threads, thread -> {
+                for (int i = 0; i < OPS_PER_THREAD; i++) packed.setRelease(thread, packed.getPlain(thread) + 1);
+            });
+
+            AtomicLongArray strided = new AtomicLongArray(threads * PADDED_STRIDE);
+            benchmarkThreads("[GOOD] AtomicLongArray, index = thread * 16", threads, thread -> {
+                int index = thread * PADDED_STRIDE;
+                for (int i = 0; i < OPS_PER_THREAD; i++) strided.setRelease(index, strided.getPlain(index) + 1);
+            });
+
+            WorkerStats[] stats = allocate(threads, WorkerStats[]::new, WorkerStats::new);
+            benchmarkThreads("[BAD] per-worker WorkerStats objects", threads, thread -> {
+                WorkerStats own = stats[thread];
+                for (int i = 0; i < OPS_PER_THREAD; i++) own.increment();
+            });
+
+            PaddedCounter[] padded = allocate(threads, PaddedCounter[]::new, PaddedCounter::new);
+            benchmarkThreads("[GOOD] per-worker PaddedCounter objects", threads, thread -> {
+                PaddedCounter own = padded[thread];
+                for (int i = 0; i < OPS_PER_THREAD; i++) own.increment();
+            });
+
+            LongAdder adder = new LongAdder();
+            benchmarkThreads("[INFO] one shared LongAdder (@Contended cells)", threads, thread -> {
+                for (int i = 0; i < OPS_PER_THREAD; i++) adder.increment();
+            });
+
+            long expected = (long) OPS_PER_THREAD * threads;
+            long total = 0;
+            for (int t = 0; t < threads; t++) total += padded[t].get();
+            if (total != expected || adder.sum() != expected) {
+                System.out.println("[ERROR] lost updates: " + total + " / " + adder.sum());
+            }
+            System.out.println();
+        }
+    }
+
+    // Back-to-back allocation, as a pool of workers created at startup would do
+    private static <T> T[] allocate(int count, IntFunction<T[]> arrayFactory, Supplier<T> factory) {
+        T[] objects = arrayFactory.apply(count);
+        for (int i = 0; i < count; i++) objects[i] = factory.get();
+        return objects;
+    }
+
+    public static void testFieldLayout() {
+        System.out.println("--- Field layout (offsets from " + FieldLayout.source() + ") ---");
+        System.out.print(FieldLayout.describe(VisibleAtomicExample.class, "running", "unsafeCounter", "safeCounter"));
+        System.out.print(FieldLayout.describe(AdjacentCounters.class, "worker0", "worker1", "worker2", "worker3"));
+        System.out.print(FieldLayout.describe(WorkerStats.class, "ops"));
+        System.out.print(FieldLayout.describe(PaddedCounter.class, "value"));
+        try {
+            // The JDK pads its own hot cells with @Contended: look at the gap before 'value'
+            System.out.print(FieldLayout.describe(Class.forName("java.util.concurrent.atomic.Striped64$Cell")));
+        } catch (ClassNotFoundException e) {
+            System.out.println("[INFO] Striped64$Cell not found in this JDK");
+        }
+        System.out.println();
+    }
+
+    // Runs the worker on each thread and prints the total throughput
+    private static void benchmarkThreads(String label, int threads, Worker worker) {
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(threads);
+            for (int i = 0; i < threads; i++) {
+                int thread = i;
+                new Thread(() -> {
+                    try {
+                        start.await();
+                        worker.run(thread);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }).start();
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            long duration = System.nanoTime() - begin;
+            double opsPerSecond = (double) threads * OPS_PER_THREAD / duration * 1_000_000_000;
+            System.out.printf("%-50s : %d ms (%.1f M ops/s)\n", label, duration / 1_000_000, opsPerSecond / 1_000_000);
+        } finally {
+            phase.end();
+        }
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- False sharing: adjacent vs padded per-thread counters ---");
+        testFieldLayout();
+        testFalseSharing();
+    }
+}
@@ -0,0 +1,277 @@
+import diagnosticsExample.JfrRecorder;
+import streamExample.Pipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    JavaOptimizationExampleTwo.testStreamVsLoop is pull-based over a list in memory. An ingest path is pushed:
+    elements arrive from a producer and the sink may be slower than the producer.
+    1. map("Item" + i) -> filter(startsWith "Item9") -> batch(100), pushed from a SubmissionPublisher:
+       - a plain loop (no concurrency, the floor)
+       - a chain of SubmissionPublisher processors (one buffer + one executor hop per operator and per element)
+       - streamExample.Pipeline: the three operators fused into one subscriber
+    2. A slow sink: an unbounded queue between producer and sink grows with the backlog, the backpressured
+       Pipeline keeps the backlog at a few hundred elements (the producer's submit() blocks instead)
+*/
+
+// It's a "Runnable Class"
+public class FlowPipelineExamples {
+    private static final int ELEMENTS = 2_000_000;
+    private static final int BATCH = 100;
+
+    // Subscriber counting elements, requesting 'chunk' at a time, optionally slow
+    static class CountingSubscriber<T> implements Flow.Subscriber<T> {
+        private final int chunk;
+        private final long delayNanos;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicLong received = new AtomicLong();
+        private Flow.Subscription subscription;
+        private int sinceRequest;
+
+        CountingSubscriber(int chunk, long delayNanos) {
+            this.chunk = chunk;
+            this.delayNanos = delayNanos;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(chunk);
+        }
+
+        @Override
+        public void onNext(T item) {
+            received.addAndGet(item instanceof List<?> list ? list.size() : 1);
+            if (delayNanos > 0) LockSupport.parkNanos(delayNanos);
+            if (++sinceRequest == chunk) {
+                sinceRequest = 0;
+                subscription.request(chunk);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            throwable.printStackTrace();
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+
+        long await() {
+            try {
+                done.await(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return received.get();
+        }
+    }
+
+    // The usual way to chain operators with the JDK alone (see the SubmissionPublisher javadoc): every stage is a
+    // publisher with its own buffer, and every element is handed to the executor again
+    static class StageProcessor<T, R> extends SubmissionPublisher<R> implements Flow.Processor<T, R> {
+        private final BiConsumer<T, Consumer<R>> operator;
+        private Flow.Subscription subscription;
+
+        StageProcessor(ExecutorService executor, BiConsumer<T, Consumer<R>> operator) {
+            super(executor, Flow.defaultBufferSize());
+            this.operator = operator;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(T item) {
+            operator.accept(item, this::submit);
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            closeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            close();
+        }
+    }
+
+    // 1. Throughput: same operators, three ways
+    public static void testOperators() {
+        benchmark("[INFO] plain loop (the floor)", () -> {
+            long count = 0;
+            List<String> batch = new ArrayList<>(BATCH);
+            for (int i = 0; i < ELEMENTS; i++) {
+                String item = "Item" + i;
+                if (!item.startsWith("Item9")) continue;
+                batch.add(item);
+                if (batch.size() == BATCH) {
+                    count += batch.size();
+                    batch = new ArrayList<>(BATCH);
+                }
+            }
+            return count + batch.size();
+        });
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        benchmark("[BAD] SubmissionPublisher processor per operator", () -> {
+            SubmissionPublisher<Integer> source = new SubmissionPublisher<>(executor, Flow.defaultBufferSize());
+            StageProcessor<Integer, String> map = new StageProcessor<>(executor, (i, out) -> out.accept("Item" + i));
+            StageProcessor<String, String> filter = new StageProcessor<>(executor, (s, out) -> {
+                if (s.startsWith("Item9")) out.accept(s);
+            });
+            AtomicReference<List<String>> batch = new AtomicReference<>(new ArrayList<>(BATCH));
+            StageProcessor<String, List<String>> batcher = new StageProcessor<>(executor, (s, out) -> {
+                batch.get().add(s);
+                if (batch.get().size() == BATCH) {
+                    out.accept(batch.get());
+                    batch.set(new ArrayList<>(BATCH));
+                }
+            }) {
+                @Override
+                public void onComplete() {
+                    if (!batch.get().isEmpty()) submit(batch.get());
+                    close();
+                }
+            };
+            CountingSubscriber<List<String>> sink = new CountingSubscriber<>(64, 0);
+            source.subscribe(map);
+            map.subscribe(filter);
+            filter.subscribe(batcher);
+            batcher.subscribe(sink);
+            for (int i = 0; i < ELEMENTS; i++) source.submit(i);
+            source.close();
+            return sink.await();
+        });
+
+        benchmark("[GOOD] Pipeline, operators fused", () -> {
+            SubmissionPublisher<Integer> source = new SubmissionPublisher<>(executor, Flow.defaultBufferSize());
+            CountingSubscriber<List<String>> sink = new CountingSubscriber<>(64, 0);
+            Pipeline.from(source)
+                    .map(i -> "Item" + i)
+                    .filter(s -> s.startsWith("Item9"))
+                    .batch(BATCH)
+                    .subscribe(sink);
+            for (int i = 0; i < ELEMENTS; i++) source.submit(i);
+            source.close();
+            return sink.await();
+        });
+        executor.shutdown();
+        System.out.println();
+    }
+
+    // 2. Slow sink (10 µs per element): how much piles up between producer and sink?
+    public static void testSlowSink() {
+        int elements = 50_000;
+        long delayPerBatch = TimeUnit.MICROSECONDS.toNanos(10) * BATCH;
+
+        ConcurrentLinkedQueue<Integer> queue = new ConcurrentLinkedQueue<>();
+        AtomicLong consumed = new AtomicLong();
+        long peak = 0;
+        JfrRecorder.Phase phase = JfrRecorder.phase("[BAD] unbounded queue to a slow sink");
+        try {
+            Thread sink = new Thread(() -> {
+                int taken = 0;
+                while (taken < elements) {
+                    if (queue.poll() == null) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    if (++taken % BATCH == 0) LockSupport.parkNanos(delayPerBatch);
+                    consumed.set(taken);
+                }
+            });
+            sink.start();
+            for (int i = 0; i < elements; i++) {
+                queue.offer(i);
+                peak = Math.max(peak, i + 1 - consumed.get());
+            }
+            join(sink);
+        } finally {
+            phase.end();
+        }
+        System.out.printf("%-50s : peak backlog %d elements\n", "[BAD] unbounded queue to a slow sink", peak);
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        SubmissionPublisher<Integer> source = new SubmissionPublisher<>(executor, Flow.defaultBufferSize());
+        AtomicLong delivered = new AtomicLong();
+        peak = 0;
+        phase = JfrRecorder.phase("[GOOD] Pipeline to a slow sink");
+        try {
+            CountingSubscriber<List<Integer>> sink = new CountingSubscriber<>(1, delayPerBatch) {
+                @Override
+                public void onNext(List<Integer> batch) {
+                    delivered.addAndGet(batch.size());
+                    super.onNext(batch);
+                }
+            };
+            Pipeline.from(source).batch(BATCH).subscribe(sink);
+            for (int i = 0; i < elements; i++) {
+                source.submit(i); // Blocks while the publisher's buffer is full: backpressure reaches the producer
+                peak = Math.max(peak, i + 1 - delivered.get());
+            }
+            source.close();
+            sink.await();
+        } finally {
+            phase.end();
+        }
+        executor.shutdown();
+        System.out.printf("%-50s : peak backlog %d elements (buffer %d + prefetch + one batch)\n",
+                "[GOOD] Pipeline to a slow sink", peak, Flow.defaultBufferSize());
+        System.out.println();
+    }
+
+    // Task returning the number of elements that reached the sink
+    private interface CountingTask {
+        long run();
+    }
+
+    private static void benchmark(String label, CountingTask task) {
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            long start = System.nanoTime();
+            long count = task.run();
+            long duration = System.nanoTime() - start;
+            System.out.printf("%-50s : %d ms (%d elements out)\n", label, duration / 1_000_000, count);
+        } finally {
+            phase.end();
+        }
+    }
+
+    private static void join(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- Push-based pipelines on java.util.concurrent.Flow ---");
+        testOperators();
+        testSlowSink();
+    }
+}
@@ -0,0 +1,64 @@
+import diagnosticsExample.GcComparison;
+import diagnosticsExample.GcComparison.Collector;
+import diagnosticsExample.GcComparison.Result;
+import diagnosticsExample.JvmLauncher;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    garbageCollectorTuning.md lists the collectors and their flags: this runs them.
+    GcWorkload (short-lived users, a refreshed session live set, 1 MB chunks) runs in a fresh JVM for every
+    collector x heap size, and the GC log + workload result are summarized in one table:
+    throughput (and relative to the best collector for that heap), pause count and percentiles, % of time paused,
+    peak heap after GC (live set) and peak RSS (footprint).
+
+    Usage: java GcComparisonExamples [seconds] [heap,heap,...] [COLLECTOR,COLLECTOR,...]
+           e.g. java GcComparisonExamples 20 512m,2g G1,ZGC,GENERATIONAL_ZGC
+    GC logs go to <java.io.tmpdir>/javaoptimus-gc – rerun on every JDK upgrade.
+*/
+
+// It's a "Runnable Class"
+public class GcComparisonExamples {
+    public static void testCollectors(int seconds, List<String> heaps, List<Collector> collectors) {
+        JvmLauncher launcher = new JvmLauncher();
+        Path logDir = Path.of(System.getProperty("java.io.tmpdir"), "javaoptimus-gc");
+        GcComparison comparison = new GcComparison(launcher, logDir, "GcWorkload", seconds);
+        System.out.println("JDK " + launcher.javaVersion() + ", " + Runtime.getRuntime().availableProcessors()
+                + " CPU(s), " + seconds + " s per run, logs in " + logDir);
+
+        List<Result> results = new ArrayList<>();
+        for (String heap : heaps) {
+            int liveSetMb = (int) (megabytes(heap) / 4); // A quarter of the heap stays live
+            for (Collector collector : collectors) {
+                Result result = comparison.run(collector, heap, liveSetMb);
+                results.add(result);
+                System.out.printf("%-50s : %s\n", "[INFO] " + collector + " -Xmx" + heap,
+                        result.ok() ? String.format("%.0f ops/s, pauses %s", result.operationsPerSecond(),
+                                result.pauses().percentiles()) : result.error());
+            }
+        }
+        System.out.println();
+        System.out.print(GcComparison.table(results));
+    }
+
+    private static long megabytes(String heap) {
+        long value = Long.parseLong(heap.replaceAll("\\D", ""));
+        char unit = Character.toLowerCase(heap.charAt(heap.length() - 1));
+        return unit == 'g' ? value * 1024 : unit == 'k' ? value / 1024 : value;
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- Garbage collectors compared on the same workload ---");
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        List<String> heaps = args.length > 1 ? Arrays.asList(args[1].split(",")) : List.of("256m", "1g");
+        List<Collector> collectors = args.length > 2
+                ? Arrays.stream(args[2].split(",")).map(name -> Collector.valueOf(name.trim().toUpperCase())).toList()
+                : List.of(Collector.values());
+        testCollectors(seconds, heaps, collectors);
+    }
+}
@@ -0,0 +1,86 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    Allocation-heavy workload run by GcComparisonExamples in a child JVM under each collector (it can be run alone).
+    Each operation mixes the allocation patterns of this project:
+    - short-lived garbage: JavaOptimizationExampleThree.testMutability's "User" + i strings and ImmutableUser objects
+    - a live set of sessions that keeps being refreshed: MemoryLeakExamples' sessionCache, but bounded (old generation)
+    - 1 MB chunks kept for a while: MemoryLeakExamples' staticLeakList, but recycled (promotion + humongous objects)
+    Prints one line the harness parses: GC-WORKLOAD ops=... seconds=... rssPeakMB=... heapCommittedMB=...
+
+    Usage: java -Xmx512m -XX:+UseG1GC GcWorkload [seconds] [liveSetMB]
+*/
+
+// It's a "Runnable Class"
+public class GcWorkload {
+    private static final int SESSION_BYTES = 1024;
+    private static final int CHUNK_BYTES = 1024 * 1024;
+    private static final int CHUNKS_KEPT = 16;
+    private static final int USERS_PER_OPERATION = 10;
+
+    public static void main(String[] args) {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int liveSetMb = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int sessions = liveSetMb * 1024 * 1024 / (SESSION_BYTES + 96); // 96: key, entry and array header overhead
+
+        // Live set, filled before the clock starts
+        Map<String, byte[]> sessionCache = new HashMap<>(sessions * 4 / 3 + 1);
+        for (int i = 0; i < sessions; i++) sessionCache.put("user" + i, new byte[SESSION_BYTES]);
+        byte[][] chunks = new byte[CHUNKS_KEPT][];
+
+        long checksum = 0;
+        long operations = 0;
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            for (int batch = 0; batch < 1_000; batch++, operations++) {
+                long i = operations; // Stays a long: an int overflows on long runs and the indexes go negative
+                for (int u = 0; u < USERS_PER_OPERATION; u++) {
+                    JavaOptimizationExampleThree.ImmutableUser user =
+                            new JavaOptimizationExampleThree.ImmutableUser("User" + i, Math.floorMod(i, 100) + u);
+                    checksum += user.getName().length();
+                }
+                sessionCache.put("user" + Math.floorMod(i * 31, sessions), new byte[SESSION_BYTES]); // Refresh
+                if (i % 200 == 0) chunks[Math.floorMod(i / 200, CHUNKS_KEPT)] = new byte[CHUNK_BYTES];
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        if (checksum == 42) System.out.println(); // Keeps the loop from being eliminated
+
+        System.out.printf("GC-WORKLOAD ops=%d seconds=%.3f rssPeakMB=%d heapCommittedMB=%d%n",
+                operations, elapsed, rssPeakMb(), heapCommittedMb());
+    }
+
+    // Peak resident set size of this process (Linux), -1 elsewhere
+    private static long rssPeakMb() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+                }
+            }
+        } catch (IOException | RuntimeException ignored) {
+            // Not Linux
+        }
+        return -1;
+    }
+
+    private static long heapCommittedMb() {
+        long committed = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                committed += pool.getPeakUsage().getCommitted();
+            }
+        }
+        return committed / (1024 * 1024);
+    }
+}
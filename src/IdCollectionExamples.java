@@ -0,0 +1,211 @@
+import collectionExample.CompressedIntSet;
+import collectionExample.DenseIdMap;
+import diagnosticsExample.JfrRecorder;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    EnumSet / EnumMap are fast because the key is an index into a bitmask / array.
+    Same idea for dense integer IDs (user IDs, segment members, permissions):
+    CompressedIntSet (Roaring-style bitmap) and DenseIdMap against HashSet<Integer>, BitSet and HashMap<Integer, V>.
+
+    Memory figures are heap deltas after System.gc(): orders of magnitude, not exact sizes.
+    Run with -Xmx2g.
+*/
+
+// It's a "Runnable Class"
+public class IdCollectionExamples {
+    private static final int USERS = 20_000_000;
+    private static final int LOOKUPS = 10_000_000;
+
+    // Benchmark utility
+    private static void benchmark(String label, Runnable task) {
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            long start = System.nanoTime();
+            task.run();
+            long duration = System.nanoTime() - start;
+            System.out.printf("%-50s : %d ms\n", label, duration / 1_000_000);
+        } finally {
+            phase.end();
+        }
+    }
+
+    // Builds the structure and prints how much heap it retains
+    private static <T> T measure(String label, Supplier<T> builder) {
+        long before = usedHeap();
+        long start = System.nanoTime();
+        T result = builder.get();
+        long duration = System.nanoTime() - start;
+        long retained = usedHeap() - before;
+        System.out.printf("%-50s : %d ms, ~%d MB retained\n", label, duration / 1_000_000, retained / (1024 * 1024));
+        return result;
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // 1. Segment membership: 10% of 20M users picked at random, then 10M "is this user in the segment?" checks
+    public static void testMembership() {
+        int[] members = randomIds(new Random(42), USERS / 10, USERS);
+        int[] queries = randomIds(new Random(7), LOOKUPS, USERS);
+
+        Set<Integer> hashSet = measure("[BAD] HashSet<Integer> build", () -> {
+            Set<Integer> set = new HashSet<>();
+            for (int id : members) set.add(id);
+            return set;
+        });
+        benchmark("[BAD] HashSet<Integer> contains", () -> {
+            int hits = 0;
+            for (int id : queries) if (hashSet.contains(id)) hits++; // Boxing + hashing + pointer chase
+            report(hits);
+        });
+        hashSet.clear();
+
+        BitSet bitSet = measure("[GOOD] BitSet build", () -> {
+            BitSet set = new BitSet(USERS);
+            for (int id : members) set.set(id);
+            return set;
+        });
+        benchmark("[GOOD] BitSet get", () -> {
+            int hits = 0;
+            for (int id : queries) if (bitSet.get(id)) hits++;
+            report(hits);
+        });
+
+        CompressedIntSet compressed = measure("[GOOD] CompressedIntSet build", () -> {
+            CompressedIntSet set = new CompressedIntSet();
+            for (int id : members) set.add(id);
+            return set;
+        });
+        benchmark("[GOOD] CompressedIntSet contains", () -> {
+            int hits = 0;
+            for (int id : queries) if (compressed.contains(id)) hits++;
+            report(hits);
+        });
+        System.out.println("[INFO] " + compressed);
+        System.out.println();
+    }
+
+    // 2. Combining segments: "random 10% of users" AND / OR / AND NOT "accounts 5M..8M" (one contiguous range)
+    public static void testSetAlgebra() {
+        int[] members = randomIds(new Random(42), USERS / 10, USERS);
+        int rangeFrom = 5_000_000, rangeTo = 8_000_000;
+
+        Set<Integer> hashA = new HashSet<>();
+        for (int id : members) hashA.add(id);
+        Set<Integer> hashB = new HashSet<>();
+        for (int id = rangeFrom; id < rangeTo; id++) hashB.add(id);
+        benchmark("[BAD] HashSet retainAll / addAll / removeAll", () -> {
+            Set<Integer> and = new HashSet<>(hashA);
+            and.retainAll(hashB);
+            Set<Integer> or = new HashSet<>(hashA);
+            or.addAll(hashB);
+            Set<Integer> andNot = new HashSet<>(hashA);
+            andNot.removeAll(hashB);
+            report(and.size() + or.size() + andNot.size());
+        });
+        hashA.clear();
+        hashB.clear();
+
+        BitSet bitA = new BitSet(USERS);
+        for (int id : members) bitA.set(id);
+        BitSet bitB = new BitSet(USERS);
+        bitB.set(rangeFrom, rangeTo);
+        benchmark("[GOOD] BitSet and / or / andNot", () -> {
+            BitSet and = (BitSet) bitA.clone();
+            and.and(bitB);
+            BitSet or = (BitSet) bitA.clone();
+            or.or(bitB);
+            BitSet andNot = (BitSet) bitA.clone();
+            andNot.andNot(bitB);
+            report(and.cardinality() + or.cardinality() + andNot.cardinality());
+        });
+
+        CompressedIntSet setA = new CompressedIntSet();
+        for (int id : members) setA.add(id);
+        CompressedIntSet setB = CompressedIntSet.range(rangeFrom, rangeTo); // ~46 run containers of 4 bytes
+        benchmark("[GOOD] CompressedIntSet and / or / andNot", () -> report(
+                CompressedIntSet.and(setA, setB).cardinality()
+                        + CompressedIntSet.or(setA, setB).cardinality()
+                        + CompressedIntSet.andNot(setA, setB).cardinality()));
+        benchmark("[GOOD] CompressedIntSet.andCardinality", () -> report(CompressedIntSet.andCardinality(setA, setB)));
+        System.out.printf("[INFO] sizes: BitSet %d KB + %d KB, CompressedIntSet %d KB + %d KB\n",
+                bitA.size() / 8 / 1024, bitB.size() / 8 / 1024, setA.sizeInBytes() / 1024, setB.sizeInBytes() / 1024);
+        System.out.println();
+    }
+
+    // 3. Sparse IDs over the whole int range: BitSet pays for the highest ID, not for the number of IDs
+    public static void testSparseIds() {
+        int[] admins = randomIds(new Random(1), 10_000, Integer.MAX_VALUE);
+        int maxId = 0;
+        for (int id : admins) maxId = Math.max(maxId, id);
+
+        CompressedIntSet compressed = new CompressedIntSet();
+        for (int id : admins) compressed.add(id);
+        System.out.printf("[BAD] BitSet for 10 000 IDs up to %d would need ~%d MB\n", maxId, maxId / 8 / (1024 * 1024));
+        System.out.printf("[GOOD] CompressedIntSet for the same IDs: %d KB (%s)\n",
+                compressed.sizeInBytes() / 1024, compressed.describe());
+        System.out.println();
+    }
+
+    // 4. Per-user attribute keyed by a dense ID: HashMap<Integer, V> vs DenseIdMap<V>
+    public static void testDenseIdMap() {
+        int users = 2_000_000;
+        int[] queries = randomIds(new Random(3), LOOKUPS, users);
+        String[] tiers = {"free", "pro", "enterprise"};
+
+        Map<Integer, String> hashMap = measure("[BAD] HashMap<Integer, String> build", () -> {
+            Map<Integer, String> map = new HashMap<>();
+            for (int id = 0; id < users; id++) map.put(id, tiers[id % 3]);
+            return map;
+        });
+        benchmark("[BAD] HashMap<Integer, String> get", () -> {
+            int length = 0;
+            for (int id : queries) length += hashMap.get(id).length();
+            report(length);
+        });
+        hashMap.clear();
+
+        DenseIdMap<String> denseMap = measure("[GOOD] DenseIdMap<String> build", () -> {
+            DenseIdMap<String> map = new DenseIdMap<>();
+            for (int id = 0; id < users; id++) map.put(id, tiers[id % 3]);
+            return map;
+        });
+        benchmark("[GOOD] DenseIdMap<String> get", () -> {
+            int length = 0;
+            for (int id : queries) length += denseMap.get(id).length();
+            report(length);
+        });
+        System.out.println();
+    }
+
+    private static int[] randomIds(Random random, int count, int bound) {
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) ids[i] = random.nextInt(bound);
+        return ids;
+    }
+
+    private static void report(int checksum) {
+        if (checksum == 42) System.out.println(); // Keeps the work from being eliminated
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- Dense integer ID collections (EnumSet / EnumMap idea for IDs) ---");
+        testMembership();
+        testSetAlgebra();
+        testSparseIds();
+        testDenseIdMap();
+    }
+}
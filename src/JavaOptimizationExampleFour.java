@@ -0,0 +1,213 @@
+import diagnosticsExample.JfrRecorder;
+import ioExample.MappedLineEngine;
+import ioExample.NioFiles;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    This class is intended to illustrate common Java optimization patterns
+    by contrasting good and bad practices. It does not represent accurate
+    performance profiling and should not be used to make final decisions
+    about micro-optimization.
+
+    For accurate benchmarking, use dedicated tools like:
+    - JMH (Java Microbenchmark Harness)
+    - Java Flight Recorder (JFR)
+    - VisualVM / YourKit
+
+    This is a conceptual demonstration of performance-aware coding.
+
+    Note: the test file is written just before being read, so it is served from the OS page cache.
+    The numbers show the CPU cost of each I/O style, not the speed of the disk.
+*/
+
+// It's a "Runnable Class"
+public class JavaOptimizationExampleFour {
+    private static final long FILE_SIZE = 256L * 1024 * 1024;
+    private static final int[] BUFFER_SIZES = {4 * 1024, 16 * 1024, 64 * 1024, 256 * 1024, 1024 * 1024};
+
+    // Benchmark utility (throughput flavour)
+    private static void benchmark(String label, long bytes, IoTask task) {
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } catch (IOException e) {
+                throw new RuntimeException(label + " failed", e);
+            }
+            long duration = System.nanoTime() - start;
+            System.out.printf("%-50s : %d ms (%.0f MB/s)\n", label, duration / 1_000_000,
+                    NioFiles.megabytesPerSecond(bytes, duration));
+        } finally {
+            phase.end();
+        }
+    }
+
+    interface IoTask {
+        void run() throws IOException;
+    }
+
+    // 15. Reading lines: decoding to String is the expensive part
+    public static void testLineReading(Path file) {
+        long bytes = NioFiles.sizeOf(file);
+
+        benchmark("[BAD] BufferedReader.readLine (8 KB default)", bytes,
+                () -> NioFiles.countLinesBufferedReader(file, 8 * 1024));
+
+        benchmark("[INFO] Files.lines().count()", bytes, () -> NioFiles.countLinesFilesLines(file));
+
+        benchmark("[GOOD] Raw bytes, newline scan (64 KB buffer)", bytes,
+                () -> NioFiles.countNewlinesInputStream(file, NioFiles.DEFAULT_BUFFER_SIZE));
+        System.out.println();
+    }
+
+    // 16. Buffer size sweep: too small = one system call every few KB
+    public static void testBufferSizes(Path file) {
+        long bytes = NioFiles.sizeOf(file);
+        for (int size : BUFFER_SIZES) {
+            benchmark("[INFO] FileInputStream byte[" + size / 1024 + " KB]", bytes,
+                    () -> NioFiles.countNewlinesInputStream(file, size));
+        }
+        System.out.println();
+    }
+
+    // 17. FileChannel with heap vs direct ByteBuffer
+    public static void testHeapVsDirectBuffer(Path file) {
+        long bytes = NioFiles.sizeOf(file);
+        for (int size : BUFFER_SIZES) {
+            // Allocate once, reuse for the whole file (direct buffers are expensive to create)
+            ByteBuffer heap = ByteBuffer.allocate(size);
+            ByteBuffer direct = ByteBuffer.allocateDirect(size);
+            benchmark("[BAD] FileChannel heap ByteBuffer " + size / 1024 + " KB", bytes,
+                    () -> NioFiles.countNewlinesChannel(file, heap));
+            benchmark("[GOOD] FileChannel direct ByteBuffer " + size / 1024 + " KB", bytes,
+                    () -> NioFiles.countNewlinesChannel(file, direct));
+        }
+        System.out.println();
+    }
+
+    // 18. Memory-mapped reads: no read() calls, no copy into a Java buffer
+    public static void testMappedRead(Path file) {
+        long bytes = NioFiles.sizeOf(file);
+        ByteBuffer direct = ByteBuffer.allocateDirect(NioFiles.DEFAULT_BUFFER_SIZE);
+
+        benchmark("[INFO] FileChannel direct ByteBuffer 64 KB", bytes, () -> NioFiles.countNewlinesChannel(file, direct));
+        benchmark("[GOOD] FileChannel.map (READ_ONLY)", bytes, () -> NioFiles.countNewlinesMapped(file));
+        System.out.println();
+    }
+
+    // 19. File copy: let the kernel move the bytes
+    public static void testFileCopy(Path file) throws IOException {
+        long bytes = NioFiles.sizeOf(file);
+        Path target = Files.createTempFile("java-optimus-copy", ".log");
+        ByteBuffer direct = ByteBuffer.allocateDirect(1024 * 1024); // Allocated outside the timed copy
+        try {
+            benchmark("[BAD] InputStream -> OutputStream (8 KB)", bytes,
+                    () -> NioFiles.copyStreams(file, target, 8 * 1024));
+            benchmark("[INFO] InputStream -> OutputStream (1 MB)", bytes,
+                    () -> NioFiles.copyStreams(file, target, 1024 * 1024));
+            benchmark("[INFO] FileChannel + direct ByteBuffer (1 MB)", bytes,
+                    () -> NioFiles.copyChannel(file, target, direct));
+            benchmark("[GOOD] FileChannel.transferTo (zero-copy)", bytes,
+                    () -> NioFiles.copyTransferTo(file, target));
+        } finally {
+            Files.deleteIfExists(target);
+        }
+        System.out.println();
+    }
+
+    // 20. Parallel filter over a huge file (same idea as testStreamVsLoop, but the data never becomes Strings)
+    public static void testParallelLineScan(Path file) throws IOException {
+        long bytes = NioFiles.sizeOf(file);
+        byte[] error = " ERROR ".getBytes(StandardCharsets.US_ASCII);
+
+        benchmark("[BAD] Files.lines().parallel().filter().count()", bytes, () -> {
+            try (Stream<String> lines = Files.lines(file)) {
+                long errors = lines.parallel().filter(s -> s.contains(" ERROR ")).count();
+            }
+        });
+
+        try (MappedLineEngine engine = MappedLineEngine.open(file)) {
+            benchmark("[GOOD] MappedLineEngine.lines(filter, parallel)", bytes, () -> {
+                List<String> errors = engine.lines(line -> line.contains(error), true).collect(Collectors.toList());
+            });
+
+            benchmark("[GOOD] MappedLineEngine.count on ForkJoinPool", bytes, () -> {
+                long errors = engine.count(line -> line.contains(error), ForkJoinPool.commonPool());
+            });
+
+            // Aggregation without decoding: count per log level (the level starts at byte 24 of each line)
+            long[] perLevel = engine.aggregate(() -> new long[4], (counts, line) -> {
+                if (line.length() > 24) counts[levelIndex(line.byteAt(24))]++;
+            }, (a, b) -> {
+                for (int i = 0; i < a.length; i++) a[i] += b[i];
+                return a;
+            }, ForkJoinPool.commonPool());
+            System.out.printf("Lines per level: INFO=%d DEBUG=%d WARN=%d ERROR=%d (%d chunks)%n",
+                    perLevel[0], perLevel[1], perLevel[2], perLevel[3], engine.chunkCount());
+        }
+        System.out.println();
+    }
+
+    private static int levelIndex(byte firstLetter) {
+        switch (firstLetter) {
+            case 'D': return 1;
+            case 'W': return 2;
+            case 'E': return 3;
+            default: return 0;
+        }
+    }
+
+    // Runs every code path on a small file first, so the first measured variant is not also paying for JIT compilation
+    private static void warmUp() throws IOException {
+        Path small = NioFiles.createLogFile(Files.createTempFile("java-optimus-warmup", ".log"), 8L * 1024 * 1024);
+        Path copy = Files.createTempFile("java-optimus-warmup-copy", ".log");
+        try {
+            for (int i = 0; i < 5; i++) {
+                NioFiles.countLinesBufferedReader(small, 8 * 1024);
+                NioFiles.countLinesFilesLines(small);
+                NioFiles.countNewlinesInputStream(small, NioFiles.DEFAULT_BUFFER_SIZE);
+                NioFiles.countNewlinesChannel(small, ByteBuffer.allocate(NioFiles.DEFAULT_BUFFER_SIZE));
+                NioFiles.countNewlinesChannel(small, ByteBuffer.allocateDirect(NioFiles.DEFAULT_BUFFER_SIZE));
+                NioFiles.countNewlinesMapped(small);
+                NioFiles.copyStreams(small, copy, NioFiles.DEFAULT_BUFFER_SIZE);
+                NioFiles.copyChannel(small, copy, ByteBuffer.allocateDirect(NioFiles.DEFAULT_BUFFER_SIZE));
+                NioFiles.copyTransferTo(small, copy);
+                try (MappedLineEngine engine = MappedLineEngine.open(small, 1024 * 1024)) {
+                    engine.count(line -> line.startsWith(new byte[]{'2'}), ForkJoinPool.commonPool());
+                    engine.lines(line -> line.length() == 0, true).count();
+                }
+            }
+        } finally {
+            Files.deleteIfExists(small);
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("--- Java Optimization Benchmarks (Part 4: File I/O) ---");
+        warmUp();
+        Path file = NioFiles.createLogFile(Files.createTempFile("java-optimus", ".log"), FILE_SIZE);
+        try {
+            testLineReading(file);
+            testBufferSizes(file);
+            testHeapVsDirectBuffer(file);
+            testMappedRead(file);
+            testFileCopy(file);
+            testParallelLineScan(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -1,3 +1,5 @@
+import diagnosticsExample.JfrRecorder;
+
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -22,10 +24,15 @@ import java.util.List;
 public class JavaOptimizationExampleOne {
     // Benchmark utility
     private static void benchmark(String label, Runnable task) {
-        long start = System.nanoTime();
-        task.run();
-        long duration = System.nanoTime() - start;
-        System.out.printf("%-50s : %d ms\n", label, duration / 1_000_000);
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            long start = System.nanoTime();
+            task.run();
+            long duration = System.nanoTime() - start;
+            System.out.printf("%-50s : %d ms\n", label, duration / 1_000_000);
+        } finally {
+            phase.end();
+        }
     }
 
     // 1. String concatenation vs StringBuilder
@@ -1,3 +1,6 @@
+import diagnosticsExample.JfrRecorder;
+
+import java.io.Serializable;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
@@ -22,10 +25,15 @@ import java.util.regex.Pattern;
 public class JavaOptimizationExampleThree {
     // Benchmark utility
     private static void benchmark(String label, Runnable task) {
-        long start = System.nanoTime();
-        task.run();
-        long duration = System.nanoTime() - start;
-        System.out.printf("%-50s : %d ms\n", label, duration / 1_000_000);
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            long start = System.nanoTime();
+            task.run();
+            long duration = System.nanoTime() - start;
+            System.out.printf("%-50s : %d ms\n", label, duration / 1_000_000);
+        } finally {
+            phase.end();
+        }
     }
 
     // 11. Regex compilation is expensive – reuse Pattern objects.
@@ -195,7 +203,10 @@ public class JavaOptimizationExampleThree {
         }
     }
 
-    public static final class ImmutableUser {
+    // Serializable only for the ObjectOutputStream baseline of SerializationExamples
+    public static final class ImmutableUser implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         private final String name;
         private final int age;
 
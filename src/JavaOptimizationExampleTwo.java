@@ -1,3 +1,5 @@
+import diagnosticsExample.JfrRecorder;
+
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -24,10 +26,15 @@ import java.util.stream.Collectors;
 public class JavaOptimizationExampleTwo {
     // Benchmark utility
     private static void benchmark(String label, Runnable task) {
-        long start = System.nanoTime();
-        task.run();
-        long duration = System.nanoTime() - start;
-        System.out.printf("%-50s : %d ms\n", label, duration / 1_000_000);
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            long start = System.nanoTime();
+            task.run();
+            long duration = System.nanoTime() - start;
+            System.out.printf("%-50s : %d ms\n", label, duration / 1_000_000);
+        } finally {
+            phase.end();
+        }
     }
 
     // 6. HashMap with and without initial capacity
@@ -0,0 +1,152 @@
+import diagnosticsExample.JfrEvents;
+import diagnosticsExample.JfrRecorder;
+import diagnosticsExample.JfrSummary;
+import memoryExample.ReferenceCache;
+import memoryExample.ReferenceCache.Strength;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    The header comments of this project recommend JFR: this is the workflow.
+    Each workload below runs inside a JfrRecorder phase with recording mode on, so it gets its own .jfr file
+    and a JfrSummary: top allocation sites, lock contention (synchronized, parking, tryLock) and GC pauses,
+    plus the cache and queue gauges registered with JfrEvents.
+
+    Every runnable class of the project supports the same mode:  java -Djfr.record=/tmp/jfr CollectionExamples
+    Summarize an existing recording:                             java JfrExamples /tmp/jfr/01-....jfr
+    Open the files in JDK Mission Control for the full picture (flame graphs, thread timelines).
+*/
+
+// It's a "Runnable Class"
+public class JfrExamples {
+    private static final Object MONITOR = new Object();
+    private static long sharedCounter;
+
+    // 1. Allocation: boxing every element – the summary points at the line below, not at Integer.valueOf
+    public static void testAllocationSites() {
+        JfrRecorder.Phase phase = JfrRecorder.phase("[BAD] boxing 20M Integers into an ArrayList");
+        try {
+            long sum = 0;
+            for (int round = 0; round < 10; round++) {
+                List<Integer> values = new ArrayList<>();
+                for (int i = 0; i < 2_000_000; i++) values.add(i); // Allocation site
+                for (int value : values) sum += value;
+            }
+            report(sum);
+        } finally {
+            phase.end();
+        }
+    }
+
+    // 2. Contention: threads queueing on one monitor held for a while (shows up as jdk.JavaMonitorEnter)
+    public static void testMonitorContention() {
+        JfrRecorder.Phase phase = JfrRecorder.phase("[BAD] 4 threads on one synchronized block");
+        try {
+            Runnable task = () -> {
+                for (int i = 0; i < 5; i++) {
+                    synchronized (MONITOR) {
+                        sharedCounter++;
+                        sleep(15); // Slow work under the lock: the others wait more than the 10 ms threshold
+                    }
+                }
+            };
+            runThreads(task, task, task, task);
+        } finally {
+            phase.end();
+        }
+    }
+
+    // 3. tryLock with back-off (DeadlockFreeExamples): each attempt is a javaoptimus.LockAcquisition event
+    public static void testTryLock() {
+        Lock lockA = new ReentrantLock();
+        Lock lockB = new ReentrantLock();
+        JfrRecorder.Phase phase = JfrRecorder.phase("[INFO] DeadlockFreeExamples.tryLockBoth");
+        try {
+            // Opposite lock order on each thread, like DeadlockFreeExamples.main
+            runThreads(() -> DeadlockFreeExamples.tryLockBoth("Thread 1", lockA, lockB),
+                    () -> DeadlockFreeExamples.tryLockBoth("Thread 2", lockB, lockA));
+        } finally {
+            phase.end();
+        }
+    }
+
+    // 4. Gauges: a cache's hit rate and an executor's backlog, sampled into the recording
+    public static void testGauges() {
+        ReferenceCache<Integer, String> cache = new ReferenceCache<>(Strength.STRONG, Strength.STRONG);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        JfrEvents.Registration cacheGauge = JfrEvents.registerCache("squares", cache::hits, cache::misses);
+        JfrEvents.Registration queueGauge = JfrEvents.registerQueue("executor", executor.getQueue()::size);
+        JfrRecorder.Phase phase = JfrRecorder.phase("[INFO] cache + executor backlog");
+        try {
+            for (int i = 0; i < 2_000; i++) {
+                int key = i % 500;
+                executor.execute(() -> {
+                    cache.computeIfAbsent(key, k -> Integer.toString(k * k));
+                    sleep(1);
+                });
+            }
+            JfrEvents.emitGauges(); // Backlog at its peak, before it drains
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            phase.end();
+            queueGauge.unregister();
+            cacheGauge.unregister();
+        }
+    }
+
+    private static void runThreads(Runnable... tasks) {
+        List<Thread> threads = new ArrayList<>();
+        for (Runnable task : tasks) {
+            Thread thread = new Thread(task);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void report(long checksum) {
+        if (checksum == 42) System.out.println(); // Keeps the loop from being eliminated
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            for (String file : args) System.out.print(JfrSummary.summarize(Path.of(file), 10));
+            return;
+        }
+        System.out.println("--- JFR: one recording per workload, summarized ---");
+        if (!JfrRecorder.recording()) {
+            JfrRecorder.recordTo(Path.of(System.getProperty("java.io.tmpdir"), "javaoptimus-jfr"));
+        }
+        testAllocationSites();
+        testMonitorContention();
+        testTryLock();
+        testGauges();
+    }
+}
@@ -0,0 +1,116 @@
+import diagnosticsExample.LatencyHistogram;
+import diagnosticsExample.LatencyRunner;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    Every benchmark(...) of this project prints one total duration: the tail is invisible.
+    Here the same kind of workloads are timed per operation with LatencyRunner and reported as percentiles:
+    - resizing collections: a fine average, a p99.9 / max made of rehashes and array copies
+    - a service that stalls now and then: the closed-loop figures hide the stall (coordinated omission),
+      the open-loop figures (latency from the intended start) show what callers would have seen
+    - several threads: one histogram per thread, merged
+    - the cost of LatencyHistogram.record itself (and proof that it does not allocate)
+*/
+
+// It's a "Runnable Class"
+public class LatencyExamples {
+    private static final int OPERATIONS = 1_000_000;
+
+    // 1. Same average, different tail: growth of a HashMap / ArrayList without initial capacity
+    public static void testResizeTail() {
+        Map<Integer, Integer> growing = new HashMap<>();
+        LatencyRunner.closedLoop("[BAD] HashMap.put, default capacity", OPERATIONS, i -> growing.put(i, i));
+
+        Map<Integer, Integer> sized = new HashMap<>(OPERATIONS * 4 / 3 + 1);
+        LatencyRunner.closedLoop("[GOOD] HashMap.put, initial capacity", OPERATIONS, i -> sized.put(i, i));
+
+        List<Integer> list = new ArrayList<>();
+        LatencyRunner.closedLoop("[BAD] ArrayList.add, default capacity", OPERATIONS, list::add);
+
+        List<Integer> sizedList = new ArrayList<>(OPERATIONS * 2);
+        LatencyRunner.closedLoop("[GOOD] ArrayList.add, initial capacity", OPERATIONS, sizedList::add);
+        System.out.println();
+    }
+
+    // 2. Coordinated omission: every 500th call stalls for 50 ms (a GC pause, a lock convoy, a slow disk)
+    public static void testCoordinatedOmission() {
+        int operations = 5_000;
+        LatencyRunner.Operation service = i -> {
+            if (i % 500 == 499) sleep(50);
+            else busyWork(20_000); // ~20 µs of normal work
+        };
+
+        LatencyRunner.closedLoop("[BAD] closed loop (hides the stall)", operations, service);
+        LatencyRunner.openLoop("[GOOD] open loop at 2 000 ops/s", operations, 2_000, service);
+        System.out.println();
+    }
+
+    // 3. Percentiles across threads: per-thread histograms merged after the run
+    public static void testThreads() {
+        int threads = 4;
+        int operationsPerThread = 250_000;
+
+        Map<Integer, Integer> synchronizedMap = Collections.synchronizedMap(new HashMap<>());
+        LatencyRunner.threads("[BAD] synchronizedMap.merge", threads, operationsPerThread,
+                i -> synchronizedMap.merge(i & 1023, 1, Integer::sum));
+
+        Map<Integer, Integer> concurrentMap = new ConcurrentHashMap<>();
+        LatencyRunner.threads("[GOOD] ConcurrentHashMap.merge", threads, operationsPerThread,
+                i -> concurrentMap.merge(i & 1023, 1, Integer::sum));
+        System.out.println();
+    }
+
+    // 4. Recording overhead, and no allocation on the hot path
+    public static void testRecordingCost() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int values = 50_000_000;
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 1_000_000; i++) histogram.record(i & 0xFFFFF); // Warm-up
+
+        long allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < values; i++) histogram.record((i * 2_654_435_761L) & 0xFFFFFFL);
+        long duration = System.nanoTime() - start;
+        long allocated = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        System.out.printf("%-50s : %.1f ns per value, %d bytes allocated\n", "[INFO] LatencyHistogram.record",
+                (double) duration / values, allocated);
+        LatencyRunner.closedLoop("[INFO] empty operation (timer overhead)", OPERATIONS, i -> {
+        });
+        System.out.println();
+    }
+
+    private static long sink;
+
+    private static void busyWork(long nanos) {
+        long end = System.nanoTime() + nanos;
+        long x = 0;
+        while (System.nanoTime() < end) x++;
+        sink += x;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- Latency percentiles: per-operation timing with LatencyHistogram ---");
+        testResizeTail();
+        testCoordinatedOmission();
+        testThreads();
+        testRecordingCost();
+    }
+}
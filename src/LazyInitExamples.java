@@ -0,0 +1,227 @@
+import concurrencyExample.Lazy;
+import concurrencyExample.Memoizer;
+import diagnosticsExample.JfrRecorder;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    JavaOptimizationExampleTwo.testLazyInitialization uses a null check on a local HashMap: fine on one thread,
+    broken on many. Here the thread-safe variants are compared on:
+    - startup: eager vs lazy "expensive singletons"
+    - first-access contention: many threads asking for the value while it is being built
+    - steady-state read cost once initialized
+    - memoization of an expensive pure function
+*/
+
+// It's a "Runnable Class"
+public class LazyInitExamples {
+    private static final int READS = 100_000_000;
+
+    // Benchmark utility
+    private static void benchmark(String label, Runnable task) {
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            long start = System.nanoTime();
+            task.run();
+            long duration = System.nanoTime() - start;
+            System.out.printf("%-50s : %d ms\n", label, duration / 1_000_000);
+        } finally {
+            phase.end();
+        }
+    }
+
+    // Stand-in for a singleton that takes time to build (connection pool, parsed rules, client...)
+    record ExpensiveService(String name, long checksum) {
+        static ExpensiveService build(String name, int millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new ExpensiveService(name, name.hashCode());
+        }
+    }
+
+    // Holder-class idiom: INSTANCE is built by the JVM the first time Holder is touched, exactly once
+    private static final class Holder {
+        static final ExpensiveService INSTANCE = ExpensiveService.build("holder", 0);
+    }
+
+    private static final ExpensiveService EAGER = ExpensiveService.build("eager", 0);
+
+    // 1. Startup: 30 services at 20 ms each, the health check only needs 3 of them
+    public static void testStartup() {
+        int services = 30;
+
+        benchmark("[BAD] Eager: build all 30 services at startup", () -> {
+            Map<String, ExpensiveService> registry = new HashMap<>();
+            for (int i = 0; i < services; i++) registry.put("service" + i, ExpensiveService.build("service" + i, 20));
+            for (int i = 0; i < 3; i++) registry.get("service" + i).checksum();
+        });
+
+        benchmark("[GOOD] Lazy: build the 3 the health check needs", () -> {
+            Map<String, Lazy<ExpensiveService>> registry = new HashMap<>();
+            for (int i = 0; i < services; i++) {
+                String name = "service" + i;
+                registry.put(name, Lazy.acquireRelease(() -> ExpensiveService.build(name, 20)));
+            }
+            for (int i = 0; i < 3; i++) registry.get("service" + i).get().checksum();
+        });
+        System.out.println();
+    }
+
+    // 2. 64 threads call get() while the first one is still building the value (50 ms)
+    public static void testFirstAccessContention() {
+        int threads = 64;
+
+        // The null check from testLazyInitialization, shared between threads
+        ExpensiveService[] unsafeField = new ExpensiveService[1];
+        AtomicInteger unsafeBuilds = new AtomicInteger();
+        contend("[BAD] Unsynchronized null check", threads, () -> {
+            if (unsafeField[0] == null) {
+                unsafeBuilds.incrementAndGet();
+                unsafeField[0] = ExpensiveService.build("unsafe", 50);
+            }
+            return unsafeField[0];
+        }, unsafeBuilds);
+
+        AtomicInteger dclBuilds = new AtomicInteger();
+        Lazy<ExpensiveService> dcl = Lazy.volatileDcl(() -> {
+            dclBuilds.incrementAndGet();
+            return ExpensiveService.build("dcl", 50);
+        });
+        contend("[GOOD] Lazy.volatileDcl", threads, dcl, dclBuilds);
+
+        AtomicInteger varHandleBuilds = new AtomicInteger();
+        Lazy<ExpensiveService> varHandle = Lazy.acquireRelease(() -> {
+            varHandleBuilds.incrementAndGet();
+            return ExpensiveService.build("varHandle", 50);
+        });
+        contend("[GOOD] Lazy.acquireRelease", threads, varHandle, varHandleBuilds);
+        System.out.println();
+    }
+
+    private static void contend(String label, int threads, Supplier<ExpensiveService> lazy, AtomicInteger builds) {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    lazy.get().checksum();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.printf("%-50s : %d ms, built %d time(s)\n", label, (System.nanoTime() - begin) / 1_000_000, builds.get());
+    }
+
+    // 3. Steady state: cost of get() once the value exists
+    public static void testSteadyStateReads() {
+        Lazy<ExpensiveService> dcl = Lazy.volatileDcl(() -> ExpensiveService.build("dcl", 0));
+        Lazy<ExpensiveService> varHandle = Lazy.acquireRelease(() -> ExpensiveService.build("varHandle", 0));
+        Lazy<ExpensiveService> stable = Lazy.stable(() -> ExpensiveService.build("stable", 0));
+        Object lock = new Object();
+        ExpensiveService[] synchronizedField = new ExpensiveService[1];
+
+        benchmark("[BAD] synchronized getter", () -> {
+            long sum = 0;
+            for (int i = 0; i < READS; i++) {
+                synchronized (lock) {
+                    if (synchronizedField[0] == null) synchronizedField[0] = ExpensiveService.build("sync", 0);
+                    sum += synchronizedField[0].checksum();
+                }
+            }
+            report(sum);
+        });
+        benchmark("[GOOD] Lazy.volatileDcl", () -> {
+            long sum = 0;
+            for (int i = 0; i < READS; i++) sum += dcl.get().checksum();
+            report(sum);
+        });
+        benchmark("[GOOD] Lazy.acquireRelease", () -> {
+            long sum = 0;
+            for (int i = 0; i < READS; i++) sum += varHandle.get().checksum();
+            report(sum);
+        });
+        benchmark(Lazy.jdkStableAvailable() ? "[GOOD] Lazy.stable (JDK lazy constant)" : "[GOOD] Lazy.stable (fallback: acquireRelease)", () -> {
+            long sum = 0;
+            for (int i = 0; i < READS; i++) sum += stable.get().checksum();
+            report(sum);
+        });
+        benchmark("[GOOD] Holder-class idiom", () -> {
+            long sum = 0;
+            for (int i = 0; i < READS; i++) sum += Holder.INSTANCE.checksum();
+            report(sum);
+        });
+        benchmark("[INFO] Eager static final (best case)", () -> {
+            long sum = 0;
+            for (int i = 0; i < READS; i++) sum += EAGER.checksum();
+            report(sum);
+        });
+        System.out.println();
+    }
+
+    // 4. Expensive pure function called with a small set of keys
+    public static void testMemoization() {
+        int calls = 2_000;
+        Function<Integer, BigInteger> factorial = LazyInitExamples::factorial;
+
+        benchmark("[BAD] Recompute factorial(n) on every call", () -> {
+            long bits = 0;
+            for (int i = 0; i < calls; i++) bits += factorial.apply(2_000 + i % 20).bitLength();
+            report(bits);
+        });
+
+        Memoizer<Integer, BigInteger> memoized = Memoizer.of(factorial);
+        benchmark("[GOOD] Memoizer: compute once per key", () -> {
+            long bits = 0;
+            for (int i = 0; i < calls; i++) bits += memoized.apply(2_000 + i % 20).bitLength();
+            report(bits);
+        });
+        System.out.println("[INFO] memoized keys: " + memoized.size());
+
+        // Recursive memoization: ConcurrentHashMap.computeIfAbsent would throw "Recursive update" here
+        AtomicReference<Function<Integer, BigInteger>> fibonacci = new AtomicReference<>();
+        fibonacci.set(Memoizer.of(n -> n < 2 ? BigInteger.valueOf(n) : fibonacci.get().apply(n - 1).add(fibonacci.get().apply(n - 2))));
+        benchmark("[GOOD] Memoizer: recursive fibonacci(500)", () -> report(fibonacci.get().apply(500).bitLength()));
+        System.out.println();
+    }
+
+    private static BigInteger factorial(int n) {
+        BigInteger result = BigInteger.ONE;
+        for (int i = 2; i <= n; i++) result = result.multiply(BigInteger.valueOf(i));
+        return result;
+    }
+
+    private static void report(long checksum) {
+        if (checksum == 42) System.out.println(); // Keeps the loop from being eliminated
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- Lazy initialization and memoization ---");
+        testStartup();
+        testFirstAccessContention();
+        testSteadyStateReads();
+        testMemoization();
+    }
+}
@@ -0,0 +1,149 @@
+import diagnosticsExample.JfrRecorder;
+import diagnosticsExample.ProfiledLock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    ProfiledLock: a ReentrantLock that records, per lock name, acquisitions, contention, wait and hold times.
+    1. What it costs uncontended (every acquisition sampled vs 1 in 64) next to a bare ReentrantLock
+    2. A small "service" with three locks – which one is hot? ProfiledLock.report answers without a profiler
+*/
+
+// It's a "Runnable Class"
+public class LockProfilingExamples {
+    private static final int OPERATIONS = 20_000_000;
+
+    // Body of one benchmark thread, receives its index
+    private interface Worker {
+        void run(int thread);
+    }
+
+    // 1. Uncontended overhead: the fast path is one tryLock, the clock is only read for sampled holds
+    public static void testOverhead() {
+        Lock reentrantLock = new ReentrantLock();
+        benchmark("[INFO] ReentrantLock lock/unlock", reentrantLock);
+        Lock everyAcquisition = new ProfiledLock("overhead.sampleEvery1");
+        benchmark("[INFO] ProfiledLock, every hold timed", everyAcquisition);
+        Lock sampled = new ProfiledLock("overhead.sampleEvery64", false, 64);
+        benchmark("[GOOD] ProfiledLock, 1 hold in 64 timed", sampled);
+        System.out.println();
+        ProfiledLock.resetAll();
+    }
+
+    // 2. Three locks, one of them hot: a cache refreshed under its lock, cheap statistics, a rarely read config
+    public static void testFindHotLock() {
+        int threads = 4;
+        Lock cacheLock = new ProfiledLock("Service.cacheLock");
+        Lock statsLock = new ProfiledLock("Service.statsLock");
+        Lock configLock = new ProfiledLock("Service.configLock");
+        Map<Integer, String> cache = new HashMap<>();
+        long[] hits = new long[1];
+        String[] config = {"v1"};
+
+        benchmarkThreads("[INFO] service requests", threads, thread -> {
+            for (int i = 0; i < 20_000; i++) {
+                cacheLock.lock();
+                try {
+                    if (i % 100 == 0) cache.clear(); // Refresh: long hold, everyone else waits
+                    cache.computeIfAbsent(i % 1_000, key -> "value" + key);
+                    if (i % 1_000 == 0) busyWork(200_000);
+                } finally {
+                    cacheLock.unlock();
+                }
+                statsLock.lock();
+                try {
+                    hits[0]++;
+                } finally {
+                    statsLock.unlock();
+                }
+                if (i % 5_000 == 0) {
+                    configLock.lock();
+                    try {
+                        config[0] = "v" + i;
+                    } finally {
+                        configLock.unlock();
+                    }
+                }
+            }
+        });
+        System.out.print(ProfiledLock.report(3));
+        System.out.println();
+    }
+
+    private static long sink;
+
+    private static void busyWork(long nanos) {
+        long end = System.nanoTime() + nanos;
+        long x = 0;
+        while (System.nanoTime() < end) x++;
+        sink += x;
+    }
+
+    private static void benchmark(String label, Lock lock) {
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            long counter = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < OPERATIONS; i++) {
+                lock.lock();
+                try {
+                    counter++;
+                } finally {
+                    lock.unlock();
+                }
+            }
+            long duration = System.nanoTime() - start;
+            sink += counter;
+            System.out.printf("%-50s : %.1f ns per lock/unlock\n", label, (double) duration / OPERATIONS);
+        } finally {
+            phase.end();
+        }
+    }
+
+    private static void benchmarkThreads(String label, int threads, Worker worker) {
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> running = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int thread = i;
+                Thread t = new Thread(() -> {
+                    try {
+                        start.await();
+                        worker.run(thread);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                running.add(t);
+                t.start();
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Thread t : running) {
+                try {
+                    t.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            System.out.printf("%-50s : %d ms\n", label + " x" + threads, (System.nanoTime() - begin) / 1_000_000);
+        } finally {
+            phase.end();
+        }
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- Lock contention profiling with ProfiledLock ---");
+        testOverhead();
+        testFindHotLock();
+    }
+}
@@ -0,0 +1,249 @@
+import concurrencyExample.HandoffCell;
+import concurrencyExample.StopFlag;
+import concurrencyExample.WaitStrategy;
+import diagnosticsExample.JfrRecorder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    VisibleAtomicExample.runUntilStopped polls a volatile flag with Thread.sleep(100).
+    Here: the cost of checking a stop flag on every iteration of a hot loop (plain / volatile / opaque / acquire),
+    how fast a stopped worker notices, and the latency + CPU cost of handing values between two threads with
+    each WaitStrategy. On x86 every load mode compiles to the same MOV: differences show up on ARM / POWER,
+    and in what the JIT is allowed to do (a plain field can be hoisted out of the loop).
+*/
+
+// It's a "Runnable Class"
+public class MemoryOrderingExamples {
+    private static final int ITERATIONS = 200_000_000;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    // Benchmark utility
+    private static void benchmark(String label, Runnable task) {
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            long start = System.nanoTime();
+            task.run();
+            long duration = System.nanoTime() - start;
+            System.out.printf("%-50s : %d ms\n", label, duration / 1_000_000);
+        } finally {
+            phase.end();
+        }
+    }
+
+    private static boolean plainFlag;           // BAD: the JIT may read it once for the whole loop
+    private static volatile boolean volatileFlag;
+
+    // 1. Price of checking the flag on every iteration (the flag is never set here)
+    public static void testPollingCost() {
+        StopFlag flag = new StopFlag();
+
+        benchmark("[BAD] plain boolean (may never see the stop)", MemoryOrderingExamples::pollPlain);
+        benchmark("[INFO] volatile boolean", MemoryOrderingExamples::pollVolatile);
+        benchmark("[INFO] StopFlag.isStoppedVolatile()", () -> pollStopFlag(flag, 0));
+        benchmark("[GOOD] StopFlag.isStoppedAcquire()", () -> pollStopFlag(flag, 1));
+        benchmark("[GOOD] StopFlag.isStopped() (opaque)", () -> pollStopFlag(flag, 2));
+        System.out.println();
+    }
+
+    // One loop per access mode: a shared loop over a BooleanSupplier would measure the megamorphic call instead
+    private static void pollPlain() {
+        long work = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            if (plainFlag) break;
+            work += i ^ (work >>> 3); // A little real work per iteration
+        }
+        report(work);
+    }
+
+    private static void pollVolatile() {
+        long work = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            if (volatileFlag) break;
+            work += i ^ (work >>> 3);
+        }
+        report(work);
+    }
+
+    private static void pollStopFlag(StopFlag flag, int mode) {
+        long work = 0;
+        switch (mode) {
+            case 0 -> {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    if (flag.isStoppedVolatile()) break;
+                    work += i ^ (work >>> 3);
+                }
+            }
+            case 1 -> {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    if (flag.isStoppedAcquire()) break;
+                    work += i ^ (work >>> 3);
+                }
+            }
+            default -> {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    if (flag.isStopped()) break;
+                    work += i ^ (work >>> 3);
+                }
+            }
+        }
+        report(work);
+    }
+
+    private static void report(long checksum) {
+        if (checksum == 42) System.out.println(); // Keeps the loop from being eliminated
+    }
+
+    // 2. Time between stop() and the worker leaving its wait
+    public static void testStopLatency() {
+        int rounds = 20;
+
+        measureStopLatency("[BAD] volatile + Thread.sleep(100) polling", rounds, flag -> {
+            while (!flag.isStoppedAcquire()) {
+                try {
+                    //noinspection BusyWait
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        });
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            if (skipOnSingleCore(strategy)) continue;
+            measureStopLatency("[GOOD] awaitStop(" + strategy + ")", rounds,
+                    flag -> flag.awaitStop(strategy, TimeUnit.SECONDS.toNanos(5)));
+        }
+        System.out.println();
+    }
+
+    private static void measureStopLatency(String label, int rounds, Consumer<StopFlag> waiter) {
+        long totalNanos = 0;
+        long worstNanos = 0;
+        for (int round = 0; round < rounds; round++) {
+            StopFlag flag = new StopFlag();
+            long[] noticedAt = new long[1];
+            Thread worker = new Thread(() -> {
+                waiter.accept(flag);
+                noticedAt[0] = System.nanoTime();
+            });
+            worker.start();
+            sleep(20); // Let the worker reach its wait
+            long stoppedAt = System.nanoTime();
+            flag.stop("shutdown");
+            join(worker);
+            long latency = noticedAt[0] - stoppedAt;
+            totalNanos += latency;
+            worstNanos = Math.max(worstNanos, latency);
+        }
+        System.out.printf("%-50s : avg %d µs, worst %d µs\n", label, totalNanos / rounds / 1_000, worstNanos / 1_000);
+    }
+
+    // 3. Ping-pong: two threads hand a value back and forth, round-trip latency and CPU burnt by both threads
+    public static void testHandoffLatency() {
+        int roundTrips = 20_000;
+
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            if (skipOnSingleCore(strategy)) continue;
+            HandoffCell<Integer> ping = new HandoffCell<>();
+            HandoffCell<Integer> pong = new HandoffCell<>();
+            pingPong("[GOOD] HandoffCell " + strategy, roundTrips, () -> {
+                for (int i = 0; i < roundTrips; i++) {
+                    try {
+                        ping.put(i, strategy);
+                        pong.take(strategy);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, () -> {
+                for (int i = 0; i < roundTrips; i++) {
+                    try {
+                        pong.put(ping.take(strategy), strategy);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+        }
+
+        SynchronousQueue<Integer> ping = new SynchronousQueue<>();
+        SynchronousQueue<Integer> pong = new SynchronousQueue<>();
+        pingPong("[INFO] SynchronousQueue", roundTrips, () -> {
+            for (int i = 0; i < roundTrips; i++) {
+                try {
+                    ping.put(i);
+                    pong.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, () -> {
+            for (int i = 0; i < roundTrips; i++) {
+                try {
+                    pong.put(ping.take());
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        System.out.println();
+    }
+
+    private static void pingPong(String label, int roundTrips, Runnable pinger, Runnable ponger) {
+        long[] cpuNanos = new long[2];
+        Thread first = new Thread(() -> {
+            pinger.run();
+            cpuNanos[0] = THREADS.getCurrentThreadCpuTime();
+        });
+        Thread second = new Thread(() -> {
+            ponger.run();
+            cpuNanos[1] = THREADS.getCurrentThreadCpuTime();
+        });
+        long start = System.nanoTime();
+        second.start();
+        first.start();
+        join(first);
+        join(second);
+        long duration = System.nanoTime() - start;
+        System.out.printf("%-50s : %.1f µs per round trip, %d ms CPU for %d ms wall\n", label,
+                duration / 1_000.0 / roundTrips, (cpuNanos[0] + cpuNanos[1]) / 1_000_000, duration / 1_000_000);
+    }
+
+    // Spinning only makes sense when the other thread has a core of its own
+    private static boolean skipOnSingleCore(WaitStrategy strategy) {
+        if (strategy != WaitStrategy.BUSY_SPIN || Runtime.getRuntime().availableProcessors() > 1) return false;
+        System.out.printf("%-50s : skipped (1 CPU: the spinner would starve the thread it waits for)\n", "[INFO] " + strategy);
+        return true;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void join(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- Stop flags and handoff cells: memory ordering modes and wait strategies ---");
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+        testPollingCost();
+        testStopLatency();
+        testHandoffLatency();
+    }
+}
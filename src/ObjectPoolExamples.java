@@ -0,0 +1,303 @@
+import diagnosticsExample.JfrEvents;
+import diagnosticsExample.JfrRecorder;
+import memoryExample.ObjectPool;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    garbageCollectorTuning.md says "consider object pooling" for high allocation rates.
+    This matrix shows WHEN it pays off (large buffers, expensive setup) and when it makes things worse
+    (small objects that a TLAB bump-pointer allocation gives you almost for free).
+    Decide per object type, with numbers, before pooling anything in production.
+*/
+
+// It's a "Runnable Class"
+public class ObjectPoolExamples {
+    // Benchmark utility
+    private static void benchmark(String label, Runnable task) {
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            long start = System.nanoTime();
+            task.run();
+            long duration = System.nanoTime() - start;
+            System.out.printf("%-50s : %d ms\n", label, duration / 1_000_000);
+        } finally {
+            phase.end();
+        }
+    }
+
+    // 1. Small, cheap object: allocation is a pointer bump in the thread's TLAB, and it dies young
+    public static void testSmallObjects() {
+        int iterations = 20_000_000;
+
+        benchmark("[GOOD] new StringBuilder(32) each time", () -> {
+            long length = 0;
+            for (int i = 0; i < iterations; i++) {
+                StringBuilder builder = new StringBuilder(32);
+                builder.append(i);
+                length += builder.length();
+            }
+            report(length);
+        });
+
+        ObjectPool<StringBuilder> pool = new ObjectPool<>(() -> new StringBuilder(32), builder -> builder.setLength(0), 64);
+        benchmark("[BAD] pooled StringBuilder (acquire/release)", () -> {
+            long length = 0;
+            for (int i = 0; i < iterations; i++) {
+                StringBuilder builder = pool.acquire();
+                builder.append(i);
+                length += builder.length();
+                pool.release(builder);
+            }
+            report(length);
+        });
+        System.out.println();
+    }
+
+    // 2. Large buffer: every new byte[1 MB] must be zeroed and may go straight to the old generation
+    public static void testLargeBuffers() {
+        int iterations = 20_000;
+        int size = 1024 * 1024;
+
+        benchmark("[BAD] new byte[1 MB] each time", () -> {
+            long checksum = 0;
+            for (int i = 0; i < iterations; i++) {
+                byte[] buffer = new byte[size];
+                buffer[i % size] = 1;
+                checksum += buffer[0];
+            }
+            report(checksum);
+        });
+
+        // No reset: the user overwrites what it reads (zeroing would cost as much as allocating)
+        ObjectPool<byte[]> pool = new ObjectPool<>(() -> new byte[size], buffer -> {
+        }, 16);
+        benchmark("[GOOD] pooled byte[1 MB]", () -> {
+            long checksum = 0;
+            for (int i = 0; i < iterations; i++) {
+                byte[] buffer = pool.acquire();
+                buffer[i % size] = 1;
+                checksum += buffer[0];
+                pool.release(buffer);
+            }
+            report(checksum);
+        });
+
+        ObjectPool<byte[]> zeroingPool = new ObjectPool<>(() -> new byte[size], buffer -> Arrays.fill(buffer, (byte) 0), 16);
+        benchmark("[INFO] pooled byte[1 MB] + Arrays.fill reset", () -> {
+            long checksum = 0;
+            for (int i = 0; i < iterations; i++) {
+                byte[] buffer = zeroingPool.acquire();
+                buffer[i % size] = 1;
+                checksum += buffer[0];
+                zeroingPool.release(buffer);
+            }
+            report(checksum);
+        });
+        System.out.println();
+    }
+
+    // 3. Expensive to initialize: MessageDigest.getInstance looks up a provider every time
+    public static void testExpensiveInit() {
+        int iterations = 1_000_000;
+        byte[] payload = "user-42:session-token".getBytes(StandardCharsets.UTF_8);
+
+        benchmark("[BAD] MessageDigest.getInstance per hash", () -> {
+            long checksum = 0;
+            for (int i = 0; i < iterations; i++) {
+                checksum += sha256().digest(payload)[0];
+            }
+            report(checksum);
+        });
+
+        ObjectPool<MessageDigest> pool = new ObjectPool<>(ObjectPoolExamples::sha256, MessageDigest::reset, 16);
+        benchmark("[GOOD] pooled MessageDigest", () -> {
+            long checksum = 0;
+            for (int i = 0; i < iterations; i++) {
+                MessageDigest digest = pool.acquire();
+                checksum += digest.digest(payload)[0];
+                pool.release(digest);
+            }
+            report(checksum);
+        });
+        System.out.println("[INFO] " + pool);
+        System.out.println();
+    }
+
+    // 4. Several threads: thread-local caches keep the shared stack out of the hot path
+    public static void testConcurrentBuffers() {
+        int threads = 4;
+        int iterationsPerThread = 5_000;
+        int size = 256 * 1024;
+
+        benchmarkThreads("[BAD] new byte[256 KB], 4 threads", threads, () -> {
+            long checksum = 0;
+            for (int i = 0; i < iterationsPerThread; i++) {
+                byte[] buffer = new byte[size];
+                buffer[i % size] = 1;
+                checksum += buffer[0];
+            }
+            report(checksum);
+        });
+
+        ObjectPool<byte[]> pool = new ObjectPool<>(() -> new byte[size], buffer -> {
+        }, 32);
+        JfrEvents.Registration gauge = JfrEvents.registerQueue("byte[256 KB] pool (idle)", pool::idle);
+        try {
+            benchmarkThreads("[GOOD] pooled byte[256 KB], 4 threads", threads, () -> {
+                long checksum = 0;
+                for (int i = 0; i < iterationsPerThread; i++) {
+                    byte[] buffer = pool.acquire();
+                    buffer[i % size] = 1;
+                    checksum += buffer[0];
+                    pool.release(buffer);
+                }
+                report(checksum);
+            });
+        } finally {
+            gauge.unregister();
+        }
+        System.out.println("[INFO] " + pool);
+        System.out.println();
+    }
+
+    // 5. Hand-off: buffers acquired by producers and released by consumers (I/O thread -> worker, request -> response
+    //    writer). The consumer's local cache overflows, the producer's stays empty: every buffer crosses the shared stack
+    public static void testCrossThreadRelease() {
+        int pairs = 2;
+        int buffersPerProducer = 10_000;
+        int size = 256 * 1024;
+
+        handOff("[BAD] new byte[256 KB], produced -> consumed", pairs, buffersPerProducer, () -> new byte[size], buffer -> {
+        });
+
+        ObjectPool<byte[]> pool = new ObjectPool<>(() -> new byte[size], buffer -> {
+        }, 64);
+        handOff("[GOOD] pooled byte[256 KB], released by consumer", pairs, buffersPerProducer, pool::acquire, pool::release);
+        System.out.println("[INFO] " + pool + " (reused via the shared stack, not the thread-local caches)");
+        System.out.println();
+    }
+
+    private static void handOff(String label, int pairs, int buffersPerProducer, Supplier<byte[]> acquire,
+                                Consumer<byte[]> release) {
+        BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(32);
+        byte[] poison = new byte[0];
+        benchmarkThreads(label, pairs * 2, new Runnable() {
+            private final AtomicInteger roles = new AtomicInteger();
+
+            @Override
+            public void run() {
+                try {
+                    if (roles.getAndIncrement() % 2 == 0) {
+                        for (int i = 0; i < buffersPerProducer; i++) {
+                            byte[] buffer = acquire.get();
+                            buffer[i % buffer.length] = 1;
+                            queue.put(buffer);
+                        }
+                        queue.put(poison);
+                    } else {
+                        long checksum = 0;
+                        byte[] buffer;
+                        while ((buffer = queue.take()) != poison) {
+                            checksum += buffer[0];
+                            release.accept(buffer);
+                        }
+                        report(checksum);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+    }
+
+    // 6. Leak detection: a lease that is dropped without close() is reported once it is collected, an object acquired
+    //    and never released shows up in outstanding(), a second release() is refused
+    public static void testLeakDetection() {
+        ObjectPool<StringBuilder> pool = new ObjectPool<>(StringBuilder::new, builder -> builder.setLength(0), 8, true);
+        try (ObjectPool.Lease<StringBuilder> lease = pool.lease()) {
+            lease.get().append("returned properly");
+        }
+        ObjectPool.Lease<StringBuilder> forgotten = pool.lease();
+        forgotten.get().append("never returned");
+        forgotten = null; // BAD: no close()
+
+        for (int i = 0; i < 10 && pool.leaked() == 0; i++) {
+            System.gc(); // Only to make the demo deterministic
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        System.out.println("[INFO] " + pool);
+
+        pool.acquire(); // BAD: never released
+        StringBuilder released = pool.acquire();
+        pool.release(released);
+        try {
+            pool.release(released); // BAD: the pool would hand it to two borrowers
+        } catch (IllegalStateException e) {
+            System.out.println("[INFO] second release refused: " + e.getMessage());
+        }
+        System.out.println("[INFO] still outstanding: " + pool.outstanding().size()
+                + " (the forgotten lease's object and the plain acquire(), each with its stack trace)");
+        System.out.println();
+    }
+
+    private static void benchmarkThreads(String label, int threads, Runnable task) {
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            CountDownLatch done = new CountDownLatch(threads);
+            long start = System.nanoTime();
+            for (int i = 0; i < threads; i++) {
+                new Thread(() -> {
+                    task.run();
+                    done.countDown();
+                }).start();
+            }
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            long duration = System.nanoTime() - start;
+            System.out.printf("%-50s : %d ms\n", label, duration / 1_000_000);
+        } finally {
+            phase.end();
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void report(long checksum) {
+        if (checksum == 42) System.out.println(); // Keeps the loop from being eliminated
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- Object pooling: when it beats allocation and when it does not ---");
+        testSmallObjects();
+        testLargeBuffers();
+        testExpensiveInit();
+        testConcurrentBuffers();
+        testCrossThreadRelease();
+        testLeakDetection();
+    }
+}
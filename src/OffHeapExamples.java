@@ -0,0 +1,125 @@
+import memoryExample.OffHeapRecordStore;
+import memoryExample.SlabAllocator;
+
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.ValueLayout;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    Re-runs the "static leak" scenario of MemoryLeakExamples (1000 x 1MB chunks kept alive)
+    once on-heap and once off-heap, while the application keeps allocating short-lived garbage.
+    The GC counters show how much collector work the retained data causes in each case.
+
+    Run with enough heap for the on-heap part, e.g. -Xmx2g
+*/
+
+// It's a "Runnable Class"
+public class OffHeapExamples {
+    private static final int CHUNKS = 1000;
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    // Scenario 1 (on-heap): same as MemoryLeakExamples.staticLeakList
+    static List<byte[]> staticLeakList = new ArrayList<>();
+
+    public static void testStaticLeakOnHeap() {
+        GcSnapshot before = GcSnapshot.now();
+        for (int i = 0; i < CHUNKS; i++) {
+            staticLeakList.add(new byte[CHUNK_SIZE]);
+        }
+        churn();
+        GcSnapshot.now().printSince("[BAD] 1000 x 1MB retained on-heap", before);
+        staticLeakList.clear();
+        System.gc(); // Only to give the off-heap run a clean start
+    }
+
+    public static void testStaticLeakOffHeap() {
+        GcSnapshot before = GcSnapshot.now();
+        try (SlabAllocator allocator = SlabAllocator.ofArena(CHUNK_SIZE, 64)) {
+            long[] handles = new long[CHUNKS];
+            for (int i = 0; i < CHUNKS; i++) {
+                handles[i] = allocator.allocate();
+            }
+            churn();
+            GcSnapshot.now().printSince("[GOOD] 1000 x 1MB retained off-heap", before);
+            for (long handle : handles) {
+                allocator.free(handle); // Explicit free – the GC will never do it for us
+            }
+        }
+        System.out.println();
+    }
+
+    // Fixed-layout records instead of one object per session
+    public static void testRecordStore() {
+        StructLayout sessionLayout = MemoryLayout.structLayout(
+                ValueLayout.JAVA_LONG.withName("userId"),
+                ValueLayout.JAVA_LONG.withName("lastAccess"),
+                ValueLayout.JAVA_DOUBLE.withName("score"));
+        int records = 1_000_000;
+
+        GcSnapshot before = GcSnapshot.now();
+        try (OffHeapRecordStore store = new OffHeapRecordStore(sessionLayout, 65_536)) {
+            OffHeapRecordStore.Field userId = store.field("userId");
+            OffHeapRecordStore.Field lastAccess = store.field("lastAccess");
+            OffHeapRecordStore.Field score = store.field("score");
+
+            long[] ids = new long[records];
+            for (int i = 0; i < records; i++) {
+                long id = store.add();
+                store.setLong(id, userId, i);
+                store.setLong(id, lastAccess, System.currentTimeMillis());
+                store.setDouble(id, score, i * 0.5);
+                ids[i] = id;
+            }
+            double total = 0;
+            for (long id : ids) {
+                total += store.getDouble(id, score);
+            }
+            System.out.printf("Off-heap records: %d (%d MB reserved), score sum = %.1f%n",
+                    store.size(), store.reservedBytes() / (1024 * 1024), total);
+        }
+        GcSnapshot.now().printSince("[INFO] 1M session records off-heap", before);
+        System.out.println();
+    }
+
+    // Short-lived allocations that keep the young generation busy (like a real request path would)
+    private static void churn() {
+        long checksum = 0;
+        for (int i = 0; i < 2_000; i++) {
+            byte[] garbage = new byte[256 * 1024];
+            checksum += garbage.length;
+        }
+        if (checksum == 42) System.out.println(); // Keeps the loop from being eliminated
+    }
+
+    // GC count/time and used heap at a point in time
+    private record GcSnapshot(long collections, long gcMillis, long usedHeapMb) {
+        static GcSnapshot now() {
+            long count = 0;
+            long time = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, gc.getCollectionCount());
+                time += Math.max(0, gc.getCollectionTime());
+            }
+            Runtime runtime = Runtime.getRuntime();
+            return new GcSnapshot(count, time, (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024));
+        }
+
+        void printSince(String label, GcSnapshot before) {
+            System.out.printf("%-50s : %d GCs, %d ms in GC, used heap %d MB%n",
+                    label, collections - before.collections, gcMillis - before.gcMillis, usedHeapMb);
+        }
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- Off-heap storage vs on-heap (static leak scenario) ---");
+        testStaticLeakOnHeap();
+        testStaticLeakOffHeap();
+        testRecordStore();
+    }
+}
@@ -0,0 +1,129 @@
+import diagnosticsExample.LatencyRunner;
+import memoryExample.MappedKeyValueStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    Compares the in-memory session cache of MemoryLeakExamples (a HashMap re-populated at every start)
+    with a memory-mapped, append-only key/value log + hash index that is simply re-opened after a restart.
+    Reported: cold-start time, write throughput and lookup latency percentiles.
+
+    Note: the "populate" cost of a real cache is usually far higher than here (database/remote calls),
+    which makes the re-open advantage even bigger.
+*/
+
+// It's a "Runnable Class"
+public class PersistentCacheExamples {
+    private static final int ENTRIES = 1_000_000;
+
+    // Benchmark utility
+    private static long benchmark(String label, ThrowingRunnable task) throws IOException {
+        long start = System.nanoTime();
+        task.run();
+        long duration = System.nanoTime() - start;
+        System.out.printf("%-50s : %d ms\n", label, duration / 1_000_000);
+        return duration;
+    }
+
+    interface ThrowingRunnable {
+        void run() throws IOException;
+    }
+
+    // Scenario 3 of MemoryLeakExamples, but the map content must survive a restart
+    static Map<String, String> sessionCache;
+    static MappedKeyValueStore persistentCache;
+
+    public static void testWriteThroughput(Path file) throws IOException {
+        long heapNanos = benchmark("[INFO] HashMap put x " + ENTRIES, () -> {
+            sessionCache = new HashMap<>((int) (ENTRIES / 0.75f) + 1);
+            for (int i = 0; i < ENTRIES; i++) {
+                sessionCache.put("user" + i, "sessionData" + i);
+            }
+        });
+        long mappedNanos = benchmark("[INFO] MappedKeyValueStore put x " + ENTRIES, () -> {
+            persistentCache = MappedKeyValueStore.open(file, 64 * 1024 * 1024, ENTRIES);
+            for (int i = 0; i < ENTRIES; i++) {
+                persistentCache.put("user" + i, "sessionData" + i);
+            }
+            persistentCache.close();
+        });
+        printThroughput("HashMap", heapNanos);
+        printThroughput("MappedKeyValueStore", mappedNanos);
+        System.out.println("Log file size: " + Files.size(file) / (1024 * 1024) + " MB (pre-sized, the index lives in " + file.getFileName() + ".idx)");
+        System.out.println();
+    }
+
+    public static void testColdStart(Path file) throws IOException {
+        sessionCache = null;
+        persistentCache = null;
+
+        benchmark("[BAD] Cold start: re-populate HashMap", () -> {
+            sessionCache = new HashMap<>((int) (ENTRIES / 0.75f) + 1);
+            for (int i = 0; i < ENTRIES; i++) {
+                sessionCache.put("user" + i, "sessionData" + i);
+            }
+        });
+
+        benchmark("[GOOD] Cold start: re-open mapped log", () -> persistentCache = MappedKeyValueStore.open(file));
+        System.out.println("Entries after re-open: " + persistentCache.size());
+        System.out.println();
+    }
+
+    public static void testLookupLatency() {
+        int lookups = 2_000_000;
+        String[] keys = new String[lookups];
+        for (int i = 0; i < lookups; i++) {
+            keys[i] = "user" + (i * 7919L % ENTRIES);
+        }
+
+        int[] hits = new int[1];
+        LatencyRunner.closedLoop("[INFO] HashMap get", lookups, i -> {
+            if (sessionCache.get(keys[i]) != null) hits[0]++;
+        });
+        LatencyRunner.closedLoop("[INFO] MappedKeyValueStore get (decodes value)", lookups, i -> {
+            if (persistentCache.get(keys[i]) != null) hits[0]++;
+        });
+        System.out.println("Hits (warm-up included): " + hits[0]);
+        System.out.println();
+    }
+
+    public static void testCompaction() throws IOException {
+        long before = persistentCache.fileBytes();
+        for (int i = 0; i < ENTRIES / 2; i++) {
+            persistentCache.put("user" + i, "refreshedSession" + i); // Overwrites leave dead records behind
+        }
+        long beforeCompaction = persistentCache.fileBytes();
+        benchmark("[INFO] compact()", persistentCache::compact);
+        System.out.println("Log bytes: " + before + " -> " + beforeCompaction + " (after overwrites) -> "
+                + persistentCache.fileBytes() + " (after compaction)");
+        System.out.println("user1 = " + persistentCache.get("user1") + ", user" + (ENTRIES - 1) + " = "
+                + persistentCache.get("user" + (ENTRIES - 1)));
+        System.out.println();
+    }
+
+    private static void printThroughput(String label, long nanos) {
+        System.out.printf("%-50s : %.0f writes/s%n", label + " throughput", ENTRIES / (nanos / 1_000_000_000.0));
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("--- Persistent session cache (memory-mapped log) ---");
+        Path file = Files.createTempFile("session-cache", ".log");
+        Files.delete(file); // The store creates and formats the file itself
+        try {
+            testWriteThroughput(file);
+            testColdStart(file);
+            testLookupLatency();
+            testCompaction();
+        } finally {
+            if (persistentCache != null) persistentCache.close();
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".idx"));
+        }
+    }
+}
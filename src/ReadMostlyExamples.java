@@ -0,0 +1,130 @@
+import concurrencyExample.ReadMostly;
+import concurrencyExample.ReadMostly.Strategy;
+import diagnosticsExample.JfrRecorder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    A pricing config read on every request and updated now and then, shared through ReadMostly with each strategy:
+    synchronized, ReentrantReadWriteLock, StampedLock optimistic read, copy-on-write (RCU-like).
+    Grid: write ratio (never, 1 in 1000, 1 in 10) x thread count. Every read also checks that it saw a consistent
+    config (basePrice - version == 100): optimistic reads may run on a half-written config, validate() must catch it.
+    On one CPU the thread counts only show the extra lock handoffs – run it on a multi-core box for the scaling.
+*/
+
+// It's a "Runnable Class"
+public class ReadMostlyExamples {
+    private static final int OPS_PER_THREAD = 2_000_000;
+
+    // Mutable on purpose: SYNCHRONIZED / READ_WRITE_LOCK / OPTIMISTIC update it in place
+    static class PricingConfig {
+        double basePrice = 100;
+        double discount = 0.1;
+        double taxRate = 0.2;
+        long version;
+
+        PricingConfig() {
+        }
+
+        PricingConfig(PricingConfig other) {
+            this.basePrice = other.basePrice;
+            this.discount = other.discount;
+            this.taxRate = other.taxRate;
+            this.version = other.version;
+        }
+
+        double price(int quantity) {
+            return basePrice * quantity * (1 - discount) * (1 + taxRate);
+        }
+    }
+
+    // Body of one benchmark thread, receives its index
+    private interface Worker {
+        void run(int thread);
+    }
+
+    public static void testStrategies(int[] threadCounts, int[] writeEvery) {
+        for (int writes : writeEvery) {
+            for (int threads : threadCounts) {
+                for (Strategy strategy : Strategy.values()) {
+                    ReadMostly<PricingConfig> config = ReadMostly.create(strategy, new PricingConfig(), PricingConfig::new);
+                    LongAdder torn = new LongAdder();
+                    String ratio = writes == 0 ? "reads only" : "1 write / " + writes;
+                    String tag = switch (strategy) {
+                        case SYNCHRONIZED -> "[BAD] ";
+                        case READ_WRITE_LOCK -> "[INFO] ";
+                        case OPTIMISTIC, COPY_ON_WRITE -> "[GOOD] ";
+                    };
+                    String label = tag + strategy + ", " + ratio;
+                    benchmarkThreads(label, threads, thread -> {
+                        double sum = 0;
+                        for (int i = 1; i <= OPS_PER_THREAD; i++) {
+                            if (writes != 0 && i % writes == 0) {
+                                config.write(c -> {
+                                    c.version++;
+                                    c.basePrice = 100 + c.version; // Two fields that must change together
+                                });
+                            } else {
+                                double price = config.read(c -> c.basePrice - c.version == 100 ? c.price(3) : Double.NaN);
+                                if (Double.isNaN(price)) torn.increment();
+                                else sum += price;
+                            }
+                        }
+                        sink += (long) sum;
+                    });
+                    if (torn.sum() > 0 || config.fallbacks() > 0) {
+                        System.out.printf("%-50s : %d inconsistent reads, %d optimistic reads redone\n",
+                                "    " + strategy, torn.sum(), config.fallbacks());
+                    }
+                }
+                System.out.println();
+            }
+        }
+    }
+
+    private static volatile long sink;
+
+    private static void benchmarkThreads(String label, int threads, Worker worker) {
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(threads);
+            for (int i = 0; i < threads; i++) {
+                int thread = i;
+                new Thread(() -> {
+                    try {
+                        start.await();
+                        worker.run(thread);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }).start();
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            long duration = System.nanoTime() - begin;
+            double opsPerSecond = (double) threads * OPS_PER_THREAD / duration * 1_000_000_000;
+            System.out.printf("%-50s : %d ms, %.1f M ops/s\n", label + " x" + threads, duration / 1_000_000,
+                    opsPerSecond / 1_000_000);
+        } finally {
+            phase.end();
+        }
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- Read-mostly shared state: locking strategies ---");
+        int processors = Runtime.getRuntime().availableProcessors();
+        int[] threadCounts = processors > 1 ? new int[]{1, processors} : new int[]{1, 4};
+        testStrategies(threadCounts, new int[]{0, 1_000, 10});
+    }
+}
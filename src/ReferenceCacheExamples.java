@@ -0,0 +1,139 @@
+import diagnosticsExample.JfrEvents;
+import diagnosticsExample.JfrRecorder;
+import diagnosticsExample.LatencyHistogram;
+import memoryExample.HeapPressureMonitor;
+import memoryExample.ReferenceCache;
+import memoryExample.ReferenceCache.Strength;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    MapExamples.weakHashMapExample needs System.gc() + Thread.sleep() to show entries disappear.
+    Here a cache of 8 KB "profiles" is used by a request loop whose total data (~480 MB) does not fit in the heap:
+    - synchronizedMap(WeakHashMap): the key objects are per-request, so every GC empties the cache
+    - ReferenceCache with soft values: the GC clears values only when it runs out of memory (all at once)
+    - ReferenceCache with soft values + HeapPressureMonitor: LRU entries are shed as soon as old-gen occupancy
+      crosses the threshold, before the collector has to clear everything
+
+    Run with a small heap so the pressure is real: -Xmx256m
+*/
+
+// It's a "Runnable Class"
+public class ReferenceCacheExamples {
+    private static final int PROFILES = 60_000;     // 60 000 x 8 KB = ~480 MB if everything were cached
+    private static final int HOT_PROFILES = 6_000;  // 80% of the requests hit these
+    private static final int REQUESTS = 400_000;
+    private static final int PROFILE_SIZE = 8 * 1024;
+
+    // Common interface of the caches under test
+    interface ProfileCache {
+        byte[] get(String userId, Function<String, byte[]> loader);
+    }
+
+    public static void testSynchronizedWeakHashMap() {
+        Map<String, byte[]> map = Collections.synchronizedMap(new WeakHashMap<>());
+        run("[BAD] synchronizedMap(WeakHashMap)", (userId, loader) -> {
+            byte[] profile = map.get(userId);
+            if (profile == null) {
+                profile = loader.apply(userId);
+                map.put(userId, profile); // Weak KEY: gone once this request's String is unreachable
+            }
+            return profile;
+        });
+    }
+
+    public static void testSoftValues() {
+        ReferenceCache<String, byte[]> cache = new ReferenceCache<>(Strength.STRONG, Strength.SOFT);
+        JfrEvents.Registration gauge = JfrEvents.registerCache("profiles (soft)", cache::hits, cache::misses);
+        try {
+            run("[GOOD] ReferenceCache(STRONG, SOFT)", cache::computeIfAbsent);
+        } finally {
+            gauge.unregister();
+        }
+        System.out.println("[INFO] " + cache);
+    }
+
+    public static void testSoftValuesWithPressureEviction() {
+        try (HeapPressureMonitor monitor = HeapPressureMonitor.install(0.6)) {
+            ReferenceCache<String, byte[]> cache = new ReferenceCache<String, byte[]>(Strength.STRONG, Strength.SOFT)
+                    .evictOnPressure(monitor, 0.25);
+            JfrEvents.Registration gauge = JfrEvents.registerCache("profiles (soft + pressure)", cache::hits, cache::misses);
+            try {
+                run("[GOOD] ReferenceCache(SOFT) + pressure eviction", cache::computeIfAbsent);
+            } finally {
+                gauge.unregister();
+            }
+            System.out.println("[INFO] " + cache + ", pressure events=" + monitor.pressureEvents()
+                    + " on " + monitor.monitoredPools());
+        }
+    }
+
+    // Request loop: 80% of the requests on 10% of the users, an 8 KB "load" per miss, per-request key objects
+    private static void run(String label, ProfileCache cache) {
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            System.gc(); // Same starting point for every cache
+            Random random = new Random(42);
+            Function<String, byte[]> loader = userId -> {
+                byte[] profile = new byte[PROFILE_SIZE];
+                profile[0] = (byte) userId.length();
+                return profile;
+            };
+            long hits = 0;
+            LatencyHistogram latencies = new LatencyHistogram();
+            long gcCountBefore = gcCount(), gcTimeBefore = gcTime();
+            long start = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                int user = random.nextInt(100) < 80 ? random.nextInt(HOT_PROFILES) : random.nextInt(PROFILES);
+                String userId = "user-" + user; // A new key object per request, like an ID parsed from a request
+                boolean[] loaded = new boolean[1];
+                long requestStart = System.nanoTime();
+                cache.get(userId, id -> {
+                    loaded[0] = true;
+                    return loader.apply(id);
+                });
+                latencies.record(System.nanoTime() - requestStart);
+                if (!loaded[0]) hits++;
+            }
+            long duration = System.nanoTime() - start;
+            System.out.printf("%-50s : %d ms, hit rate %.1f%%, %d GCs (%d ms)\n",
+                    label, duration / 1_000_000, hits * 100.0 / REQUESTS, gcCount() - gcCountBefore,
+                    gcTime() - gcTimeBefore);
+            System.out.printf("%-50s : %s\n", "    request latency", latencies.percentiles());
+        } finally {
+            phase.end();
+        }
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- Reference-based caches under heap pressure ---");
+        System.out.println("Max heap: " + Runtime.getRuntime().maxMemory() / (1024 * 1024) + " MB");
+        testSynchronizedWeakHashMap();
+        testSoftValues();
+        testSoftValuesWithPressureEviction();
+    }
+}
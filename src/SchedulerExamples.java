@@ -0,0 +1,134 @@
+import concurrencyExample.StealingScheduler;
+import concurrencyExample.StealingScheduler.Expired;
+import concurrencyExample.StealingScheduler.Lane;
+import diagnosticsExample.JfrRecorder;
+import diagnosticsExample.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    ThreadExamplesBestPractices.ExecutorServiceExample: one fixed pool, one FIFO queue. Under burst load the
+    latency-sensitive tasks wait behind the bulk jobs submitted just before them.
+    Skewed workload, in bursts every 10 ms: a few 2 ms bulk jobs, then many 20 µs requests (about 70% of one core).
+    Same bursts on ThreadPoolExecutor, ForkJoinPool and StealingScheduler (requests in the LATENCY lane, bulk jobs
+    in the BULK lane, then with a 5 ms deadline on requests). Printed: request latency (submit -> done).
+*/
+
+// It's a "Runnable Class"
+public class SchedulerExamples {
+    private static final int BURSTS = 100;
+    private static final long BURST_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int BULK_PER_BURST = 3;
+    private static final long BULK_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final int REQUESTS_PER_BURST = 40;
+    private static final long REQUEST_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+
+    // Where a task goes: requests are latency-sensitive, bulk jobs are not
+    private interface Submitter {
+        void submit(boolean request, Runnable task);
+    }
+
+    public static void testSchedulers() {
+        int workers = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        ExecutorService fixedPool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        benchmark("[BAD] ThreadPoolExecutor, one FIFO queue", (request, task) -> fixedPool.execute(task),
+                () -> awaitTermination(fixedPool), () -> 0);
+
+        ExecutorService forkJoinPool = new ForkJoinPool(workers);
+        benchmark("[INFO] ForkJoinPool, work stealing, no priority", (request, task) -> forkJoinPool.execute(task),
+                () -> awaitTermination(forkJoinPool), () -> 0);
+
+        StealingScheduler lanes = new StealingScheduler("lanes", workers);
+        benchmark("[GOOD] StealingScheduler, LATENCY / BULK lanes",
+                (request, task) -> lanes.submit(request ? Lane.LATENCY : Lane.BULK, task),
+                lanes::close, () -> lanes.metrics(Lane.LATENCY).dropped());
+        System.out.print(lanes.report());
+
+        StealingScheduler deadlines = new StealingScheduler("deadlines", workers);
+        benchmark("[GOOD] StealingScheduler, lanes + 5 ms deadline", (request, task) -> {
+            if (request) deadlines.submit(Lane.LATENCY, task, Duration.ofMillis(5), Expired.DROP);
+            else deadlines.submit(Lane.BULK, task);
+        }, deadlines::close, () -> deadlines.metrics(Lane.LATENCY).dropped());
+        System.out.print(deadlines.report());
+        System.out.println();
+    }
+
+    // drain: shuts the executor down and waits until every queued task ran (or was dropped)
+    private static void benchmark(String label, Submitter submitter, Runnable drain, LongSupplier droppedRequests) {
+        LatencyHistogram requestLatency = new LatencyHistogram();
+        LatencyHistogram bulkLatency = new LatencyHistogram();
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            long begin = System.nanoTime();
+            for (int burst = 0; burst < BURSTS; burst++) {
+                long intended = begin + burst * BURST_INTERVAL_NANOS;
+                long wait = intended - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+                for (int i = 0; i < BULK_PER_BURST; i++) {
+                    long submitted = System.nanoTime();
+                    submitter.submit(false, () -> {
+                        busyWork(BULK_NANOS);
+                        record(bulkLatency, System.nanoTime() - submitted);
+                    });
+                }
+                for (int i = 0; i < REQUESTS_PER_BURST; i++) {
+                    long submitted = System.nanoTime();
+                    submitter.submit(true, () -> {
+                        busyWork(REQUEST_NANOS);
+                        record(requestLatency, System.nanoTime() - submitted);
+                    });
+                }
+            }
+            drain.run(); // Every request has run or been dropped: nothing still queued is counted as lost
+            synchronized (requestLatency) {
+                System.out.printf("%-50s : %s\n", label, requestLatency.percentiles());
+            }
+            long dropped = droppedRequests.getAsLong();
+            if (dropped > 0) System.out.printf("%-50s : %d requests dropped past deadline\n", "", dropped);
+            synchronized (bulkLatency) {
+                System.out.printf("%-50s : %s\n", "    (bulk jobs)", bulkLatency.percentiles());
+            }
+        } finally {
+            phase.end();
+        }
+    }
+
+    private static void record(LatencyHistogram histogram, long nanos) {
+        synchronized (histogram) {
+            histogram.record(nanos);
+        }
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long sink;
+
+    private static void busyWork(long nanos) {
+        long end = System.nanoTime() + nanos;
+        long x = 0;
+        while (System.nanoTime() < end) x++;
+        sink += x;
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- Task scheduling: priority lanes, work stealing and deadlines under burst load ---");
+        testSchedulers();
+    }
+}
@@ -0,0 +1,185 @@
+import diagnosticsExample.JfrRecorder;
+import serializationExample.RecordCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    Snapshotting JavaOptimizationExampleThree.ImmutableUser records (the testMutability users: "User" + i, age i)
+    to bytes and back, 1 000 000 records per batch:
+    - ObjectOutputStream / ObjectInputStream: class descriptors, handles, 4-byte ints, reflection on decode
+    - DataOutputStream with a hand-written codec: writeUTF + writeInt
+    - serializationExample.RecordCodec: varints, length-prefixed UTF-8, straight into a ByteBuffer
+    - RecordCodec with a string dictionary, on users whose names repeat (1 000 distinct first names)
+    Printed: best of 3 encode / decode times and bytes per record. Each decode is checked against the original records.
+*/
+
+// It's a "Runnable Class"
+public class SerializationExamples {
+    private static final int USERS = 1_000_000;
+
+    private static final RecordCodec<JavaOptimizationExampleThree.ImmutableUser> CODEC =
+            RecordCodec.builder(JavaOptimizationExampleThree.ImmutableUser.class)
+                    .stringField("name", JavaOptimizationExampleThree.ImmutableUser::getName)
+                    .intField("age", JavaOptimizationExampleThree.ImmutableUser::getAge)
+                    .build(in -> new JavaOptimizationExampleThree.ImmutableUser(in.readString(), in.readInt()));
+
+    private static final RecordCodec<JavaOptimizationExampleThree.ImmutableUser> DICTIONARY_CODEC =
+            RecordCodec.builder(JavaOptimizationExampleThree.ImmutableUser.class)
+                    .dictionaryStringField("name", JavaOptimizationExampleThree.ImmutableUser::getName)
+                    .intField("age", JavaOptimizationExampleThree.ImmutableUser::getAge)
+                    .build(in -> new JavaOptimizationExampleThree.ImmutableUser(in.readString(), in.readInt()));
+
+    // One way to turn a batch into bytes and back
+    private interface Codec {
+        byte[] encode(List<JavaOptimizationExampleThree.ImmutableUser> users) throws IOException;
+
+        List<JavaOptimizationExampleThree.ImmutableUser> decode(byte[] bytes) throws IOException;
+    }
+
+    public static void testCodecs() {
+        List<JavaOptimizationExampleThree.ImmutableUser> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) users.add(new JavaOptimizationExampleThree.ImmutableUser("User" + i, i));
+        List<JavaOptimizationExampleThree.ImmutableUser> repeatedNames = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            repeatedNames.add(new JavaOptimizationExampleThree.ImmutableUser("FirstName" + (i % 1_000), i % 100));
+        }
+
+        benchmark("[BAD] ObjectOutputStream", users, new Codec() {
+            @Override
+            public byte[] encode(List<JavaOptimizationExampleThree.ImmutableUser> batch) throws IOException {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                    out.writeObject(batch);
+                }
+                return bytes.toByteArray();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public List<JavaOptimizationExampleThree.ImmutableUser> decode(byte[] bytes) throws IOException {
+                try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    return (List<JavaOptimizationExampleThree.ImmutableUser>) in.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException(e);
+                }
+            }
+        });
+
+        benchmark("[INFO] DataOutputStream, hand-written", users, new Codec() {
+            @Override
+            public byte[] encode(List<JavaOptimizationExampleThree.ImmutableUser> batch) throws IOException {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(batch.size() * 16);
+                try (DataOutputStream out = new DataOutputStream(bytes)) {
+                    out.writeInt(batch.size());
+                    for (JavaOptimizationExampleThree.ImmutableUser user : batch) {
+                        out.writeUTF(user.getName());
+                        out.writeInt(user.getAge());
+                    }
+                }
+                return bytes.toByteArray();
+            }
+
+            @Override
+            public List<JavaOptimizationExampleThree.ImmutableUser> decode(byte[] bytes) throws IOException {
+                try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+                    int count = in.readInt();
+                    List<JavaOptimizationExampleThree.ImmutableUser> batch = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        batch.add(new JavaOptimizationExampleThree.ImmutableUser(in.readUTF(), in.readInt()));
+                    }
+                    return batch;
+                }
+            }
+        });
+
+        benchmark("[GOOD] RecordCodec, varints + UTF-8", users, recordCodec(CODEC));
+        System.out.println();
+
+        benchmark("[INFO] RecordCodec, repeated names", repeatedNames, recordCodec(CODEC));
+        benchmark("[GOOD] RecordCodec + dictionary, repeated names", repeatedNames, recordCodec(DICTIONARY_CODEC));
+        System.out.println();
+    }
+
+    // The buffer starts at a typical size and doubles on overflow (long names); a real snapshot writer would keep it
+    private static Codec recordCodec(RecordCodec<JavaOptimizationExampleThree.ImmutableUser> codec) {
+        return new Codec() {
+            @Override
+            public byte[] encode(List<JavaOptimizationExampleThree.ImmutableUser> batch) {
+                ByteBuffer buffer = ByteBuffer.allocate(batch.size() * 16 + 16);
+                while (true) {
+                    try {
+                        codec.encodeBatch(batch, buffer);
+                        break;
+                    } catch (BufferOverflowException e) {
+                        buffer = ByteBuffer.allocate(Math.multiplyExact(buffer.capacity(), 2));
+                    }
+                }
+                byte[] bytes = new byte[buffer.position()];
+                buffer.flip().get(bytes);
+                return bytes;
+            }
+
+            @Override
+            public List<JavaOptimizationExampleThree.ImmutableUser> decode(byte[] bytes) {
+                return codec.decodeBatch(ByteBuffer.wrap(bytes));
+            }
+        };
+    }
+
+    private static void benchmark(String label, List<JavaOptimizationExampleThree.ImmutableUser> users, Codec codec) {
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            for (int i = 0; i < 5; i++) codec.decode(codec.encode(new ArrayList<>(users.subList(0, 100_000)))); // Warm-up
+
+            long encodeNanos = Long.MAX_VALUE;
+            long decodeNanos = Long.MAX_VALUE;
+            byte[] bytes = null;
+            List<JavaOptimizationExampleThree.ImmutableUser> decoded = null;
+            for (int run = 0; run < 3; run++) { // Best of 3: a GC in the middle of one run says nothing about the codec
+                long start = System.nanoTime();
+                bytes = codec.encode(users);
+                long encoded = System.nanoTime();
+                decoded = codec.decode(bytes);
+                long end = System.nanoTime();
+                encodeNanos = Math.min(encodeNanos, encoded - start);
+                decodeNanos = Math.min(decodeNanos, end - encoded);
+            }
+
+            System.out.printf("%-50s : encode %d ms, decode %d ms, %.1f bytes/record%s\n", label,
+                    encodeNanos / 1_000_000, decodeNanos / 1_000_000, (double) bytes.length / users.size(),
+                    sameUsers(users, decoded) ? "" : " – MISMATCH");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            phase.end();
+        }
+    }
+
+    private static boolean sameUsers(List<JavaOptimizationExampleThree.ImmutableUser> expected,
+                                     List<JavaOptimizationExampleThree.ImmutableUser> actual) {
+        if (expected.size() != actual.size()) return false;
+        for (int i = 0; i < expected.size(); i++) {
+            if (!expected.get(i).getName().equals(actual.get(i).getName())
+                    || expected.get(i).getAge() != actual.get(i).getAge()) return false;
+        }
+        return true;
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- Binary serialization of ImmutableUser records ---");
+        testCodecs();
+    }
+}
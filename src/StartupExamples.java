@@ -0,0 +1,67 @@
+import diagnosticsExample.JvmLauncher;
+import diagnosticsExample.StartupBenchmark;
+import diagnosticsExample.StartupBenchmark.Measurement;
+import diagnosticsExample.StartupBenchmark.Mode;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/*
+    ⚠️ WARNING: NOT A PRECISE BENCHMARK TOOL ⚠️
+
+    Cold-start time of the runnable classes of this project, each one in a fresh JVM:
+    time to the first line of output and number of classes loaded, without CDS, with the JDK's default CDS
+    archive, with an AppCDS archive of our own classes and (JDK 24+) with an AOT cache.
+    testLazyInitialization is about startup cost – this is how to measure it.
+
+    Usage: java StartupExamples [MainClass ...]   (default: a few quick examples)
+    Archives and logs go to <java.io.tmpdir>/javaoptimus-startup
+*/
+
+// It's a "Runnable Class"
+public class StartupExamples {
+    private static final List<String> DEFAULT_MAIN_CLASSES = List.of(
+            "CollectionExamples", "ThreadExamplesBestPractices", "DeadlockFreeExamples", "LazyInitExamples");
+    private static final int RUNS = 5;
+    private static final Duration TIMEOUT = Duration.ofSeconds(20); // Long benchmarks are stopped after their startup
+
+    public static void testStartup(List<String> mainClasses) {
+        JvmLauncher launcher = new JvmLauncher();
+        Path workDir = Path.of(System.getProperty("java.io.tmpdir"), "javaoptimus-startup");
+        StartupBenchmark benchmark = new StartupBenchmark(launcher, workDir, RUNS, TIMEOUT);
+        System.out.println("JDK " + benchmark.javaVersion() + ", " + RUNS + " runs per mode (medians), archives in " + workDir);
+
+        for (String mainClass : mainClasses) {
+            for (Mode mode : Mode.values()) {
+                if (!benchmark.supports(mode)) {
+                    System.out.printf("%-50s : skipped (needs JDK 24+)\n", label(mainClass, mode));
+                    continue;
+                }
+                if (!benchmark.train(mainClass, mode)) {
+                    System.out.printf("%-50s : no archive produced by the training run\n", label(mainClass, mode));
+                    continue;
+                }
+                Measurement measurement = benchmark.measure(mainClass, mode);
+                System.out.printf("%-50s : first output %d ms, total %d ms, %d classes (%d from archive)\n",
+                        label(mainClass, mode), measurement.firstOutputMillis(), measurement.totalMillis(),
+                        measurement.classesLoaded(), measurement.classesFromArchive());
+            }
+            System.out.println();
+        }
+    }
+
+    private static String label(String mainClass, Mode mode) {
+        String tag = switch (mode) {
+            case NO_CDS -> "[BAD]";
+            case DEFAULT_CDS -> "[INFO]";
+            case APP_CDS, AOT_CACHE -> "[GOOD]";
+        };
+        return tag + " " + mainClass + " " + mode;
+    }
+
+    public static void main(String[] args) {
+        System.out.println("--- Startup time: class loading with and without CDS / AppCDS / AOT cache ---");
+        testStartup(args.length > 0 ? List.of(args) : DEFAULT_MAIN_CLASSES);
+    }
+}
@@ -1,8 +1,9 @@
+import diagnosticsExample.ProfiledLock;
+
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.locks.ReentrantLock;
 
 public class ThreadExamplesBestPractices {
 
@@ -78,7 +79,8 @@ public class ThreadExamplesBestPractices {
     // Flexible alternative to synchronized. It gives you more control (e.g. try-locking, interruptibility, fairness policies). Always unlock in a finally block to avoid deadlocks.
     static class ReentrantLockExample {
         static class Counter {
-            private final ReentrantLock lock = new ReentrantLock();
+            // A ReentrantLock that also records its wait / hold times (see ProfiledLock.report)
+            private final ProfiledLock lock = new ProfiledLock("ReentrantLockExample.Counter");
             private int count = 0;
 
             public void safeIncrement() {
@@ -111,6 +113,7 @@ public class ThreadExamplesBestPractices {
                 e.printStackTrace();
             }
             System.out.println("4. ReentrantLock count = " + counter.getCount());
+            System.out.print(ProfiledLock.report(1));
         }
     }
 
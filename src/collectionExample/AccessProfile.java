@@ -0,0 +1,61 @@
+package collectionExample;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Operation mix observed on one collection (what AdaptiveList / AdaptiveMap base their decision on).
+// Plain counters, not thread-safe – like the collections it profiles.
+public final class AccessProfile {
+
+    // What an adaptive collection does once the warm-up window is over
+    public enum Mode {
+        RECOMMEND, // Keep the implementation, print the recommendation once
+        MIGRATE    // Copy the content into the better implementation and continue with it
+    }
+
+    public enum Operation {
+        RANDOM_ACCESS,        // get(i) / set(i)
+        HEAD_INSERT_REMOVE,   // add(0, e) / remove(0)
+        MIDDLE_INSERT_REMOVE, // add(i, e) / remove(i) away from both ends
+        TAIL_INSERT_REMOVE,   // add(e) / remove(size - 1)
+        ITERATION,            // one per visited element
+        LOOKUP,               // get(key) / containsKey / put / remove by key
+        RANGE_QUERY           // subMap / headMap / tailMap / firstKey / lastKey
+    }
+
+    private final long[] counts = new long[Operation.values().length];
+    private long total;
+
+    public void record(Operation operation) {
+        counts[operation.ordinal()]++;
+        total++;
+    }
+
+    public long count(Operation operation) {
+        return counts[operation.ordinal()];
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        total = 0;
+    }
+
+    // e.g. "RANDOM_ACCESS=98%, TAIL_INSERT_REMOVE=2%"
+    public String summary() {
+        Map<Operation, Long> nonZero = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            if (counts[operation.ordinal()] > 0) nonZero.put(operation, counts[operation.ordinal()]);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Operation, Long> entry : nonZero.entrySet()) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(entry.getKey()).append('=').append(Math.round(100.0 * entry.getValue() / Math.max(1, total))).append('%');
+        }
+        return sb.toString();
+    }
+}
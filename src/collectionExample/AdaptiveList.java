@@ -0,0 +1,269 @@
+package collectionExample;
+
+import collectionExample.AccessProfile.Mode;
+import collectionExample.AccessProfile.Operation;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+// AdaptiveList:
+// - Ordered, allows duplicates, not thread-safe (same contract as ArrayList / LinkedList)
+// - Records the operation mix and, every 1024 operations of the current window, compares the estimated cost of
+//   ArrayList vs LinkedList for that mix (RECOMMEND: print it, MIGRATE: switch the backing list)
+// Pros: Fixes "wrong list picked" call sites without profiling each one by hand
+// Cons: One counter increment per operation, a migration copies the whole list once
+public class AdaptiveList<E> extends AbstractList<E> {
+    public static final int DEFAULT_WINDOW = 10_000;
+    private static final int EVALUATION_INTERVAL = 1024;
+    private static final int MIN_SIZE = 256; // Below that, any implementation is fast enough
+
+    private final String name;
+    private final Mode mode;
+    private final int window;
+    private final AccessProfile profile = new AccessProfile();
+    private List<E> delegate;
+    private int generation; // Bumped on every migration, lets open iterators re-seat on the new list
+    private boolean recommended;
+
+    public AdaptiveList(String name, List<E> initial, Mode mode) {
+        this(name, initial, mode, DEFAULT_WINDOW);
+    }
+
+    public AdaptiveList(String name, List<E> initial, Mode mode, int window) {
+        if (!(initial instanceof ArrayList) && !(initial instanceof LinkedList)) {
+            throw new IllegalArgumentException("Only ArrayList and LinkedList are supported: " + initial.getClass());
+        }
+        this.name = name;
+        this.delegate = initial;
+        this.mode = mode;
+        this.window = window;
+    }
+
+    @Override
+    public E get(int index) {
+        record(Operation.RANDOM_ACCESS);
+        return delegate.get(index);
+    }
+
+    @Override
+    public E set(int index, E element) {
+        record(Operation.RANDOM_ACCESS);
+        return delegate.set(index, element);
+    }
+
+    @Override
+    public void add(int index, E element) {
+        record(positional(index, delegate.size()));
+        delegate.add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public E remove(int index) {
+        record(positional(index, delegate.size() - 1));
+        E removed = delegate.remove(index);
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new AdaptiveIterator(0);
+    }
+
+    // Also what indexOf, equals, hashCode, sort and subList walk with: never get(i) on a LinkedList
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        if (index < 0 || index > delegate.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + delegate.size());
+        }
+        return new AdaptiveIterator(index);
+    }
+
+    public AccessProfile profile() {
+        return profile;
+    }
+
+    public String implementation() {
+        return delegate.getClass().getSimpleName();
+    }
+
+    private static Operation positional(int index, int last) {
+        if (index == 0 && last > 0) return Operation.HEAD_INSERT_REMOVE;
+        if (index >= last) return Operation.TAIL_INSERT_REMOVE;
+        return Operation.MIDDLE_INSERT_REMOVE;
+    }
+
+    // Checked every EVALUATION_INTERVAL operations (a few expensive ones are enough to decide), reset every window
+    private void record(Operation operation) {
+        profile.record(operation);
+        long total = profile.total();
+        if ((total & (EVALUATION_INTERVAL - 1)) == 0 || total >= window) {
+            if (evaluate() || total >= window) profile.reset();
+        }
+    }
+
+    // Rough per-operation costs (in "element steps") for the current size
+    private static double cost(boolean arrayList, AccessProfile profile, int size) {
+        double n = Math.max(1, size);
+        if (arrayList) {
+            return profile.count(Operation.RANDOM_ACCESS)
+                    + profile.count(Operation.HEAD_INSERT_REMOVE) * n / 8        // System.arraycopy of everything
+                    + profile.count(Operation.MIDDLE_INSERT_REMOVE) * n / 16
+                    + profile.count(Operation.TAIL_INSERT_REMOVE)
+                    + profile.count(Operation.ITERATION);
+        }
+        return profile.count(Operation.RANDOM_ACCESS) * n / 4                  // Walk from the nearest end
+                + profile.count(Operation.HEAD_INSERT_REMOVE)
+                + profile.count(Operation.MIDDLE_INSERT_REMOVE) * n / 4
+                + profile.count(Operation.TAIL_INSERT_REMOVE)
+                + profile.count(Operation.ITERATION) * 2;                       // Pointer chasing, cache misses
+    }
+
+    // True if the backing implementation was switched
+    private boolean evaluate() {
+        if (delegate.size() < MIN_SIZE) return false;
+        boolean isArrayList = delegate instanceof ArrayList;
+        double current = cost(isArrayList, profile, delegate.size());
+        double other = cost(!isArrayList, profile, delegate.size());
+        if (other * 2 >= current) return false; // Not worth it (hysteresis avoids flip-flopping)
+
+        String better = isArrayList ? "LinkedList" : "ArrayList";
+        if (mode == Mode.MIGRATE) {
+            delegate = isArrayList ? new LinkedList<>(delegate) : new ArrayList<>(delegate);
+            generation++;
+            System.out.println("[ADAPTIVE] " + name + ": migrated to " + better + " (" + profile.summary() + ")");
+            return true;
+        } else if (!recommended) {
+            recommended = true;
+            System.out.println("[ADAPTIVE] " + name + ": consider " + better + " instead of "
+                    + implementation() + " (" + profile.summary() + ")");
+        }
+        return false;
+    }
+
+    // Fail-fast like ArrayList's iterator, walks the backing list's own iterator (ITERATION, not RANDOM_ACCESS) and
+    // survives a migration triggered by a read during the loop
+    private final class AdaptiveIterator implements ListIterator<E> {
+        private ListIterator<E> it;
+        private int seenGeneration = generation;
+        private int expectedModCount = modCount;
+        private int cursor;
+        private int lastReturned = -1;
+        private boolean itOwnsLast; // 'it' returned lastReturned itself, so it.set / it.remove apply to it
+
+        AdaptiveIterator(int index) {
+            it = delegate.listIterator(index);
+            cursor = index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < delegate.size();
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return cursor > 0;
+        }
+
+        @Override
+        public E next() {
+            check();
+            if (!it.hasNext()) throw new NoSuchElementException();
+            record(Operation.ITERATION); // May migrate: 'it' still sees the same content until the next call
+            lastReturned = cursor++;
+            itOwnsLast = true;
+            return it.next();
+        }
+
+        @Override
+        public E previous() {
+            check();
+            if (!it.hasPrevious()) throw new NoSuchElementException();
+            record(Operation.ITERATION);
+            lastReturned = --cursor;
+            itOwnsLast = true;
+            return it.previous();
+        }
+
+        @Override
+        public int nextIndex() {
+            return cursor;
+        }
+
+        @Override
+        public int previousIndex() {
+            return cursor - 1;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0) throw new IllegalStateException();
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (itOwnsLast && seenGeneration == generation) {
+                it.remove();
+            } else {
+                delegate.remove(lastReturned);
+                reseat(lastReturned);
+            }
+            cursor = lastReturned;
+            lastReturned = -1;
+            itOwnsLast = false;
+            expectedModCount = ++modCount;
+        }
+
+        @Override
+        public void set(E element) {
+            if (lastReturned < 0) throw new IllegalStateException();
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (itOwnsLast && seenGeneration == generation) {
+                it.set(element);
+            } else {
+                delegate.set(lastReturned, element);
+            }
+        }
+
+        @Override
+        public void add(E element) {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            record(positional(cursor, delegate.size()));
+            if (seenGeneration != generation) reseat(cursor);
+            it.add(element);
+            cursor++;
+            lastReturned = -1;
+            itOwnsLast = false;
+            expectedModCount = ++modCount;
+        }
+
+        private void check() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (seenGeneration != generation) {
+                reseat(cursor);
+                itOwnsLast = false;
+            }
+        }
+
+        private void reseat(int index) {
+            it = delegate.listIterator(index);
+            seenGeneration = generation;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package collectionExample;
+
+import collectionExample.AccessProfile.Mode;
+import collectionExample.AccessProfile.Operation;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+// AdaptiveMap:
+// - Not thread-safe, iteration order unspecified (it follows the backing map the iterator started on)
+// - Records the operation mix and, every 1024 operations of the current window, compares the estimated cost of
+//   HashMap vs TreeMap for that mix (RECOMMEND: print it, MIGRATE: switch the backing map)
+// - Range queries (subMap/headMap/tailMap) return sorted read-only snapshots whatever the backing map:
+//   O(n) on a HashMap, O(log n + k) on a TreeMap – which is exactly what the profile detects
+// Pros: Fixes "HashMap used for range queries" (or "TreeMap used as a plain lookup table") call sites
+// Cons: One counter increment per operation, a migration copies the whole map once
+public class AdaptiveMap<K, V> extends AbstractMap<K, V> {
+    public static final int DEFAULT_WINDOW = 10_000;
+    private static final int EVALUATION_INTERVAL = 1024;
+    private static final int MIN_SIZE = 256; // Below that, any implementation is fast enough
+
+    private final String name;
+    private final Mode mode;
+    private final int window;
+    private final Comparator<? super K> comparator;
+    private final AccessProfile profile = new AccessProfile();
+    private Map<K, V> delegate;
+    private int generation;
+    private int modCount;
+    private boolean recommended;
+    private boolean sortable = true; // False once a key turned out not to be Comparable (or null)
+
+    // Keeps the initial TreeMap's comparator (ordering and key equality must survive migrations), natural order otherwise
+    public AdaptiveMap(String name, Map<K, V> initial, Mode mode) {
+        this(name, initial, mode, DEFAULT_WINDOW, comparatorOf(initial));
+    }
+
+    public AdaptiveMap(String name, Map<K, V> initial, Mode mode, int window, Comparator<? super K> comparator) {
+        if (!(initial instanceof HashMap) && !(initial instanceof TreeMap)) {
+            throw new IllegalArgumentException("Only HashMap and TreeMap are supported: " + initial.getClass());
+        }
+        this.name = name;
+        this.delegate = initial;
+        this.mode = mode;
+        this.window = window;
+        this.comparator = comparator;
+    }
+
+    @Override
+    public V get(Object key) {
+        record(Operation.LOOKUP);
+        return delegate.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        record(Operation.LOOKUP);
+        return delegate.containsKey(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        record(Operation.LOOKUP);
+        int size = delegate.size();
+        V previous = delegate.put(key, value);
+        if (delegate.size() != size) modCount++;
+        return previous;
+    }
+
+    @Override
+    public V remove(Object key) {
+        record(Operation.LOOKUP);
+        int size = delegate.size();
+        V previous = delegate.remove(key);
+        if (delegate.size() != size) modCount++;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new AdaptiveIterator();
+            }
+
+            @Override
+            public int size() {
+                return delegate.size();
+            }
+        };
+    }
+
+    // [fromKey, toKey)
+    public SortedMap<K, V> subMap(K fromKey, K toKey) {
+        record(Operation.RANGE_QUERY);
+        if (delegate instanceof TreeMap<K, V> tree) return snapshot(tree.subMap(fromKey, toKey));
+        return scan(fromKey, toKey);
+    }
+
+    // [first, toKey)
+    public SortedMap<K, V> headMap(K toKey) {
+        record(Operation.RANGE_QUERY);
+        if (delegate instanceof TreeMap<K, V> tree) return snapshot(tree.headMap(toKey));
+        return scan(null, toKey);
+    }
+
+    // [fromKey, last]
+    public SortedMap<K, V> tailMap(K fromKey) {
+        record(Operation.RANGE_QUERY);
+        if (delegate instanceof TreeMap<K, V> tree) return snapshot(tree.tailMap(fromKey));
+        return scan(fromKey, null);
+    }
+
+    public AccessProfile profile() {
+        return profile;
+    }
+
+    public String implementation() {
+        return delegate.getClass().getSimpleName();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> Comparator<? super K> comparatorOf(Map<K, ?> initial) {
+        if (initial instanceof TreeMap<K, ?> tree && tree.comparator() != null) return tree.comparator();
+        return (Comparator<? super K>) Comparator.naturalOrder();
+    }
+
+    // Full scan of a HashMap: every key is compared against both bounds
+    private SortedMap<K, V> scan(K fromInclusive, K toExclusive) {
+        TreeMap<K, V> result = new TreeMap<>(comparator);
+        for (Entry<K, V> entry : delegate.entrySet()) {
+            K key = entry.getKey();
+            if (fromInclusive != null && comparator.compare(key, fromInclusive) < 0) continue;
+            if (toExclusive != null && comparator.compare(key, toExclusive) >= 0) continue;
+            result.put(key, entry.getValue());
+        }
+        return Collections.unmodifiableSortedMap(result);
+    }
+
+    private SortedMap<K, V> snapshot(SortedMap<K, V> view) {
+        return Collections.unmodifiableSortedMap(new TreeMap<>(view));
+    }
+
+    // Checked every EVALUATION_INTERVAL operations (a few expensive ones are enough to decide), reset every window
+    private void record(Operation operation) {
+        profile.record(operation);
+        long total = profile.total();
+        if ((total & (EVALUATION_INTERVAL - 1)) == 0 || total >= window) {
+            if (evaluate() || total >= window) profile.reset();
+        }
+    }
+
+    // Rough per-operation costs (in "element steps") for the current size
+    private static double cost(boolean hashMap, AccessProfile profile, int size) {
+        double n = Math.max(2, size);
+        double log = Math.log(n) / Math.log(2);
+        if (hashMap) {
+            return profile.count(Operation.LOOKUP)
+                    + profile.count(Operation.ITERATION)
+                    + profile.count(Operation.RANGE_QUERY) * n;       // Scan + compare every key
+        }
+        return profile.count(Operation.LOOKUP) * log                  // Tree descent, one cache miss per level
+                + profile.count(Operation.ITERATION) * 2
+                + profile.count(Operation.RANGE_QUERY) * log;
+    }
+
+    // True if the backing implementation was switched
+    private boolean evaluate() {
+        if (delegate.size() < MIN_SIZE) return false;
+        boolean isHashMap = delegate instanceof HashMap;
+        if (isHashMap && !sortable) return false;
+        double current = cost(isHashMap, profile, delegate.size());
+        double other = cost(!isHashMap, profile, delegate.size());
+        if (other * 2 >= current) return false; // Not worth it (hysteresis avoids flip-flopping)
+
+        String better = isHashMap ? "TreeMap" : "HashMap";
+        if (mode == Mode.MIGRATE) {
+            Map<K, V> migrated;
+            if (isHashMap) {
+                try {
+                    migrated = new TreeMap<>(comparator);
+                    migrated.putAll(delegate);
+                } catch (ClassCastException | NullPointerException e) {
+                    sortable = false; // Keys cannot live in a TreeMap, stay on HashMap for good
+                    return false;
+                }
+            } else {
+                migrated = new HashMap<>((int) (delegate.size() / 0.75f) + 1, 0.75f);
+                migrated.putAll(delegate);
+            }
+            delegate = migrated;
+            generation++;
+            System.out.println("[ADAPTIVE] " + name + ": migrated to " + better + " (" + profile.summary() + ")");
+            return true;
+        } else if (!recommended) {
+            recommended = true;
+            System.out.println("[ADAPTIVE] " + name + ": consider " + better + " instead of "
+                    + implementation() + " (" + profile.summary() + ")");
+        }
+        return false;
+    }
+
+    // Fail-fast like HashMap's iterator. A migration triggered by the loop's own reads is not a modification: the walk
+    // goes on over the old map's keys (no longer written to), values and removals go to the new backing map
+    private final class AdaptiveIterator implements Iterator<Entry<K, V>> {
+        private final Iterator<Entry<K, V>> it = delegate.entrySet().iterator();
+        private final int seenGeneration = generation;
+        private int expectedModCount = modCount;
+        private K lastKey;
+        private boolean canRemove;
+
+        @Override
+        public boolean hasNext() {
+            return it.hasNext();
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!it.hasNext()) throw new NoSuchElementException();
+            Entry<K, V> entry = it.next();
+            K key = entry.getKey();
+            V value = seenGeneration == generation ? entry.getValue() : delegate.get(key); // Old map misses put()s
+            record(Operation.ITERATION); // May migrate: 'it' keeps walking the map it started on
+            lastKey = key;
+            canRemove = true;
+            return new WriteThroughEntry(key, value);
+        }
+
+        @Override
+        public void remove() {
+            if (!canRemove) throw new IllegalStateException();
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (seenGeneration == generation) {
+                it.remove();
+            } else {
+                delegate.remove(lastKey);
+            }
+            canRemove = false;
+            expectedModCount = ++modCount;
+        }
+    }
+
+    // Not a SimpleEntry: that one is Serializable, and this one holds the map
+    private final class WriteThroughEntry implements Entry<K, V> {
+        private final K key;
+        private V value;
+
+        WriteThroughEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            this.value = value;
+            return delegate.put(key, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry<?, ?> e && Objects.equals(key, e.getKey()) && Objects.equals(value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+}
@@ -0,0 +1,617 @@
+package collectionExample;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+// CompressedIntSet (Roaring-style compressed bitmap, the EnumSet idea for integer IDs):
+// - Non-negative int values, split into a 16-bit "high" part (which container) and a 16-bit "low" part
+// - Each 65 536-value chunk picks its own encoding:
+//   * array container  : sorted char[] (≤ 4096 values, 2 bytes per value) – sparse chunks
+//   * bitmap container : long[1024] (8 KB, 1 bit per possible value)    – dense chunks
+//   * run container    : (start, length) pairs                           – contiguous ranges (after runOptimize())
+// - and / or / andNot work container by container (word-wise on bitmaps, merges on arrays)
+// - Not thread-safe, sorted iteration
+// Pros: contains() is one directory load + O(1) (bitmap) / O(log 4096) (array), a few bytes per ID even for 10^7 IDs, fast set algebra
+// Cons: No null / negative values, a run container is converted back to array/bitmap on the next add/remove
+public class CompressedIntSet {
+    private static final int ARRAY_MAX = 4096;  // Above this an array container is bigger than a bitmap (8 KB)
+    private static final int BITMAP_WORDS = 1024;
+
+    private Container[] directory = new Container[0]; // Indexed by the high 16 bits, null = no value in that chunk
+    private int containerCount;
+
+    public CompressedIntSet() {
+    }
+
+    public static CompressedIntSet of(int... values) {
+        CompressedIntSet set = new CompressedIntSet();
+        for (int value : values) set.add(value);
+        return set;
+    }
+
+    // [fromInclusive, toExclusive) – one run container per chunk instead of adding values one by one
+    public static CompressedIntSet range(int fromInclusive, int toExclusive) {
+        checkValue(fromInclusive);
+        CompressedIntSet set = new CompressedIntSet();
+        for (int start = fromInclusive; start < toExclusive; ) {
+            int high = start >>> 16;
+            int end = (int) Math.min(toExclusive, (high + 1L) << 16); // Exclusive
+            char[] runs = {(char) start, (char) (end - start - 1)};
+            set.setContainer(high, new RunContainer(runs, 1));
+            start = end;
+        }
+        return set;
+    }
+
+    // ---------------------------------------------------------------- single values
+
+    public boolean add(int value) {
+        checkValue(value);
+        int high = value >>> 16;
+        Container before = container(high);
+        if (before == null) {
+            setContainer(high, new ArrayContainer(new char[]{(char) value}, 1));
+            return true;
+        }
+        int cardinality = before.cardinality();
+        Container after = before.add((char) value);
+        directory[high] = after;
+        return after.cardinality() != cardinality;
+    }
+
+    public boolean remove(int value) {
+        if (value < 0) return false;
+        int high = value >>> 16;
+        Container before = container(high);
+        if (before == null) return false;
+        int cardinality = before.cardinality();
+        Container after = before.remove((char) value);
+        setContainer(high, after.cardinality() == 0 ? null : after);
+        return after.cardinality() != cardinality;
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) return false;
+        Container container = container(value >>> 16);
+        return container != null && container.contains((char) value);
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (Container container : directory) {
+            if (container != null) total += container.cardinality();
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return containerCount == 0;
+    }
+
+    // ---------------------------------------------------------------- set algebra (new set, operands untouched)
+
+    public static CompressedIntSet and(CompressedIntSet a, CompressedIntSet b) {
+        CompressedIntSet result = new CompressedIntSet();
+        int highs = Math.min(a.directory.length, b.directory.length);
+        for (int high = 0; high < highs; high++) {
+            Container left = a.directory[high], right = b.directory[high];
+            if (left == null || right == null) continue;
+            Container c = left.and(right);
+            if (c.cardinality() > 0) result.setContainer(high, c);
+        }
+        return result;
+    }
+
+    public static CompressedIntSet or(CompressedIntSet a, CompressedIntSet b) {
+        CompressedIntSet result = new CompressedIntSet();
+        for (int high = Math.max(a.directory.length, b.directory.length) - 1; high >= 0; high--) {
+            Container left = a.container(high), right = b.container(high);
+            if (left == null && right == null) continue;
+            result.setContainer(high, left == null ? right.copy() : right == null ? left.copy() : left.or(right));
+        }
+        return result;
+    }
+
+    // Values of a that are not in b
+    public static CompressedIntSet andNot(CompressedIntSet a, CompressedIntSet b) {
+        CompressedIntSet result = new CompressedIntSet();
+        for (int high = a.directory.length - 1; high >= 0; high--) {
+            Container left = a.directory[high];
+            if (left == null) continue;
+            Container right = b.container(high);
+            Container c = right == null ? left.copy() : left.andNot(right);
+            if (c.cardinality() > 0) result.setContainer(high, c);
+        }
+        return result;
+    }
+
+    // |a ∩ b| without building the intersection
+    public static int andCardinality(CompressedIntSet a, CompressedIntSet b) {
+        int total = 0;
+        int highs = Math.min(a.directory.length, b.directory.length);
+        for (int high = 0; high < highs; high++) {
+            Container left = a.directory[high], right = b.directory[high];
+            if (left != null && right != null) total += left.andCardinality(right);
+        }
+        return total;
+    }
+
+    // ---------------------------------------------------------------- maintenance / introspection
+
+    // Re-encodes every container as runs when that is smaller (call once after bulk loading)
+    public void runOptimize() {
+        for (int high = 0; high < directory.length; high++) {
+            if (directory[high] != null) directory[high] = directory[high].runOptimize();
+        }
+    }
+
+    // Approximate payload size: directory references + container arrays
+    public long sizeInBytes() {
+        long bytes = directory.length * 4L;
+        for (Container container : directory) {
+            if (container != null) bytes += container.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    // "containers=12 (array=3, bitmap=8, run=1)"
+    public String describe() {
+        int arrays = 0, bitmaps = 0, runs = 0;
+        for (Container container : directory) {
+            switch (container) {
+                case null -> {
+                }
+                case ArrayContainer ignored -> arrays++;
+                case BitmapContainer ignored -> bitmaps++;
+                case RunContainer ignored -> runs++;
+            }
+        }
+        return "containers=" + containerCount + " (array=" + arrays + ", bitmap=" + bitmaps + ", run=" + runs + ")";
+    }
+
+    // Ascending order
+    public void forEach(IntConsumer action) {
+        for (int high = 0; high < directory.length; high++) {
+            if (directory[high] != null) directory[high].forEach(high << 16, action);
+        }
+    }
+
+    // Sorted ascending
+    public PrimitiveIterator.OfInt iterator() {
+        return Arrays.stream(toArray()).iterator();
+    }
+
+    public int[] toArray() {
+        int[] values = new int[cardinality()];
+        int[] position = new int[1];
+        forEach(value -> values[position[0]++] = value);
+        return values;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CompressedIntSet set && Arrays.equals(toArray(), set.toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        return "CompressedIntSet[cardinality=" + cardinality() + ", " + describe() + "]";
+    }
+
+    // ---------------------------------------------------------------- directory
+    // Roaring keeps a sorted array of high parts and binary-searches it. Values are non-negative ints, so there are
+    // at most 32 768 chunks: a directly indexed array (≤ 128 KB of references) turns that search into one load.
+
+    private static void checkValue(int value) {
+        if (value < 0) throw new IllegalArgumentException("Negative value: " + value);
+    }
+
+    private Container container(int high) {
+        return high < directory.length ? directory[high] : null;
+    }
+
+    private void setContainer(int high, Container container) {
+        if (high >= directory.length) {
+            if (container == null) return;
+            directory = Arrays.copyOf(directory, Math.min(1 << 15, Math.max(high + 1, directory.length * 2)));
+        }
+        if (directory[high] == null && container != null) containerCount++;
+        else if (directory[high] != null && container == null) containerCount--;
+        directory[high] = container;
+    }
+
+    // ---------------------------------------------------------------- containers
+    // Mutators return the container to keep (it may switch encoding), like Roaring
+
+    private abstract static sealed class Container permits ArrayContainer, BitmapContainer, RunContainer {
+        abstract boolean contains(char low);
+
+        abstract Container add(char low);
+
+        abstract Container remove(char low);
+
+        abstract int cardinality();
+
+        abstract long sizeInBytes();
+
+        abstract void forEach(int base, IntConsumer action);
+
+        // ORs this container's bits into a 1024-word bitmap
+        abstract void fill(long[] words);
+
+        abstract Container copy();
+
+        Container and(Container other) {
+            if (this instanceof ArrayContainer array) return array.filter(other, true);
+            if (other instanceof ArrayContainer array) return array.filter(this, true);
+            long[] words = toWords();
+            long[] otherWords = other.toWords();
+            for (int i = 0; i < BITMAP_WORDS; i++) words[i] &= otherWords[i];
+            return fromWords(words);
+        }
+
+        Container or(Container other) {
+            if (this instanceof ArrayContainer a && other instanceof ArrayContainer b
+                    && a.cardinality + b.cardinality <= ARRAY_MAX) {
+                return a.merge(b);
+            }
+            long[] words = toWords();
+            other.fill(words);
+            return fromWords(words);
+        }
+
+        Container andNot(Container other) {
+            if (this instanceof ArrayContainer array) return array.filter(other, false);
+            long[] words = toWords();
+            long[] otherWords = other.toWords();
+            for (int i = 0; i < BITMAP_WORDS; i++) words[i] &= ~otherWords[i];
+            return fromWords(words);
+        }
+
+        int andCardinality(Container other) {
+            if (this instanceof BitmapContainer a && other instanceof BitmapContainer b) {
+                int total = 0;
+                for (int i = 0; i < BITMAP_WORDS; i++) total += Long.bitCount(a.words[i] & b.words[i]);
+                return total;
+            }
+            return and(other).cardinality();
+        }
+
+        long[] toWords() {
+            long[] words = new long[BITMAP_WORDS];
+            fill(words);
+            return words;
+        }
+
+        Container runOptimize() {
+            long[] words = toWords();
+            int runs = countRuns(words);
+            // A run is 4 bytes: keep the current encoding unless runs are strictly smaller
+            return runs * 4L < sizeInBytes() ? RunContainer.ofWords(words, runs) : this;
+        }
+    }
+
+    // Array or bitmap, whichever is smaller for this cardinality
+    private static Container fromWords(long[] words) {
+        int cardinality = 0;
+        for (long word : words) cardinality += Long.bitCount(word);
+        if (cardinality > ARRAY_MAX) return new BitmapContainer(words, cardinality);
+        char[] values = new char[cardinality];
+        int n = 0;
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+            long word = words[i];
+            while (word != 0) {
+                values[n++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return new ArrayContainer(values, cardinality);
+    }
+
+    private static int countRuns(long[] words) {
+        int runs = 0;
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+            long word = words[i];
+            long carry = i > 0 ? words[i - 1] >>> 63 : 0;
+            // A run starts at every 1 bit whose lower neighbour is 0
+            runs += Long.bitCount(word & ~((word << 1) | carry));
+        }
+        return runs;
+    }
+
+    private static final class ArrayContainer extends Container {
+        char[] values;
+        int cardinality;
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        @Override
+        Container add(char low) {
+            int index = cardinality > 0 && values[cardinality - 1] < low
+                    ? -(cardinality + 1)
+                    : Arrays.binarySearch(values, 0, cardinality, low);
+            if (index >= 0) return this;
+            if (cardinality == ARRAY_MAX) {
+                long[] words = toWords();
+                words[low >>> 6] |= 1L << low;
+                return new BitmapContainer(words, cardinality + 1);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index < 0) return this;
+            System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+            cardinality--;
+            return this;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return cardinality * 2L;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < cardinality; i++) action.accept(base | values[i]);
+        }
+
+        @Override
+        void fill(long[] words) {
+            for (int i = 0; i < cardinality; i++) words[values[i] >>> 6] |= 1L << values[i];
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        // keep = true: this ∩ other, keep = false: this \ other
+        Container filter(Container other, boolean keep) {
+            char[] kept = new char[cardinality];
+            int n = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i]) == keep) kept[n++] = values[i];
+            }
+            return new ArrayContainer(kept, n);
+        }
+
+        Container merge(ArrayContainer other) {
+            char[] merged = new char[cardinality + other.cardinality];
+            int i = 0, j = 0, n = 0;
+            while (i < cardinality && j < other.cardinality) {
+                char a = values[i], b = other.values[j];
+                if (a < b) merged[n++] = values[i++];
+                else if (a > b) merged[n++] = other.values[j++];
+                else {
+                    merged[n++] = a;
+                    i++;
+                    j++;
+                }
+            }
+            while (i < cardinality) merged[n++] = values[i++];
+            while (j < other.cardinality) merged[n++] = other.values[j++];
+            return new ArrayContainer(merged, n);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        final long[] words;
+        int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Container add(char low) {
+            long before = words[low >>> 6];
+            long after = before | (1L << low);
+            if (after != before) {
+                words[low >>> 6] = after;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            long before = words[low >>> 6];
+            long after = before & ~(1L << low);
+            if (after == before) return this;
+            words[low >>> 6] = after;
+            cardinality--;
+            return cardinality <= ARRAY_MAX ? fromWords(words) : this;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return BITMAP_WORDS * 8L;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    action.accept(base + (i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        void fill(long[] target) {
+            for (int i = 0; i < BITMAP_WORDS; i++) target[i] |= words[i];
+        }
+
+        @Override
+        long[] toWords() {
+            return words.clone();
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+    }
+
+    // runs[2k] = start, runs[2k + 1] = length - 1 (so a full 65 536 run fits in a char)
+    private static final class RunContainer extends Container {
+        final char[] runs;
+        final int runCount;
+
+        RunContainer(char[] runs, int runCount) {
+            this.runs = runs;
+            this.runCount = runCount;
+        }
+
+        static RunContainer ofWords(long[] words, int runCount) {
+            char[] runs = new char[runCount * 2];
+            int n = 0;
+            int value = 0;
+            while (value < 1 << 16) {
+                int start = nextSetBit(words, value);
+                if (start < 0) break;
+                int end = nextClearBit(words, start); // Exclusive
+                runs[n++] = (char) start;
+                runs[n++] = (char) (end - start - 1);
+                value = end;
+            }
+            return new RunContainer(runs, runCount);
+        }
+
+        @Override
+        boolean contains(char low) {
+            // Last run whose start ≤ low
+            int lowIndex = 0, highIndex = runCount - 1;
+            while (lowIndex <= highIndex) {
+                int middle = (lowIndex + highIndex) >>> 1;
+                if (runs[2 * middle] <= low) lowIndex = middle + 1;
+                else highIndex = middle - 1;
+            }
+            if (highIndex < 0) return false;
+            return low - runs[2 * highIndex] <= runs[2 * highIndex + 1];
+        }
+
+        // Runs are a read-optimized encoding: a mutation switches back to array / bitmap
+        @Override
+        Container add(char low) {
+            return contains(low) ? this : fromWords(toWords()).add(low);
+        }
+
+        @Override
+        Container remove(char low) {
+            return contains(low) ? fromWords(toWords()).remove(low) : this;
+        }
+
+        @Override
+        int cardinality() {
+            int total = 0;
+            for (int i = 0; i < runCount; i++) total += runs[2 * i + 1] + 1;
+            return total;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return runCount * 4L;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < runCount; i++) {
+                int start = base + runs[2 * i];
+                int end = start + runs[2 * i + 1];
+                for (int value = start; value <= end; value++) action.accept(value);
+            }
+        }
+
+        @Override
+        void fill(long[] words) {
+            for (int i = 0; i < runCount; i++) {
+                int start = runs[2 * i];
+                int end = start + runs[2 * i + 1]; // Inclusive
+                int firstWord = start >>> 6, lastWord = end >>> 6;
+                long firstMask = -1L << start;
+                long lastMask = -1L >>> (63 - (end & 63));
+                if (firstWord == lastWord) {
+                    words[firstWord] |= firstMask & lastMask;
+                } else {
+                    words[firstWord] |= firstMask;
+                    for (int w = firstWord + 1; w < lastWord; w++) words[w] = -1L;
+                    words[lastWord] |= lastMask;
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return this; // Immutable: mutations return a new container
+        }
+
+        @Override
+        Container runOptimize() {
+            return this;
+        }
+    }
+
+    private static int nextSetBit(long[] words, int from) {
+        int index = from >>> 6;
+        if (index >= BITMAP_WORDS) return -1;
+        long word = words[index] & (-1L << from);
+        while (word == 0) {
+            if (++index == BITMAP_WORDS) return -1;
+            word = words[index];
+        }
+        return (index << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    private static int nextClearBit(long[] words, int from) {
+        int index = from >>> 6;
+        long word = ~words[index] & (-1L << from);
+        while (word == 0) {
+            if (++index == BITMAP_WORDS) return 1 << 16;
+            word = ~words[index];
+        }
+        return (index << 6) + Long.numberOfTrailingZeros(word);
+    }
+}
@@ -0,0 +1,512 @@
+package collectionExample;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// ConcurrentBPlusTreeMap:
+// - Sorted by natural order or a provided Comparator, no null keys or values
+// - Thread-safe: one StampedLock for the whole tree
+//   * get / containsKey / range scans use optimistic reads (no lock write, no CAS) and only fall back
+//     to a read lock when a writer got in the way
+//   * put / remove take the write lock (one writer at a time), and so do putIfAbsent / replace / compute* / merge:
+//     Map's defaults would get() then put() with another writer in between. As with ConcurrentHashMap, keep the
+//     functions short and never touch the map from them (the lock is not reentrant: that would deadlock)
+// - Range scans (scan / iterator) are weakly consistent: they read the leaves in small validated batches,
+//   so a long scan never blocks writers and never sees a half-done split
+// - remove() does not merge under-full leaves (they stay routable and are simply skipped), like many
+//   production B-trees – the tree never shrinks
+// Pros: Keys and values packed in arrays (64 per node): few cache misses per lookup, sequential range scans
+// Cons: Writers are serialized, not a full NavigableMap (scan() instead of subMap views)
+public class ConcurrentBPlusTreeMap<K, V> extends AbstractMap<K, V> {
+    private static final int ORDER = 64;  // Max keys per node (one more slot is used transiently before a split)
+    private static final int BATCH = 64;  // Entries read per validated scan batch
+
+    private final Comparator<? super K> comparator;
+    private final StampedLock lock = new StampedLock();
+    private Node root = new Leaf();
+    private int size;
+    private Object previousValue; // Written by insert() under the write lock, cleared by putLocked()
+
+    private abstract static class Node {
+        final Object[] keys = new Object[ORDER + 1];
+        int count;
+    }
+
+    private static final class Leaf extends Node {
+        final Object[] values = new Object[ORDER + 1];
+        Leaf next;
+    }
+
+    private static final class Inner extends Node {
+        final Node[] children = new Node[ORDER + 2];
+    }
+
+    private record Split(Object separator, Node right) {
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentBPlusTreeMap() {
+        this((Comparator<? super K>) Comparator.naturalOrder());
+    }
+
+    public ConcurrentBPlusTreeMap(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+    }
+
+    @Override
+    public V get(Object key) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                V value = find(key);
+                if (lock.validate(stamp)) return value;
+            } catch (RuntimeException tornRead) {
+                // A writer modified the nodes while we were reading them: retry under the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return find(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if (key == null || value == null) throw new NullPointerException();
+        long stamp = lock.writeLock();
+        try {
+            return putLocked(key, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (key == null) throw new NullPointerException();
+        long stamp = lock.writeLock();
+        try {
+            return removeLocked(key);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        if (key == null || value == null) throw new NullPointerException();
+        long stamp = lock.writeLock();
+        try {
+            V current = find(key);
+            return current != null ? current : putLocked(key, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (key == null) throw new NullPointerException();
+        if (value == null) return false;
+        long stamp = lock.writeLock();
+        try {
+            if (!value.equals(find(key))) return false;
+            removeLocked(key);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        if (key == null || value == null) throw new NullPointerException();
+        long stamp = lock.writeLock();
+        try {
+            return find(key) != null ? putLocked(key, value) : null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (key == null || oldValue == null || newValue == null) throw new NullPointerException();
+        long stamp = lock.writeLock();
+        try {
+            if (!oldValue.equals(find(key))) return false;
+            putLocked(key, newValue);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Hits (the common case for a cache) are answered by an optimistic get(), without the write lock
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (key == null || mappingFunction == null) throw new NullPointerException();
+        V current = get(key);
+        if (current != null) return current;
+        long stamp = lock.writeLock();
+        try {
+            current = find(key);
+            if (current != null) return current;
+            V value = mappingFunction.apply(key);
+            if (value != null) putLocked(key, value);
+            return value;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        if (key == null || remappingFunction == null) throw new NullPointerException();
+        long stamp = lock.writeLock();
+        try {
+            V current = find(key);
+            if (current == null) return null;
+            return store(key, remappingFunction.apply(key, current));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        if (key == null || remappingFunction == null) throw new NullPointerException();
+        long stamp = lock.writeLock();
+        try {
+            return store(key, remappingFunction.apply(key, find(key)));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (key == null || value == null || remappingFunction == null) throw new NullPointerException();
+        long stamp = lock.writeLock();
+        try {
+            V current = find(key);
+            return store(key, current == null ? value : remappingFunction.apply(current, value));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int current = size;
+        if (lock.validate(stamp)) return current;
+        stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Visits [fromInclusive, toExclusive) in key order, null bound = unbounded. Weakly consistent.
+    public void scan(K fromInclusive, K toExclusive, BiConsumer<? super K, ? super V> action) {
+        Object[] keys = new Object[BATCH];
+        Object[] values = new Object[BATCH];
+        Object cursor = fromInclusive;
+        boolean inclusive = true;
+        while (true) {
+            int count = readBatch(cursor, inclusive, toExclusive, keys, values);
+            for (int i = 0; i < count; i++) {
+                action.accept(castKey(keys[i]), castValue(values[i]));
+            }
+            if (count < BATCH) return;
+            cursor = keys[count - 1]; // Resume strictly after the last key we handed out
+            inclusive = false;
+        }
+    }
+
+    public int countInRange(K fromInclusive, K toExclusive) {
+        int[] count = new int[1];
+        scan(fromInclusive, toExclusive, (k, v) -> count[0]++);
+        return count[0];
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new BatchIterator();
+            }
+
+            @Override
+            public int size() {
+                return ConcurrentBPlusTreeMap.this.size();
+            }
+        };
+    }
+
+    // ---------------------------------------------------------------- reads (safe to run optimistically)
+
+    private V find(Object key) {
+        Leaf leaf = leafFor(key);
+        int index = search(leaf, key);
+        return index >= 0 ? castValue(leaf.values[index]) : null;
+    }
+
+    private Leaf leafFor(Object key) {
+        Node node = root;
+        while (node instanceof Inner inner) {
+            node = inner.children[childIndex(inner, key)];
+        }
+        return (Leaf) node;
+    }
+
+    private Leaf leftmostLeaf() {
+        Node node = root;
+        while (node instanceof Inner inner) {
+            node = inner.children[0];
+        }
+        return (Leaf) node;
+    }
+
+    // Optimistic first, read lock if a writer interfered. Returns the number of entries copied.
+    private int readBatch(Object cursor, boolean inclusive, Object toExclusive, Object[] keys, Object[] values) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                int count = copyBatch(cursor, inclusive, toExclusive, keys, values);
+                if (lock.validate(stamp)) return count;
+            } catch (RuntimeException tornRead) {
+                // Retry under the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return copyBatch(cursor, inclusive, toExclusive, keys, values);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int copyBatch(Object cursor, boolean inclusive, Object toExclusive, Object[] keys, Object[] values) {
+        Leaf leaf;
+        int index;
+        if (cursor == null) {
+            leaf = leftmostLeaf();
+            index = 0;
+        } else {
+            leaf = leafFor(cursor);
+            index = search(leaf, cursor);
+            index = index >= 0 ? (inclusive ? index : index + 1) : -index - 1;
+        }
+        int count = 0;
+        while (leaf != null && count < BATCH) {
+            for (int limit = leaf.count; index < limit && count < BATCH; index++) {
+                Object key = leaf.keys[index];
+                if (toExclusive != null && compare(key, toExclusive) >= 0) return count;
+                keys[count] = key;
+                values[count++] = leaf.values[index];
+            }
+            if (count < BATCH) {
+                leaf = leaf.next;
+                index = 0;
+            }
+        }
+        return count;
+    }
+
+    // Index of the key, or -(insertion point + 1)
+    private int search(Node node, Object key) {
+        int low = 0;
+        int high = node.count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int cmp = compare(node.keys[middle], key);
+            if (cmp < 0) low = middle + 1;
+            else if (cmp > 0) high = middle - 1;
+            else return middle;
+        }
+        return -(low + 1);
+    }
+
+    // Keys equal to a separator live in the right subtree
+    private int childIndex(Inner inner, Object key) {
+        int index = search(inner, key);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    // ---------------------------------------------------------------- writes (write lock held)
+
+    private V putLocked(K key, V value) {
+        Split split = insert(root, key, value);
+        if (split != null) {
+            Inner newRoot = new Inner();
+            newRoot.keys[0] = split.separator();
+            newRoot.children[0] = root;
+            newRoot.children[1] = split.right();
+            newRoot.count = 1;
+            root = newRoot;
+        }
+        V previous = castValue(previousValue);
+        previousValue = null; // The tree must not keep the replaced value reachable
+        return previous;
+    }
+
+    private V removeLocked(Object key) {
+        Leaf leaf = leafFor(key);
+        int index = search(leaf, key);
+        if (index < 0) return null;
+        V removed = castValue(leaf.values[index]);
+        int moved = leaf.count - index - 1;
+        System.arraycopy(leaf.keys, index + 1, leaf.keys, index, moved);
+        System.arraycopy(leaf.values, index + 1, leaf.values, index, moved);
+        leaf.count--;
+        leaf.keys[leaf.count] = null;
+        leaf.values[leaf.count] = null;
+        size--;
+        return removed;
+    }
+
+    // compute* / merge result: null removes the key, like every Map
+    private V store(K key, V value) {
+        if (value == null) removeLocked(key);
+        else putLocked(key, value);
+        return value;
+    }
+
+    private Split insert(Node node, K key, V value) {
+        if (node instanceof Leaf leaf) {
+            int index = search(leaf, key);
+            if (index >= 0) {
+                previousValue = leaf.values[index];
+                leaf.values[index] = value;
+                return null;
+            }
+            index = -index - 1;
+            int moved = leaf.count - index;
+            System.arraycopy(leaf.keys, index, leaf.keys, index + 1, moved);
+            System.arraycopy(leaf.values, index, leaf.values, index + 1, moved);
+            leaf.keys[index] = key;
+            leaf.values[index] = value;
+            leaf.count++;
+            size++;
+            return leaf.count > ORDER ? splitLeaf(leaf) : null;
+        }
+
+        Inner inner = (Inner) node;
+        int child = childIndex(inner, key);
+        Split split = insert(inner.children[child], key, value);
+        if (split == null) return null;
+        int moved = inner.count - child;
+        System.arraycopy(inner.keys, child, inner.keys, child + 1, moved);
+        System.arraycopy(inner.children, child + 1, inner.children, child + 2, moved);
+        inner.keys[child] = split.separator();
+        inner.children[child + 1] = split.right();
+        inner.count++;
+        return inner.count > ORDER ? splitInner(inner) : null;
+    }
+
+    private Split splitLeaf(Leaf leaf) {
+        Leaf right = new Leaf();
+        int middle = leaf.count / 2;
+        int moved = leaf.count - middle;
+        System.arraycopy(leaf.keys, middle, right.keys, 0, moved);
+        System.arraycopy(leaf.values, middle, right.values, 0, moved);
+        right.count = moved;
+        right.next = leaf.next;
+        leaf.next = right;
+        for (int i = middle; i < leaf.count; i++) {
+            leaf.keys[i] = null;
+            leaf.values[i] = null;
+        }
+        leaf.count = middle;
+        return new Split(right.keys[0], right);
+    }
+
+    private Split splitInner(Inner inner) {
+        Inner right = new Inner();
+        int middle = inner.count / 2;
+        Object separator = inner.keys[middle]; // Moves up, kept in neither half
+        int movedKeys = inner.count - middle - 1;
+        System.arraycopy(inner.keys, middle + 1, right.keys, 0, movedKeys);
+        System.arraycopy(inner.children, middle + 1, right.children, 0, movedKeys + 1);
+        right.count = movedKeys;
+        for (int i = middle; i < inner.count; i++) {
+            inner.keys[i] = null;
+            inner.children[i + 1] = null;
+        }
+        inner.count = middle;
+        return new Split(separator, right);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(Object a, Object b) {
+        return comparator.compare((K) a, (K) b);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T castValue(Object value) {
+        return (T) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K castKey(Object key) {
+        return (K) key;
+    }
+
+    // Weakly consistent iterator built on the same validated batches as scan()
+    private final class BatchIterator implements Iterator<Entry<K, V>> {
+        private final Object[] keys = new Object[BATCH];
+        private final Object[] values = new Object[BATCH];
+        private int count;
+        private int position;
+        private boolean lastBatch;
+        private Object lastKey;
+
+        BatchIterator() {
+            count = readBatch(null, true, null, keys, values);
+            lastBatch = count < BATCH;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (position < count) return true;
+            if (lastBatch) return false;
+            count = readBatch(keys[count - 1], false, null, keys, values);
+            position = 0;
+            lastBatch = count < BATCH;
+            return count > 0;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            lastKey = keys[position];
+            return new SimpleImmutableEntry<>(castKey(keys[position]), castValue(values[position++]));
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) throw new IllegalStateException();
+            ConcurrentBPlusTreeMap.this.remove(lastKey);
+            lastKey = null;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package collectionExample;
+
+import java.util.Arrays;
+
+// DenseIdMap (EnumMap idea for integer IDs: the key IS the array index):
+// - Non-negative int keys, values stored in pages of 4096 slots allocated on first write
+//   (a few sparse high IDs do not allocate one giant array)
+// - get / put / remove are two array loads: no hashing, no boxing of the key, no Entry objects
+// - No null values (null = absent), not thread-safe, iteration in ascending key order
+// Pros: Much faster and smaller than HashMap<Integer, V> when IDs are dense (user IDs, row IDs, segment IDs)
+// Cons: Memory follows the key range, not the number of entries – keep it for IDs from a sequence
+public class DenseIdMap<V> {
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private Object[][] pages = new Object[16][];
+    private int[] pageCounts = new int[16]; // Entries per page, a page is released when it empties
+    private int size;
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(int id, V value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int id) {
+        if (id < 0) return null;
+        int page = id >>> PAGE_BITS;
+        if (page >= pages.length) return null;
+        Object[] slots = pages[page];
+        return slots == null ? null : (V) slots[id & PAGE_MASK];
+    }
+
+    public V getOrDefault(int id, V defaultValue) {
+        V value = get(id);
+        return value != null ? value : defaultValue;
+    }
+
+    public boolean containsKey(int id) {
+        return get(id) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(int id, V value) {
+        if (id < 0) throw new IllegalArgumentException("Negative id: " + id);
+        if (value == null) throw new NullPointerException();
+        int page = id >>> PAGE_BITS;
+        if (page >= pages.length) {
+            int capacity = Math.max(page + 1, pages.length * 2);
+            pages = Arrays.copyOf(pages, capacity);
+            pageCounts = Arrays.copyOf(pageCounts, capacity);
+        }
+        Object[] slots = pages[page];
+        if (slots == null) slots = pages[page] = new Object[PAGE_SIZE];
+        V previous = (V) slots[id & PAGE_MASK];
+        slots[id & PAGE_MASK] = value;
+        if (previous == null) {
+            pageCounts[page]++;
+            size++;
+        }
+        return previous;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int id) {
+        if (id < 0) return null;
+        int page = id >>> PAGE_BITS;
+        if (page >= pages.length || pages[page] == null) return null;
+        V previous = (V) pages[page][id & PAGE_MASK];
+        if (previous == null) return null;
+        pages[page][id & PAGE_MASK] = null;
+        size--;
+        if (--pageCounts[page] == 0) pages[page] = null;
+        return previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(pages, null);
+        Arrays.fill(pageCounts, 0);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        for (int page = 0; page < pages.length; page++) {
+            Object[] slots = pages[page];
+            if (slots == null) continue;
+            int base = page << PAGE_BITS;
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                if (slots[i] != null) action.accept(base | i, (V) slots[i]);
+            }
+        }
+    }
+
+    // Key set as a compressed bitmap, ready for and / or / andNot with other ID sets
+    public CompressedIntSet ids() {
+        CompressedIntSet ids = new CompressedIntSet();
+        forEach((id, value) -> ids.add(id)); // Ascending order: every add hits the last container
+        return ids;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((id, value) -> {
+            if (builder.length() > 1) builder.append(", ");
+            builder.append(id).append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+}
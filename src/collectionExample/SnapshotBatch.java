@@ -0,0 +1,65 @@
+package collectionExample;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Write path shared by SnapshotMap and SnapshotSet (S: immutable snapshot, M: mutable working copy):
+// - The writer holding the write lock drains every queued change and applies them all to ONE working copy
+// - A change that throws is handed back to the thread that submitted it; the others are still published
+//   (rare path: the batch is replayed one change at a time, so a mutation may run twice – no side effects)
+final class SnapshotBatch {
+    private SnapshotBatch() {
+    }
+
+    static final class Change<M> {
+        private final Consumer<? super M> mutation;
+        private boolean done;      // Guarded by the owner's write lock
+        private Throwable failure; // Guarded by the owner's write lock
+
+        Change(Consumer<? super M> mutation) {
+            this.mutation = mutation;
+        }
+
+        // Call while holding the write lock
+        boolean isDone() {
+            return done;
+        }
+
+        // Call after the write lock was acquired once: the drain happened-before
+        void rethrowFailure() {
+            if (failure instanceof RuntimeException e) throw e;
+            if (failure instanceof Error e) throw e;
+            if (failure != null) throw new IllegalStateException("Snapshot update failed", failure);
+        }
+    }
+
+    // Call while holding the write lock; returns the snapshot to publish
+    static <S, M> S drain(S current, Queue<Change<M>> pending, Function<S, M> thaw, Function<M, S> freeze) {
+        List<Change<M>> batch = new ArrayList<>();
+        Change<M> change;
+        while ((change = pending.poll()) != null) batch.add(change);
+
+        S published;
+        try {
+            M next = thaw.apply(current);
+            for (Change<M> c : batch) c.mutation.accept(next);
+            published = freeze.apply(next); // Rejects a null slipped in by an update() mutation
+        } catch (Throwable batchFailure) {
+            published = current;
+            for (Change<M> c : batch) {
+                try {
+                    M next = thaw.apply(published);
+                    c.mutation.accept(next);
+                    published = freeze.apply(next);
+                } catch (Throwable failure) {
+                    c.failure = failure;
+                }
+            }
+        }
+        for (Change<M> c : batch) c.done = true;
+        return published;
+    }
+}
@@ -0,0 +1,79 @@
+package collectionExample;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+// SnapshotMap (read-mostly copy-on-write map):
+// - Readers get an immutable hashed snapshot (Map.copyOf) through one volatile read: O(1), lock-free, no CAS
+// - Writers queue their change; whichever writer holds the write lock drains the whole queue and publishes
+//   ONE new snapshot for all of them (writes arriving together are coalesced into a single copy)
+// - A write is visible to every reader as soon as the writing method returns
+// - No null keys or values
+// Pros: Reads as cheap as a plain HashMap lookup, safe to iterate a snapshot forever
+// Cons: Every published write copies the map (O(n)) – for tables written a few times per minute, not per request
+public class SnapshotMap<K, V> {
+    private volatile Map<K, V> snapshot;
+    private final ConcurrentLinkedQueue<SnapshotBatch.Change<Map<K, V>>> pending = new ConcurrentLinkedQueue<>();
+    private final Object writeLock = new Object();
+
+    public SnapshotMap() {
+        this.snapshot = Map.of();
+    }
+
+    public SnapshotMap(Map<? extends K, ? extends V> initial) {
+        this.snapshot = Map.copyOf(initial);
+    }
+
+    public V get(Object key) {
+        return snapshot.get(key);
+    }
+
+    public V getOrDefault(Object key, V defaultValue) {
+        return snapshot.getOrDefault(key, defaultValue);
+    }
+
+    public boolean containsKey(Object key) {
+        return snapshot.containsKey(key);
+    }
+
+    public int size() {
+        return snapshot.size();
+    }
+
+    // Immutable, consistent view: read several entries from the same version
+    public Map<K, V> snapshot() {
+        return snapshot;
+    }
+
+    public void put(K key, V value) {
+        if (key == null || value == null) throw new NullPointerException();
+        if (value.equals(snapshot.get(key))) return; // Nothing to publish
+        update(map -> map.put(key, value));
+    }
+
+    public void remove(K key) {
+        if (!snapshot.containsKey(key)) return;
+        update(map -> map.remove(key));
+    }
+
+    public void putAll(Map<? extends K, ? extends V> entries) {
+        Map<K, V> copy = Map.copyOf(entries); // Nulls rejected here, on the caller's thread, not in the batch
+        update(map -> map.putAll(copy));
+    }
+
+    // Applies several changes as one published version (e.g. reload of a whole routing table).
+    // The mutation may run on another writer's thread, or twice: keep it short and free of side effects.
+    // If it throws (or leaves a null behind), the exception is rethrown here and nothing of it is published.
+    public void update(Consumer<Map<K, V>> mutation) {
+        SnapshotBatch.Change<Map<K, V>> change = new SnapshotBatch.Change<>(mutation);
+        pending.add(change);
+        synchronized (writeLock) {
+            if (!change.isDone()) { // Otherwise another writer already published it
+                snapshot = SnapshotBatch.drain(snapshot, pending, HashMap::new, Map::copyOf);
+            }
+        }
+        change.rethrowFailure();
+    }
+}
@@ -0,0 +1,69 @@
+package collectionExample;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+// SnapshotSet (read-mostly alternative to CopyOnWriteArraySet):
+// - Same publication scheme as SnapshotMap: immutable hashed snapshot (Set.copyOf) behind a volatile reference,
+//   queued writes coalesced into one copy by whichever writer holds the write lock
+// - contains() is O(1) (CopyOnWriteArraySet scans its array: O(n))
+// - No null elements, iteration order unspecified (CopyOnWriteArraySet keeps insertion order)
+// Pros: Lock-free O(1) reads, snapshots are safe to iterate while writers publish new versions
+// Cons: Every published write copies the set (O(n))
+public class SnapshotSet<E> {
+    private volatile Set<E> snapshot;
+    private final ConcurrentLinkedQueue<SnapshotBatch.Change<Set<E>>> pending = new ConcurrentLinkedQueue<>();
+    private final Object writeLock = new Object();
+
+    public SnapshotSet() {
+        this.snapshot = Set.of();
+    }
+
+    public SnapshotSet(Collection<? extends E> initial) {
+        this.snapshot = Set.copyOf(initial);
+    }
+
+    public boolean contains(Object element) {
+        return snapshot.contains(element);
+    }
+
+    public int size() {
+        return snapshot.size();
+    }
+
+    public Set<E> snapshot() {
+        return snapshot;
+    }
+
+    public void add(E element) {
+        if (element == null) throw new NullPointerException();
+        if (snapshot.contains(element)) return; // Nothing to publish
+        update(set -> set.add(element));
+    }
+
+    public void remove(E element) {
+        if (!snapshot.contains(element)) return;
+        update(set -> set.remove(element));
+    }
+
+    public void addAll(Collection<? extends E> elements) {
+        Set<E> copy = Set.copyOf(elements); // Nulls rejected here, on the caller's thread, not in the batch
+        update(set -> set.addAll(copy));
+    }
+
+    // Several changes, one published version. May run on another writer's thread, or twice: no side effects.
+    // A failure is rethrown here and nothing of that mutation is published (see SnapshotBatch).
+    public void update(Consumer<Set<E>> mutation) {
+        SnapshotBatch.Change<Set<E>> change = new SnapshotBatch.Change<>(mutation);
+        pending.add(change);
+        synchronized (writeLock) {
+            if (!change.isDone()) { // Otherwise another writer already published it
+                snapshot = SnapshotBatch.drain(snapshot, pending, HashSet::new, Set::copyOf);
+            }
+        }
+        change.rethrowFailure();
+    }
+}
@@ -0,0 +1,86 @@
+package concurrencyExample;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+// AdmissionExecutor (an Executor that sheds load at submission instead of letting its queue grow):
+// - Admission: the TokenBucket first (rate), then the ConcurrencyLimiter (in flight: queued + running);
+//   either may be null
+// - tryExecute(task) returns false when refused – cheap, for the hot path; execute(task) throws
+//   RejectedExecutionException as the Executor contract says (and pays for the stack trace)
+// - The limiter's ticket covers queue wait + run time (what the caller sees) and is released when the task ends:
+//   success normally, dropped() if the task throws, ignore() if the delegate itself refuses it
+// - Refusals are counted by cause: rate, limit, or the delegate (shut down, or its own bounded queue full)
+// - The delegate may keep an unbounded queue: the limiter bounds what can be in it
+// Pros: Overload turns into fast, explicit refusals (retry elsewhere, degrade) instead of every request timing out
+// Cons: Refused work is gone – the caller must handle it; the limits are per process, not per cluster
+public final class AdmissionExecutor implements Executor {
+    private final Executor delegate;
+    private final TokenBucket rate;
+    private final ConcurrencyLimiter limiter;
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejectedByRate = new LongAdder();
+    private final LongAdder rejectedByLimit = new LongAdder();
+    private final LongAdder rejectedByExecutor = new LongAdder();
+
+    public AdmissionExecutor(Executor delegate, TokenBucket rate, ConcurrencyLimiter limiter) {
+        this.delegate = delegate;
+        this.rate = rate;
+        this.limiter = limiter;
+    }
+
+    public boolean tryExecute(Runnable task) {
+        if (rate != null && !rate.tryAcquire()) {
+            rejectedByRate.increment();
+            return false;
+        }
+        ConcurrencyLimiter.Ticket ticket = null;
+        if (limiter != null) {
+            ticket = limiter.tryAcquire();
+            if (ticket == null) {
+                rejectedByLimit.increment();
+                return false;
+            }
+        }
+        ConcurrencyLimiter.Ticket admission = ticket;
+        try {
+            delegate.execute(admission == null ? task : () -> {
+                try {
+                    task.run();
+                    admission.success();
+                } catch (RuntimeException | Error e) {
+                    admission.dropped();
+                    throw e;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (admission != null) admission.ignore();
+            rejectedByExecutor.increment();
+            return false;
+        }
+        admitted.increment();
+        return true;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!tryExecute(task)) throw new RejectedExecutionException("Overloaded: task refused at admission");
+    }
+
+    public long admitted() {
+        return admitted.sum();
+    }
+
+    public long rejectedByRate() {
+        return rejectedByRate.sum();
+    }
+
+    public long rejectedByLimit() {
+        return rejectedByLimit.sum();
+    }
+
+    public long rejectedByExecutor() {
+        return rejectedByExecutor.sum();
+    }
+}
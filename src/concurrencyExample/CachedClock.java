@@ -0,0 +1,131 @@
+package concurrencyExample;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.locks.LockSupport;
+
+// CachedClock (read the time without asking the OS or allocating):
+// - One daemon thread refreshes the time every tick (default 1 ms) and publishes it as ONE immutable Tick through a
+//   volatile field: millis, micros, nanos and the ISO string always come from the same tick
+// - currentTimeMillis() / currentTimeMicros() / coarseNanoTime(): one volatile load each
+// - tick(): several of those values at once, e.g. a log line's timestamp string and its millis for sorting
+// - isoTimestamp(): ISO-8601 UTC string ("2026-10-18T10:15:30.123Z") formatted ONCE per tick, shared by every log line
+// - asClock(): java.time.Clock view for code that takes a Clock (Instant.now(clock), LocalDateTime.now(clock)...)
+// - nanoTime() / elapsedNanos(): plain System.nanoTime() for measuring durations (never the wall clock)
+// Pros: Timestamping a log line or a metric costs a field read, no Date / Instant / String allocated per call
+// Cons: Accurate to one tick only, one extra thread waking up (and one Tick allocated) every tick – not for measuring
+//       short durations
+public final class CachedClock implements AutoCloseable {
+    // Fixed width (ISO_INSTANT drops ".000"), so log columns stay aligned
+    public static final DateTimeFormatter ISO = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSX")
+            .withZone(ZoneOffset.UTC);
+
+    private final long tickNanos;
+    private final Thread ticker;
+    private volatile boolean running = true;
+
+    private volatile Tick tick;
+
+    public record Tick(long millis, long micros, long coarseNanos, String iso) {
+    }
+
+    private CachedClock(long tickNanos) {
+        this.tickNanos = tickNanos;
+        refresh();
+        this.ticker = new Thread(this::tickLoop, "cached-clock");
+        ticker.setDaemon(true); // Never keeps the JVM alive
+        ticker.start();
+    }
+
+    public static CachedClock start() {
+        return start(1_000_000);
+    }
+
+    public static CachedClock start(long tickNanos) {
+        if (tickNanos <= 0) throw new IllegalArgumentException("tickNanos must be positive");
+        return new CachedClock(tickNanos);
+    }
+
+    public Tick tick() {
+        return tick;
+    }
+
+    public long currentTimeMillis() {
+        return tick.millis();
+    }
+
+    // Microsecond units, tick accuracy
+    public long currentTimeMicros() {
+        return tick.micros();
+    }
+
+    // Monotonic, tick accuracy: cheap "roughly now" for timeouts and TTL checks
+    public long coarseNanoTime() {
+        return tick.coarseNanos();
+    }
+
+    public String isoTimestamp() {
+        return tick.iso();
+    }
+
+    public Clock asClock() {
+        return new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return ZoneOffset.UTC.equals(zone) ? this : Clock.system(zone); // Other zones are not cached
+            }
+
+            @Override
+            public long millis() {
+                return tick.millis();
+            }
+
+            @Override
+            public Instant instant() {
+                long now = tick.micros();
+                return Instant.ofEpochSecond(now / 1_000_000, (now % 1_000_000) * 1_000);
+            }
+        };
+    }
+
+    // Precise monotonic time for durations (wall-clock time can jump with NTP)
+    public static long nanoTime() {
+        return System.nanoTime();
+    }
+
+    public static long elapsedNanos(long startNanos) {
+        return System.nanoTime() - startNanos;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+
+    private void tickLoop() {
+        while (running) {
+            LockSupport.parkNanos(tickNanos);
+            refresh();
+        }
+    }
+
+    // Only the ticker thread (and the constructor) writes 'tick': no lost updates
+    private void refresh() {
+        Instant now = Clock.systemUTC().instant();
+        long nowMillis = now.toEpochMilli();
+        Tick previous = tick;
+        String iso = previous != null && previous.millis() == nowMillis
+                ? previous.iso() // Reformat only when the visible value changes
+                : ISO.format(Instant.ofEpochMilli(nowMillis));
+        tick = new Tick(nowMillis, now.getEpochSecond() * 1_000_000 + now.getNano() / 1_000, System.nanoTime(), iso);
+    }
+}
@@ -0,0 +1,168 @@
+package concurrencyExample;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+// CombiningAccumulator (testSynchronizedUsage's "accumulate locally, lock once" for many threads):
+// - record(value) updates a per-thread buffer: no lock, no CAS, no shared cache line
+// - Every 'flushEvery' records (or on flush()) the buffer is merged into the shared aggregate under ONE lock
+//   and reset, so the lock is taken once per batch instead of once per value
+// - read() sees everything flushed so far: at most 'flushEvery - 1' values per thread are still in flight,
+//   call flush() at the end of a request / batch / thread to publish the rest
+// - Works for any mergeable aggregate: sum, min/max, histograms (see Stats)
+// Pros: Per-op cost of a local field update, lock traffic divided by flushEvery
+// Cons: Reads are slightly stale, buffers of threads that die before flush() are lost
+public class CombiningAccumulator<B, S> {
+    // How to fill a buffer and fold it into the shared aggregate
+    public interface Combiner<B, S> {
+        B newBuffer();
+
+        void record(B buffer, long value);
+
+        void merge(S shared, B buffer); // Called under the lock
+
+        void reset(B buffer);
+    }
+
+    private final Combiner<B, S> combiner;
+    private final S shared;
+    private final int flushEvery;
+    private final Object lock = new Object();
+    private final ThreadLocal<Slot<B>> slots;
+    private long flushes; // Guarded by lock
+
+    private static final class Slot<B> {
+        final B buffer;
+        int pending;
+
+        Slot(B buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    public CombiningAccumulator(Combiner<B, S> combiner, S shared, int flushEvery) {
+        if (flushEvery <= 0) throw new IllegalArgumentException("flushEvery must be positive");
+        this.combiner = combiner;
+        this.shared = shared;
+        this.flushEvery = flushEvery;
+        this.slots = ThreadLocal.withInitial(() -> new Slot<>(combiner.newBuffer()));
+    }
+
+    // count / sum / min / max / power-of-two histogram, the usual per-request statistics
+    public static CombiningAccumulator<Stats, Stats> stats(int flushEvery) {
+        return new CombiningAccumulator<>(new Combiner<>() {
+            public Stats newBuffer() {
+                return new Stats();
+            }
+
+            public void record(Stats buffer, long value) {
+                buffer.record(value);
+            }
+
+            public void merge(Stats shared, Stats buffer) {
+                shared.merge(buffer);
+            }
+
+            public void reset(Stats buffer) {
+                buffer.reset();
+            }
+        }, new Stats(), flushEvery);
+    }
+
+    public void record(long value) {
+        Slot<B> slot = slots.get();
+        combiner.record(slot.buffer, value);
+        if (++slot.pending >= flushEvery) flush(slot);
+    }
+
+    // Publishes the calling thread's buffer
+    public void flush() {
+        Slot<B> slot = slots.get();
+        if (slot.pending > 0) flush(slot);
+    }
+
+    // Reads the shared aggregate under the lock (do not keep a reference to it)
+    public <R> R read(Function<? super S, ? extends R> reader) {
+        synchronized (lock) {
+            return reader.apply(shared);
+        }
+    }
+
+    public long flushes() {
+        synchronized (lock) {
+            return flushes;
+        }
+    }
+
+    private void flush(Slot<B> slot) {
+        synchronized (lock) {
+            combiner.merge(shared, slot.buffer);
+            flushes++;
+        }
+        combiner.reset(slot.buffer);
+        slot.pending = 0;
+    }
+
+    // Mergeable statistics: also usable on its own behind a lock (per-op locking baseline)
+    public static final class Stats {
+        private long count;
+        private long sum;
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+        private final long[] histogram = new long[65]; // Bucket b: values in [2^(b-1), 2^b), bucket 0: value <= 0
+
+        public void record(long value) {
+            count++;
+            sum += value;
+            if (value < min) min = value;
+            if (value > max) max = value;
+            histogram[value <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(value)]++;
+        }
+
+        public void merge(Stats other) {
+            count += other.count;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            for (int i = 0; i < histogram.length; i++) histogram[i] += other.histogram[i];
+        }
+
+        public void reset() {
+            count = 0;
+            sum = 0;
+            min = Long.MAX_VALUE;
+            max = Long.MIN_VALUE;
+            Arrays.fill(histogram, 0);
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public long sum() {
+            return sum;
+        }
+
+        public long min() {
+            return min;
+        }
+
+        public long max() {
+            return max;
+        }
+
+        public double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        // Number of values in [2^(bucket-1), 2^bucket)
+        public long bucket(int bucket) {
+            return histogram[bucket];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Stats[count=%d, mean=%.1f, min=%d, max=%d]", count, mean(), min, max);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package concurrencyExample;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// ConcurrencyLimiter (admission by requests in flight, with a limit that adapts to the observed latency):
+// - tryAcquire(): a Ticket while fewer than limit() requests are in flight, null otherwise (one CAS, no queue)
+// - Every Ticket ends with success(), dropped() (timeout, overload error) or ignore() (not a latency sample)
+// - The new limit comes from an Algorithm fed with each sample's latency and in-flight count:
+//   - aimd(...)     : +1 per sample while full and fast, x backoff on a drop or a latency above the timeout –
+//                     TCP Reno-style, simple, oscillates around the point where latency crosses the timeout
+//   - gradient(...) : limit x (no-load latency x tolerance / recent latency) + a small queue allowance – shrinks
+//                     as soon as latency rises above the baseline, before any timeout (Netflix Gradient / Vegas)
+// - Little's law: in flight = throughput x latency, so capping in-flight requests caps the queueing delay
+//   whatever the arrival rate, and the limit follows the service when it slows down
+// - Limit updates are serialized (synchronized, one short method per completion), admission is lock-free
+// Pros: Protects latency without knowing the capacity in advance, unlike a fixed rate (TokenBucket)
+// Cons: Needs completions to learn, a limit far too high at startup lets the first burst queue
+public final class ConcurrencyLimiter {
+    // Computes the next limit from one completed request; called under the limiter's lock
+    public interface Algorithm {
+        double update(double limit, long latencyNanos, int inflight, boolean dropped);
+    }
+
+    public final class Ticket {
+        private final long start = System.nanoTime();
+        private final int inflight;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Ticket(int inflight) {
+            this.inflight = inflight;
+        }
+
+        public void success() {
+            release(false);
+        }
+
+        public void dropped() {
+            release(true);
+        }
+
+        public void ignore() {
+            if (finish()) inflightCount.decrementAndGet();
+        }
+
+        private void release(boolean dropped) {
+            if (!finish()) return;
+            long latency = System.nanoTime() - start;
+            inflightCount.decrementAndGet();
+            onSample(latency, inflight, dropped);
+        }
+
+        private boolean finish() { // A ticket counts once, even if released twice from two threads
+            return done.compareAndSet(false, true);
+        }
+    }
+
+    private final Algorithm algorithm;
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inflightCount = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+    private double exactLimit; // Guarded by this
+
+    public ConcurrencyLimiter(Algorithm algorithm, int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("1 <= min <= initial <= max required: " + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+        this.algorithm = algorithm;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.exactLimit = initialLimit;
+    }
+
+    // Fixed limit, for comparison
+    public static Algorithm fixed() {
+        return (limit, latencyNanos, inflight, dropped) -> limit;
+    }
+
+    // backoff: multiplier on a drop (e.g. 0.9); latencies above 'timeout' count as drops
+    public static Algorithm aimd(double backoff, Duration timeout) {
+        long timeoutNanos = timeout.toNanos();
+        return (limit, latencyNanos, inflight, dropped) -> {
+            if (dropped || latencyNanos > timeoutNanos) return limit * backoff;
+            return inflight * 2 >= limit ? limit + 1 : limit; // Only grow when the limit is actually used
+        };
+    }
+
+    // tolerance: latency ratio accepted before shrinking (e.g. 1.5), queueSize: allowance added per update
+    public static Algorithm gradient(double tolerance, double queueSize) {
+        return new Algorithm() {
+            private static final double SMOOTHING = 0.2;
+            private static final double SHORT_WINDOW = 10;
+            private static final double BASELINE_DRIFT = 2_000; // Samples for the baseline to follow a slower service
+            private double baseline = -1;
+            private double shortLatency;
+
+            @Override
+            public double update(double limit, long latencyNanos, int inflight, boolean dropped) {
+                if (baseline < 0) baseline = shortLatency = latencyNanos;
+                shortLatency += (latencyNanos - shortLatency) / SHORT_WINDOW;
+                // No-load latency: the minimum seen, creeping up slowly (an average would learn the queueing delay)
+                baseline = latencyNanos < baseline ? latencyNanos : baseline + (latencyNanos - baseline) / BASELINE_DRIFT;
+                if (dropped) return limit * 0.9;
+                if (inflight * 2 < limit) return limit; // Not using the limit: latency says nothing about it
+                double gradient = Math.max(0.5, Math.min(1.0, tolerance * baseline / shortLatency));
+                double target = limit * gradient + queueSize;
+                return limit * (1 - SMOOTHING) + target * SMOOTHING;
+            }
+        };
+    }
+
+    public Ticket tryAcquire() {
+        while (true) {
+            int current = inflightCount.get();
+            if (current >= limit) {
+                rejected.increment();
+                return null;
+            }
+            if (inflightCount.compareAndSet(current, current + 1)) return new Ticket(current + 1);
+        }
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inflight() {
+        return inflightCount.get();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    private synchronized void onSample(long latencyNanos, int inflight, boolean dropped) {
+        exactLimit = Math.max(minLimit, Math.min(maxLimit, algorithm.update(exactLimit, latencyNanos, inflight, dropped)));
+        limit = (int) exactLimit;
+    }
+}
@@ -0,0 +1,104 @@
+package concurrencyExample;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.LockSupport;
+
+// HandoffCell<T> (a queue of capacity one between two threads: new config, next batch, a reply...):
+// - offer(): CAS null -> value with RELEASE semantics (the value's fields are visible to the taker)
+// - poll():  ACQUIRE load, then CAS value -> null
+// - put() / take(): wait for room / a value with a WaitStrategy; the other side unparks the waiter
+// - offer / poll are safe for any number of threads; blocking put / take expect ONE waiting producer and ONE
+//   waiting consumer (extra waiters still wake up, after a bounded nap)
+// - No null values (null = empty)
+// Pros: No lock, no node allocation, the ordering cost is one release CAS + one acquire load per handoff
+// Cons: Capacity one: a fast producer waits for a slow consumer (that is the point of a handoff)
+public final class HandoffCell<T> {
+    private static final VarHandle VALUE;
+    private static final long NO_TIMEOUT = Long.MAX_VALUE / 2;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(HandoffCell.class, "value", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @SuppressWarnings("unused") // Accessed through VALUE
+    private Object value;
+    private volatile Thread waitingConsumer;
+    private volatile Thread waitingProducer;
+
+    public boolean offer(T item) {
+        if (item == null) throw new NullPointerException();
+        if (VALUE.compareAndExchangeRelease(this, null, item) != null) return false;
+        Thread consumer = waitingConsumer;
+        if (consumer != null) LockSupport.unpark(consumer);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        Object current = VALUE.getAcquire(this);
+        if (current == null || !VALUE.compareAndSet(this, current, null)) return null;
+        Thread producer = waitingProducer;
+        if (producer != null) LockSupport.unpark(producer);
+        return (T) current;
+    }
+
+    public boolean isEmpty() {
+        return VALUE.getAcquire(this) == null;
+    }
+
+    public void put(T item, WaitStrategy strategy) throws InterruptedException {
+        if (!put(item, strategy, NO_TIMEOUT)) {
+            Thread.interrupted(); // InterruptedException convention: the status is cleared when thrown
+            throw new InterruptedException();
+        }
+    }
+
+    // Returns false on timeout or interrupt
+    public boolean put(T item, WaitStrategy strategy, long timeoutNanos) {
+        if (offer(item)) return true;
+        waitingProducer = Thread.currentThread();
+        try {
+            long deadline = System.nanoTime() + timeoutNanos;
+            while (!offer(item)) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || Thread.currentThread().isInterrupted()) return false;
+                strategy.await(this::isEmpty, remaining);
+            }
+            return true;
+        } finally {
+            waitingProducer = null;
+        }
+    }
+
+    public T take(WaitStrategy strategy) throws InterruptedException {
+        T item = take(strategy, NO_TIMEOUT);
+        if (item == null) {
+            Thread.interrupted();
+            throw new InterruptedException();
+        }
+        return item;
+    }
+
+    // null on timeout or interrupt
+    public T take(WaitStrategy strategy, long timeoutNanos) {
+        T item = poll();
+        if (item != null) return item;
+        waitingConsumer = Thread.currentThread();
+        try {
+            long deadline = System.nanoTime() + timeoutNanos;
+            while ((item = poll()) == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || Thread.currentThread().isInterrupted()) return null;
+                strategy.await(() -> !isEmpty(), remaining);
+            }
+            return item;
+        } finally {
+            waitingConsumer = null;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package concurrencyExample;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+// Lazy<T> (thread-safe lazy initialization, the supplier runs at most once):
+// - volatileDcl(): classic double-checked locking on a volatile field (every read is a volatile load)
+// - acquireRelease(): same idea with VarHandle getAcquire / setRelease (weaker, cheaper fences on ARM/POWER)
+// - stable(): JDK's own lazy constant (StableValue / LazyConstant, preview in JDK 25+) when the running JDK has it,
+//   falls back to acquireRelease() otherwise. No constant folding through this wrapper: the JDK supplier sits in a
+//   captured field, which the JIT does not trust as final – for that, hold the JDK constant in a static final field
+// - For a static singleton, prefer the holder-class idiom (see LazyInitExamples): the JVM's class initialization
+//   gives laziness and thread safety for free, and the field is a real constant
+// - The supplier must not return null; if it throws, the next get() retries
+// Pros: Expensive singletons are built on first use (faster startup), never twice
+// Cons: A small check on every get(), the first callers block while the value is computed
+public interface Lazy<T> extends Supplier<T> {
+    boolean isInitialized();
+
+    static <T> Lazy<T> volatileDcl(Supplier<? extends T> supplier) {
+        return new VolatileLazy<>(supplier);
+    }
+
+    static <T> Lazy<T> acquireRelease(Supplier<? extends T> supplier) {
+        return new AcquireReleaseLazy<>(supplier);
+    }
+
+    static <T> Lazy<T> stable(Supplier<? extends T> supplier) {
+        AtomicBoolean initialized = new AtomicBoolean();
+        Supplier<T> tracked = () -> {
+            T value = Objects.requireNonNull(supplier.get(), "Lazy supplier returned null");
+            initialized.set(true);
+            return value;
+        };
+        Supplier<T> jdkConstant = JdkLazyConstant.wrap(tracked);
+        if (jdkConstant == null) return acquireRelease(supplier);
+        return new Lazy<>() {
+            @Override
+            public T get() {
+                return jdkConstant.get(); // Nothing else on the read path
+            }
+
+            @Override
+            public boolean isInitialized() {
+                return initialized.get();
+            }
+        };
+    }
+
+    // true when stable() is backed by the JDK (JDK 25+ with --enable-preview)
+    static boolean jdkStableAvailable() {
+        return JdkLazyConstant.wrap(() -> Boolean.TRUE) != null;
+    }
+
+    final class VolatileLazy<T> implements Lazy<T> {
+        private Supplier<? extends T> supplier; // Dropped once used: whatever it captured can be collected
+        private volatile T value;
+
+        private VolatileLazy(Supplier<? extends T> supplier) {
+            this.supplier = Objects.requireNonNull(supplier);
+        }
+
+        @Override
+        public T get() {
+            T result = value; // One volatile read on the fast path
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        result = Objects.requireNonNull(supplier.get(), "Lazy supplier returned null");
+                        value = result;
+                        supplier = null;
+                    }
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public boolean isInitialized() {
+            return value != null;
+        }
+    }
+
+    final class AcquireReleaseLazy<T> implements Lazy<T> {
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(AcquireReleaseLazy.class, "value", Object.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private Supplier<? extends T> supplier;
+        private Object value; // Accessed through VALUE only
+
+        private AcquireReleaseLazy(Supplier<? extends T> supplier) {
+            this.supplier = Objects.requireNonNull(supplier);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get() {
+            // getAcquire pairs with setRelease: a non-null value comes with its fully built object graph
+            Object result = VALUE.getAcquire(this);
+            if (result == null) {
+                synchronized (this) {
+                    result = VALUE.getAcquire(this);
+                    if (result == null) {
+                        result = Objects.requireNonNull(supplier.get(), "Lazy supplier returned null");
+                        VALUE.setRelease(this, result);
+                        supplier = null;
+                    }
+                }
+            }
+            return (T) result;
+        }
+
+        @Override
+        public boolean isInitialized() {
+            return VALUE.getAcquire(this) != null;
+        }
+    }
+
+    // Looks the JDK lazy-constant API up reflectively so this code still compiles and runs on JDK 21–24
+    final class JdkLazyConstant {
+        private JdkLazyConstant() {
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> Supplier<T> wrap(Supplier<? extends T> supplier) {
+            try {
+                // JDK 26+: LazyConstant.of(Supplier)
+                Object constant = Class.forName("java.lang.LazyConstant").getMethod("of", Supplier.class).invoke(null, supplier);
+                if (constant instanceof Supplier<?> jdkSupplier) return (Supplier<T>) jdkSupplier;
+            } catch (ReflectiveOperationException | LinkageError | RuntimeException ignored) {
+                // Not available (or preview features disabled)
+            }
+            try {
+                // JDK 25: StableValue.supplier(Supplier)
+                Object constant = Class.forName("java.lang.StableValue").getMethod("supplier", Supplier.class).invoke(null, supplier);
+                if (constant instanceof Supplier<?> jdkSupplier) return (Supplier<T>) jdkSupplier;
+            } catch (ReflectiveOperationException | LinkageError | RuntimeException ignored) {
+                // Not available (or preview features disabled)
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package concurrencyExample;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Memoizer (cache the results of an expensive PURE function):
+// - First caller for a key computes, concurrent callers for the same key wait for that result
+//   (never computed twice), callers for other keys are not blocked
+// - The computation runs OUTSIDE the map's locks: unlike ConcurrentHashMap.computeIfAbsent, a slow or recursive
+//   function (fib(n) calling fib(n - 1)) neither blocks a hash bin nor throws "Recursive update"
+// - A failed computation is not cached: the next call retries
+// - Unbounded: only for a bounded key space (parsed configs, compiled templates, per-tenant rules...)
+// Pros: One computation per key, lock-free reads once computed
+// Cons: Keeps every result forever, one CompletableFuture per key
+public class Memoizer<K, V> implements Function<K, V> {
+    private final Function<? super K, ? extends V> function;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> cache = new ConcurrentHashMap<>();
+
+    public Memoizer(Function<? super K, ? extends V> function) {
+        this.function = function;
+    }
+
+    public static <K, V> Memoizer<K, V> of(Function<? super K, ? extends V> function) {
+        return new Memoizer<>(function);
+    }
+
+    @Override
+    public V apply(K key) {
+        CompletableFuture<V> future = cache.get(key);
+        if (future == null) {
+            CompletableFuture<V> created = new CompletableFuture<>();
+            future = cache.putIfAbsent(key, created);
+            if (future == null) {
+                future = created;
+                try {
+                    created.complete(function.apply(key)); // We won the race: compute outside any lock
+                } catch (Throwable e) { // Also a sneaky-thrown checked exception: waiting callers must not hang
+                    cache.remove(key, created); // Do not cache failures
+                    created.completeExceptionally(e);
+                }
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        } catch (CancellationException e) {
+            throw new IllegalStateException("Computation cancelled for " + key, e);
+        }
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+}
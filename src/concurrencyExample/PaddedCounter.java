@@ -0,0 +1,54 @@
+package concurrencyExample;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// PaddedCounter (single-writer counter that owns its cache lines: per-worker stats, sequence numbers):
+// - The value sits between 120 bytes of padding on each side, so no other hot field or object can share its line,
+//   even with adjacent-line prefetch (128-byte pairs on Intel, 128-byte lines on Apple M-series)
+// - Padding lives in superclasses: the JVM orders fields by size inside a class (and may drop unused ones from the
+//   layout), but always lays out superclass fields first – the Disruptor / JCTools trick
+// - @jdk.internal.vm.annotation.Contended does the same in the JDK (LongAdder cells, Thread's random seeds), but
+//   needs --add-exports to compile and -XX:-RestrictContended to take effect in application classes
+// - increment() is for the owning thread only (release store, no CAS); get() may be called from any thread
+// Pros: Per-thread counters that scale with the number of cores, readable at any time without a lock
+// Cons: ~250 bytes per counter instead of 24, one writer per counter (use LongAdder for shared counters)
+abstract class PaddedCounterLeftPadding {
+    @SuppressWarnings("unused")
+    long p01, p02, p03, p04, p05, p06, p07, p08, p09, p10, p11, p12, p13, p14, p15;
+}
+
+abstract class PaddedCounterValue extends PaddedCounterLeftPadding {
+    protected long value;
+}
+
+abstract class PaddedCounterRightPadding extends PaddedCounterValue {
+    @SuppressWarnings("unused")
+    long p16, p17, p18, p19, p20, p21, p22, p23, p24, p25, p26, p27, p28, p29, p30;
+}
+
+public final class PaddedCounter extends PaddedCounterRightPadding {
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(PaddedCounterValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Owning thread only
+    public void increment() {
+        VALUE.setRelease(this, value + 1);
+    }
+
+    // Owning thread only
+    public void add(long delta) {
+        VALUE.setRelease(this, value + delta);
+    }
+
+    public long get() {
+        return (long) VALUE.getAcquire(this);
+    }
+}
@@ -0,0 +1,179 @@
+package concurrencyExample;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+// ReadMostly (shared mutable state read on every request, written rarely – one API, switchable locking strategy):
+// - SYNCHRONIZED    : one monitor, readers exclude each other too (the ThreadExamplesBestPractices baseline)
+// - READ_WRITE_LOCK : ReentrantReadWriteLock, readers share – but every read still CASes the shared reader count
+// - OPTIMISTIC      : StampedLock.tryOptimisticRead + validate, no write to shared memory on the read path; when a
+//                     write overlapped, the read is redone under the read lock (counted in fallbacks())
+// - COPY_ON_WRITE   : RCU-like, readers follow a volatile reference, writers copy, modify and publish the copy
+// Reader rules: side-effect free, no references to the state kept after read() returns. With OPTIMISTIC the reader
+// may run on a half-written state before being discarded (exceptions included), so no loops driven by state values.
+// Pros: Pick the strategy per read/write ratio without touching call sites (ReadMostlyExamples gives the numbers)
+// Cons: COPY_ON_WRITE needs a copier and allocates per write, OPTIMISTIC readers run twice when writes are frequent
+public abstract class ReadMostly<S> {
+    public enum Strategy {SYNCHRONIZED, READ_WRITE_LOCK, OPTIMISTIC, COPY_ON_WRITE}
+
+    // copier is only used (and required) by COPY_ON_WRITE
+    public static <S> ReadMostly<S> create(Strategy strategy, S state, UnaryOperator<S> copier) {
+        Objects.requireNonNull(state, "state");
+        return switch (strategy) {
+            case SYNCHRONIZED -> new Synchronized<>(state);
+            case READ_WRITE_LOCK -> new ReadWriteLocked<>(state);
+            case OPTIMISTIC -> new Optimistic<>(state);
+            case COPY_ON_WRITE -> new CopyOnWrite<>(state, Objects.requireNonNull(copier, "copier is required for COPY_ON_WRITE"));
+        };
+    }
+
+    public abstract Strategy strategy();
+
+    public abstract <R> R read(Function<? super S, ? extends R> reader);
+
+    public abstract void write(Consumer<? super S> writer);
+
+    // Optimistic reads redone under the read lock (0 for the other strategies)
+    public long fallbacks() {
+        return 0;
+    }
+
+    private static final class Synchronized<S> extends ReadMostly<S> {
+        private final S state;
+
+        Synchronized(S state) {
+            this.state = state;
+        }
+
+        @Override
+        public Strategy strategy() {
+            return Strategy.SYNCHRONIZED;
+        }
+
+        @Override
+        public synchronized <R> R read(Function<? super S, ? extends R> reader) {
+            return reader.apply(state);
+        }
+
+        @Override
+        public synchronized void write(Consumer<? super S> writer) {
+            writer.accept(state);
+        }
+    }
+
+    private static final class ReadWriteLocked<S> extends ReadMostly<S> {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final S state;
+
+        ReadWriteLocked(S state) {
+            this.state = state;
+        }
+
+        @Override
+        public Strategy strategy() {
+            return Strategy.READ_WRITE_LOCK;
+        }
+
+        @Override
+        public <R> R read(Function<? super S, ? extends R> reader) {
+            lock.readLock().lock();
+            try {
+                return reader.apply(state);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public void write(Consumer<? super S> writer) {
+            lock.writeLock().lock();
+            try {
+                writer.accept(state);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static final class Optimistic<S> extends ReadMostly<S> {
+        private final StampedLock lock = new StampedLock();
+        private final LongAdder fallbacks = new LongAdder();
+        private final S state;
+
+        Optimistic(S state) {
+            this.state = state;
+        }
+
+        @Override
+        public Strategy strategy() {
+            return Strategy.OPTIMISTIC;
+        }
+
+        @Override
+        public <R> R read(Function<? super S, ? extends R> reader) {
+            long stamp = lock.tryOptimisticRead(); // 0 while a writer holds the lock
+            if (stamp != 0) {
+                try {
+                    R result = reader.apply(state);
+                    if (lock.validate(stamp)) return result;
+                } catch (RuntimeException e) {
+                    if (lock.validate(stamp)) throw e; // A real failure, not a torn read
+                }
+            }
+            fallbacks.increment();
+            stamp = lock.readLock();
+            try {
+                return reader.apply(state);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        @Override
+        public void write(Consumer<? super S> writer) {
+            long stamp = lock.writeLock();
+            try {
+                writer.accept(state);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @Override
+        public long fallbacks() {
+            return fallbacks.sum();
+        }
+    }
+
+    private static final class CopyOnWrite<S> extends ReadMostly<S> {
+        private final UnaryOperator<S> copier;
+        private volatile S current;
+
+        CopyOnWrite(S state, UnaryOperator<S> copier) {
+            this.copier = copier;
+            this.current = state;
+        }
+
+        @Override
+        public Strategy strategy() {
+            return Strategy.COPY_ON_WRITE;
+        }
+
+        @Override
+        public <R> R read(Function<? super S, ? extends R> reader) {
+            return reader.apply(current); // One volatile read: the published copy is never modified again
+        }
+
+        @Override
+        public synchronized void write(Consumer<? super S> writer) {
+            S copy = copier.apply(current);
+            writer.accept(copy);
+            current = copy; // Publication: readers see the fully written copy or the previous one
+        }
+    }
+}
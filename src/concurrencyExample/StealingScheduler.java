@@ -0,0 +1,257 @@
+package concurrencyExample;
+
+import diagnosticsExample.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// StealingScheduler (work-stealing executor with priority lanes and deadlines, instead of one FIFO queue):
+// - Every worker owns one deque per Lane (LATENCY, NORMAL, BULK). External submissions go to the back of a random
+//   worker's deque, tasks submitted from a worker go to the front of its own deque (run next, data still in cache)
+// - Dispatch: for each lane in priority order, own deque first, then steal from the others – a LATENCY task
+//   anywhere runs before any BULK task, and an idle worker never waits while another one has a backlog
+// - Owner and thieves both take from the FRONT (not the classic "steal from the back"): external submissions
+//   queue at the back, so the front is where the oldest requests are – stealing the back would serve the newest
+//   requests first. The price: owner and thieves contend on the same end of the deque
+// - Deadlines: a task found past its deadline is run anyway (RUN), dropped (DROP) or moved to the BULK lane
+//   (DEMOTE) – a late answer nobody waits for should not delay the answers still in time
+// - Metrics per lane: queued, executed, stolen, dropped, demoted, and a wait-time histogram (submit -> start)
+// - Idle workers park; submit() unparks one of them. A task never preempts a running one: lanes only order
+//   dispatch, so a worker busy with a 50 ms bulk task still holds its core for 50 ms
+// Pros: Latency-sensitive tasks overtake bulk jobs under burst load, deadlines shed work that is already too late
+// Cons: No Future/cancel (wrap in FutureTask if needed), stealing scans every worker per lane when idle,
+//       tasks racing with shutdown() may be rejected or left unrun
+public final class StealingScheduler implements Executor, AutoCloseable {
+    public enum Lane {LATENCY, NORMAL, BULK}
+
+    public enum Expired {RUN, DROP, DEMOTE}
+
+    public record LaneMetrics(Lane lane, long queued, long executed, long stolen, long dropped, long demoted,
+                              LatencyHistogram waits) {
+    }
+
+    private static final Lane[] LANES = Lane.values();
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final class Task {
+        final Runnable body;
+        final long submitted;
+        final long deadline;
+        Lane lane;
+        Expired expired;
+
+        Task(Runnable body, Lane lane, long submitted, long deadline, Expired expired) {
+            this.body = body;
+            this.lane = lane;
+            this.submitted = submitted;
+            this.deadline = deadline;
+            this.expired = expired;
+        }
+    }
+
+    private final String name;
+    private final Worker[] workers;
+    private final ThreadLocal<Worker> currentWorker = new ThreadLocal<>();
+    private final ConcurrentLinkedQueue<Worker> idle = new ConcurrentLinkedQueue<>();
+    private final CountDownLatch terminated;
+    private final LongAdder[] queued = adders();
+    private final LongAdder[] executed = adders();
+    private final LongAdder[] stolen = adders();
+    private final LongAdder[] dropped = adders();
+    private final LongAdder[] demoted = adders();
+    private volatile boolean shutdown;
+
+    public StealingScheduler(String name, int workerCount) {
+        if (workerCount < 1) throw new IllegalArgumentException("workerCount must be >= 1: " + workerCount);
+        this.name = name;
+        this.workers = new Worker[workerCount];
+        this.terminated = new CountDownLatch(workerCount);
+        for (int i = 0; i < workerCount; i++) workers[i] = new Worker(i);
+        for (Worker worker : workers) worker.thread.start();
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        submit(Lane.NORMAL, task);
+    }
+
+    public void submit(Lane lane, Runnable task) {
+        submit(lane, task, null, Expired.RUN);
+    }
+
+    // deadline: relative to now, ignored with Expired.RUN
+    public void submit(Lane lane, Runnable task, Duration deadline, Expired expired) {
+        if (shutdown) throw new RejectedExecutionException(name + " is shut down");
+        long now = System.nanoTime();
+        long deadlineNanos = expired == Expired.RUN ? 0 : now + deadline.toNanos();
+        Task entry = new Task(task, lane, now, deadlineNanos, expired);
+        Worker self = currentWorker.get();
+        if (self != null) {
+            self.lanes.get(lane.ordinal()).addFirst(entry);
+        } else {
+            workers[ThreadLocalRandom.current().nextInt(workers.length)].lanes.get(lane.ordinal()).addLast(entry);
+        }
+        queued[lane.ordinal()].increment();
+        Worker sleeper = idle.poll();
+        if (sleeper != null) LockSupport.unpark(sleeper.thread);
+    }
+
+    // Queued tasks still run, new submissions are rejected
+    public void shutdown() {
+        shutdown = true;
+        for (Worker worker : workers) LockSupport.unpark(worker.thread);
+    }
+
+    public boolean awaitTermination(Duration timeout) throws InterruptedException {
+        return terminated.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void close() {
+        shutdown();
+        try {
+            terminated.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Wait times are exact, counters are a moving snapshot while tasks run
+    public LaneMetrics metrics(Lane lane) {
+        int l = lane.ordinal();
+        LatencyHistogram waits = new LatencyHistogram();
+        for (Worker worker : workers) {
+            synchronized (worker.waits) {
+                waits.add(worker.waits[l]);
+            }
+        }
+        return new LaneMetrics(lane, queued[l].sum(), executed[l].sum(), stolen[l].sum(), dropped[l].sum(),
+                demoted[l].sum(), waits);
+    }
+
+    public String report() {
+        StringBuilder out = new StringBuilder();
+        for (Lane lane : LANES) {
+            LaneMetrics m = metrics(lane);
+            if (m.executed() + m.dropped() + m.demoted() + m.queued() == 0) continue;
+            out.append(String.format("%-50s : executed %d (stolen %d), dropped %d, demoted %d, queued %d%n",
+                    "    " + name + " " + lane, m.executed(), m.stolen(), m.dropped(), m.demoted(), m.queued()));
+            out.append(String.format("%-50s : %s%n", "      wait", m.waits().percentiles()));
+        }
+        return out.toString();
+    }
+
+    private final class Worker implements Runnable {
+        final int index;
+        final Thread thread;
+        final List<ConcurrentLinkedDeque<Task>> lanes; // Indexed by Lane.ordinal()
+        final LatencyHistogram[] waits = new LatencyHistogram[LANES.length]; // Guarded by itself
+
+        Worker(int index) {
+            this.index = index;
+            List<ConcurrentLinkedDeque<Task>> deques = new ArrayList<>(LANES.length);
+            for (int l = 0; l < LANES.length; l++) {
+                deques.add(new ConcurrentLinkedDeque<>());
+                waits[l] = new LatencyHistogram();
+            }
+            this.lanes = List.copyOf(deques);
+            this.thread = new Thread(this, name + "-worker-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            currentWorker.set(this);
+            try {
+                while (true) {
+                    if (dispatchOne()) continue;
+                    if (shutdown && !hasWork()) return;
+                    idle.offer(this); // Before the re-check: a submit() after it will find and unpark us
+                    if (!hasWork() && !shutdown) LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                    idle.remove(this);
+                }
+            } finally {
+                terminated.countDown();
+            }
+        }
+
+        private boolean dispatchOne() {
+            for (int l = 0; l < LANES.length; l++) {
+                Task task = lanes.get(l).pollFirst();
+                boolean steal = task == null;
+                if (steal) task = steal(l);
+                if (task != null) {
+                    queued[l].decrement();
+                    if (steal) stolen[l].increment();
+                    runTask(task);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Task steal(int lane) {
+            int start = ThreadLocalRandom.current().nextInt(workers.length);
+            for (int i = 0; i < workers.length; i++) {
+                Worker victim = workers[(start + i) % workers.length];
+                if (victim == this) continue;
+                Task task = victim.lanes.get(lane).pollFirst(); // Same end as the owner: oldest requests first
+                if (task != null) return task;
+            }
+            return null;
+        }
+
+        private void runTask(Task task) {
+            long now = System.nanoTime();
+            int l = task.lane.ordinal();
+            if (task.expired != Expired.RUN && now - task.deadline > 0) {
+                if (task.expired == Expired.DROP) {
+                    dropped[l].increment();
+                    return;
+                }
+                if (task.lane != Lane.BULK) {
+                    demoted[l].increment();
+                    task.lane = Lane.BULK;
+                    task.expired = Expired.RUN;
+                    lanes.get(Lane.BULK.ordinal()).addLast(task);
+                    queued[Lane.BULK.ordinal()].increment();
+                    return;
+                }
+            }
+            synchronized (waits) {
+                waits[l].record(now - task.submitted);
+            }
+            executed[l].increment();
+            try {
+                task.body.run();
+            } catch (Throwable t) {
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, t); // The worker survives
+            }
+        }
+
+        private boolean hasWork() {
+            for (Worker worker : workers) {
+                for (ConcurrentLinkedDeque<Task> lane : worker.lanes) {
+                    if (!lane.isEmpty()) return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[LANES.length];
+        for (int i = 0; i < adders.length; i++) adders[i] = new LongAdder();
+        return adders;
+    }
+}
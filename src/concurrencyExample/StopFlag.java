@@ -0,0 +1,73 @@
+package concurrencyExample;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+// StopFlag (one-shot shutdown / reload signal polled by hot worker loops):
+// - stop(reason): writes the reason, then publishes the flag with a RELEASE store and unparks awaitStop() callers
+// - isStopped(): OPAQUE load – never hoisted out of the loop, always eventually sees stop(), but orders nothing
+//   else: the cheapest correct check for "should I exit this loop?" (a plain field may be read once and cached)
+// - isStoppedAcquire(): ACQUIRE load – if it returns true, everything written before stop() (the reason, a new
+//   config...) is visible too
+// - isStoppedVolatile(): full volatile load, what a `volatile boolean` field gives – for comparison
+// - awaitStop(): blocks with a WaitStrategy instead of the sleep(100) polling of VisibleAtomicExample
+// Pros: Poll on every iteration for the price of a plain load on x86 (and without a fence on ARM for opaque)
+// Cons: One-shot (create a new flag to restart), opaque reads give no happens-before: use the acquire variant
+//       before reading data published with the stop
+public final class StopFlag {
+    private static final VarHandle STOPPED;
+
+    static {
+        try {
+            STOPPED = MethodHandles.lookup().findVarHandle(StopFlag.class, "stopped", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @SuppressWarnings("unused") // Accessed through STOPPED
+    private boolean stopped;
+    private String reason; // Plain: published by the release store of 'stopped'
+    private final ConcurrentLinkedQueue<Thread> waiters = new ConcurrentLinkedQueue<>();
+
+    public void stop(String reason) {
+        this.reason = reason;
+        STOPPED.setRelease(this, true);
+        for (Thread waiter : waiters) LockSupport.unpark(waiter);
+    }
+
+    public void stop() {
+        stop("stopped");
+    }
+
+    public boolean isStopped() {
+        return (boolean) STOPPED.getOpaque(this);
+    }
+
+    public boolean isStoppedAcquire() {
+        return (boolean) STOPPED.getAcquire(this);
+    }
+
+    public boolean isStoppedVolatile() {
+        return (boolean) STOPPED.getVolatile(this);
+    }
+
+    // null until stopped
+    public String reason() {
+        return isStoppedAcquire() ? reason : null;
+    }
+
+    // Returns true if stopped within the timeout
+    public boolean awaitStop(WaitStrategy strategy, long timeoutNanos) {
+        if (isStoppedAcquire()) return true;
+        Thread current = Thread.currentThread();
+        waiters.add(current);
+        try {
+            return strategy.await(this::isStoppedAcquire, timeoutNanos); // Registered first: no lost unpark
+        } finally {
+            waiters.remove(current);
+        }
+    }
+}
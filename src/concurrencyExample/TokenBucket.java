@@ -0,0 +1,63 @@
+package concurrencyExample;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+// TokenBucket (lock-free rate limiter: 'permitsPerSecond' sustained, bursts up to 'burst' permits):
+// - The whole bucket is ONE long, the time at which the bucket would be full again (GCRA, equivalent to a token
+//   bucket): taking n permits pushes it n intervals further, refusing when it would land more than 'burst'
+//   intervals ahead of now. One CAS per permit, no refill thread, no lock, no allocation
+// - Time comes from System.nanoTime(): an idle bucket refills to 'burst' on its own
+// - tryAcquire never waits: rejecting at the door is the point (see AdmissionExecutor)
+// Pros: Bounds throughput before work is queued, a few ns per call uncontended
+// Cons: Rate only – it cannot know the service slowed down (ConcurrencyLimiter does), the CAS is a shared hot
+//       spot at millions of calls per second across cores
+public final class TokenBucket {
+    private static final VarHandle NEXT_FREE;
+
+    static {
+        try {
+            NEXT_FREE = MethodHandles.lookup().findVarHandle(TokenBucket.class, "nextFree", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongAdder rejected = new LongAdder();
+    @SuppressWarnings("unused") // Accessed through NEXT_FREE
+    private volatile long nextFree;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond > 0 and burst >= 1 required: " + permitsPerSecond + ", " + burst);
+        }
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000 / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.nextFree = System.nanoTime(); // Starts full
+    }
+
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    public boolean tryAcquire(int permits) {
+        long cost = intervalNanos * permits;
+        while (true) {
+            long now = System.nanoTime();
+            long current = (long) NEXT_FREE.getVolatile(this);
+            long next = (current - now < 0 ? now : current) + cost; // An idle bucket is full, never fuller
+            if (next - now > burstNanos) {
+                rejected.increment();
+                return false;
+            }
+            if (NEXT_FREE.compareAndSet(this, current, next)) return true;
+        }
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,59 @@
+package concurrencyExample;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+// WaitStrategy (how a thread waits for a condition another thread will make true):
+// - BUSY_SPIN      : re-check in a loop with Thread.onSpinWait() (PAUSE on x86) – lowest latency, burns a full core
+// - SPIN_THEN_PARK : spin a little, then Thread.yield(), then park – fast when the wait is short, cheap when it is not
+//                    (no spinning on a single CPU, like SynchronousQueue: the other thread cannot run meanwhile)
+// - PARK           : park right away – cheapest CPU-wise, pays the OS wake-up latency (tens of µs) every time
+// - Parked waiters are woken by LockSupport.unpark() from the signalling side, or after a bounded nap at the latest
+//   (a missed unpark can only delay, never hang, a waiter)
+// - An interrupt ends the wait early with the status still set (HandoffCell then throws InterruptedException);
+//   spinning never blocks, so the spin phase looks at the flag every 1024 spins
+// Pros: One place to pick the latency / CPU trade-off of every flag and handoff cell
+// Cons: BUSY_SPIN needs a spare core per waiter – on a machine with fewer cores than spinners it is the slowest
+public enum WaitStrategy {
+    BUSY_SPIN(Integer.MAX_VALUE, 0),
+    SPIN_THEN_PARK(Runtime.getRuntime().availableProcessors() > 1 ? 1_000 : 0, 10),
+    PARK(0, 0);
+
+    private static final long MAX_PARK_NANOS = 1_000_000; // Upper bound of one nap when nobody unparks us
+    private static final int INTERRUPT_CHECK_SPINS = 1024; // Power of two
+
+    private final int spins;
+    private final int yields;
+
+    WaitStrategy(int spins, int yields) {
+        this.spins = spins;
+        this.yields = yields;
+    }
+
+    // Waits until ready is true, the timeout expires or the thread is interrupted. Returns the final value of ready.
+    public boolean await(BooleanSupplier ready, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        int spun = 0;
+        int yielded = 0;
+        while (!ready.getAsBoolean()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return ready.getAsBoolean();
+            if (spun < spins) {
+                if ((++spun & (INTERRUPT_CHECK_SPINS - 1)) == 0 && Thread.currentThread().isInterrupted()) {
+                    return ready.getAsBoolean();
+                }
+                Thread.onSpinWait();
+            } else if (yielded < yields) {
+                yielded++;
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(this, Math.min(remaining, MAX_PARK_NANOS));
+                if (Thread.interrupted()) {
+                    Thread.currentThread().interrupt();
+                    return ready.getAsBoolean();
+                }
+            }
+        }
+        return true;
+    }
+}
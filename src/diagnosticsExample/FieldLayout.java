@@ -0,0 +1,218 @@
+package diagnosticsExample;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+// FieldLayout (where the JVM actually put the fields of a class, and which hot fields may share a cache line):
+// - Uses JOL (org.openjdk.jol:jol-core) when it is on the class path, otherwise sun.misc.Unsafe.objectFieldOffset
+//   (jdk.unsupported module, no flag needed up to JDK 25)
+// - conflicts(type, hotFields...): pairs of hot fields less than a cache line apart – two threads writing them
+//   invalidate each other's line (false sharing) even though they never touch the same field
+// - Also flags instances smaller than a cache line: per-worker objects allocated back to back share lines too
+// - Offsets are relative to the object start, which is only 8-byte aligned: "less than 64 bytes apart" means
+//   "may share a line", ">= 128 bytes apart" means "never, even with adjacent-line prefetch"
+// Pros: Checks the layout the running JVM chose (field reordering, compressed oops/class pointers, padding)
+// Cons: Offsets change with the JVM flags and version, records and hidden classes are not supported by Unsafe
+public final class FieldLayout {
+    public static final int CACHE_LINE = 64;
+    public static final int PREFETCH_PAIR = 128; // Intel adjacent-line prefetch, Apple M-series line size
+
+    public record FieldInfo(String declaringClass, String name, String type, long offset, int size) {
+        public long end() {
+            return offset + size;
+        }
+    }
+
+    public record Conflict(FieldInfo first, FieldInfo second) {
+        public long distance() {
+            return Math.abs(second.offset() - first.offset());
+        }
+
+        @Override
+        public String toString() {
+            return first.name() + " @" + first.offset() + " and " + second.name() + " @" + second.offset()
+                    + ": " + distance() + " bytes apart, may share a cache line";
+        }
+    }
+
+    private static final Method JOL_PARSE_CLASS = findJol();
+    private static final MethodHandle UNSAFE_FIELD_OFFSET = findUnsafe();
+
+    private FieldLayout() {
+    }
+
+    public static boolean jolAvailable() {
+        return JOL_PARSE_CLASS != null;
+    }
+
+    public static String source() {
+        if (jolAvailable()) return "JOL";
+        return UNSAFE_FIELD_OFFSET != null ? "sun.misc.Unsafe" : "unavailable";
+    }
+
+    // Instance fields of the class and its superclasses, sorted by offset. Empty if offsets cannot be read.
+    public static List<FieldInfo> fields(Class<?> type) {
+        List<FieldInfo> fields = jolAvailable() ? jolFields(type) : unsafeFields(type);
+        fields.sort(Comparator.comparingLong(FieldInfo::offset));
+        return fields;
+    }
+
+    // Object header + fields, rounded up to the 8-byte object alignment. -1 if unknown.
+    public static long instanceSize(Class<?> type) {
+        List<FieldInfo> fields = fields(type);
+        if (fields.isEmpty()) return -1;
+        long end = fields.get(fields.size() - 1).end();
+        return (end + 7) & ~7L;
+    }
+
+    public static List<Conflict> conflicts(Class<?> type, String... hotFields) {
+        Set<String> hot = Set.of(hotFields);
+        List<FieldInfo> candidates = new ArrayList<>();
+        for (FieldInfo field : fields(type)) {
+            if (hot.contains(field.name())) candidates.add(field);
+        }
+        List<Conflict> conflicts = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            for (int j = i + 1; j < candidates.size(); j++) {
+                if (candidates.get(j).offset() - candidates.get(i).end() < CACHE_LINE) {
+                    conflicts.add(new Conflict(candidates.get(i), candidates.get(j)));
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    // Printable layout: JOL's own table when available, otherwise one line per field, followed by the conflicts
+    public static String describe(Class<?> type, String... hotFields) {
+        StringBuilder out = new StringBuilder();
+        Set<String> hot = Set.of(hotFields);
+        String jolText = jolPrintable(type);
+        List<FieldInfo> fields = fields(type);
+        if (jolText != null) {
+            out.append(jolText);
+        } else if (fields.isEmpty()) {
+            return type.getName() + ": field offsets not available (" + source() + ")\n";
+        } else {
+            out.append(type.getName()).append(" (offsets from ").append(source()).append(")\n");
+            for (int i = 0; i < fields.size(); i++) {
+                int runEnd = i;
+                while (runEnd + 1 < fields.size() && samePadding(fields.get(i), fields.get(runEnd + 1), hot)) runEnd++;
+                appendField(out, fields.get(i));
+                if (runEnd - i >= 3) { // Padding runs are collapsed
+                    out.append(String.format("  %4s %3s  ... %d more%n", "", "", runEnd - i - 1));
+                    i = runEnd - 1;
+                }
+            }
+            out.append(String.format("  instance size: %d bytes%n", instanceSize(type)));
+        }
+        for (Conflict conflict : conflicts(type, hotFields)) {
+            out.append("  [WARN] ").append(conflict).append('\n');
+        }
+        long size = instanceSize(type);
+        if (hotFields.length > 0 && size > 0 && size < CACHE_LINE) {
+            out.append("  [WARN] ").append(size).append("-byte instances: objects allocated back to back share cache lines\n");
+        }
+        return out.toString();
+    }
+
+    // Consecutive non-hot fields of the same class and type (padding)
+    private static boolean samePadding(FieldInfo first, FieldInfo next, Set<String> hot) {
+        return !hot.contains(first.name()) && !hot.contains(next.name())
+                && first.declaringClass().equals(next.declaringClass()) && first.type().equals(next.type())
+                && first.size() == next.size();
+    }
+
+    private static void appendField(StringBuilder out, FieldInfo field) {
+        out.append(String.format("  %4d %3d  %-12s %s.%s%n", field.offset(), field.size(), field.type(),
+                field.declaringClass(), field.name()));
+    }
+
+    private static List<FieldInfo> unsafeFields(Class<?> type) {
+        List<FieldInfo> fields = new ArrayList<>();
+        if (UNSAFE_FIELD_OFFSET == null || type.isRecord() || type.isHidden()) return fields;
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) continue;
+                try {
+                    long offset = (long) UNSAFE_FIELD_OFFSET.invoke(field);
+                    fields.add(new FieldInfo(current.getSimpleName(), field.getName(), field.getType().getSimpleName(),
+                            offset, sizeOf(field.getType())));
+                } catch (Throwable e) {
+                    return new ArrayList<>(); // Refused by this JVM: all or nothing
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static int sizeOf(Class<?> type) {
+        if (type == long.class || type == double.class) return 8;
+        if (type == int.class || type == float.class) return 4;
+        if (type == short.class || type == char.class) return 2;
+        if (type == byte.class || type == boolean.class) return 1;
+        return Integer.getInteger("diagnostics.referenceSize", 4); // Compressed oops: the default below 32 GB of heap
+    }
+
+    private static List<FieldInfo> jolFields(Class<?> type) {
+        List<FieldInfo> fields = new ArrayList<>();
+        try {
+            Object layout = parseClass(type);
+            for (Object field : (Collection<?>) layout.getClass().getMethod("fields").invoke(layout)) {
+                Class<?> fieldClass = field.getClass();
+                fields.add(new FieldInfo(
+                        String.valueOf(fieldClass.getMethod("hostClass").invoke(field)),
+                        String.valueOf(fieldClass.getMethod("name").invoke(field)),
+                        String.valueOf(fieldClass.getMethod("typeClass").invoke(field)),
+                        ((Number) fieldClass.getMethod("offset").invoke(field)).longValue(),
+                        ((Number) fieldClass.getMethod("size").invoke(field)).intValue()));
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return unsafeFields(type);
+        }
+        return fields;
+    }
+
+    private static String jolPrintable(Class<?> type) {
+        if (!jolAvailable()) return null;
+        try {
+            Object layout = parseClass(type);
+            return (String) layout.getClass().getMethod("toPrintable").invoke(layout);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Object parseClass(Class<?> type) throws ReflectiveOperationException {
+        return JOL_PARSE_CLASS.invoke(null, type);
+    }
+
+    private static Method findJol() {
+        try {
+            return Class.forName("org.openjdk.jol.info.ClassLayout").getMethod("parseClass", Class.class);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle findUnsafe() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            MethodHandle objectFieldOffset = MethodHandles.lookup().findVirtual(unsafeClass, "objectFieldOffset",
+                    MethodType.methodType(long.class, Field.class));
+            return objectFieldOffset.bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package diagnosticsExample;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// GcComparison (the same allocation-heavy workload under each collector and heap size, each in a fresh JVM):
+// - Collectors of garbageCollectorTuning.md: Serial, Parallel, G1, ZGC (single and generational), Shenandoah.
+//   Flags follow the child JDK (-XX:+ZGenerational on 21-22, single-generation ZGC removed in 24), collectors
+//   missing from the build (Shenandoah on Oracle JDK) are detected with a -version run and skipped
+// - -Xms = -Xmx (as the guide recommends), -Xlog:gc*:file=<logDir>/<collector>-<heap>.log
+// - Pauses are parsed from the GC log: every "Pause ... 1.234ms" line (young/mixed/full pauses of the STW
+//   collectors, the short mark/relocate pauses of ZGC and Shenandoah) goes into a LatencyHistogram
+// - Throughput and footprint (peak RSS, committed heap) come from the workload's own result line
+// Pros: One command per JDK upgrade instead of an afternoon of hand-edited flags and log reading
+// Cons: One short run per cell on a shared machine: rerun before trusting differences under ~10%,
+//       concurrent collectors need spare cores – on 1-2 CPUs they steal from the application
+public final class GcComparison {
+    public enum Collector {SERIAL, PARALLEL, G1, ZGC, GENERATIONAL_ZGC, SHENANDOAH}
+
+    public record Result(Collector collector, String heap, boolean ok, String error, double operationsPerSecond,
+                         LatencyHistogram pauses, double pausedPercent, long heapAfterGcPeakMb, long rssPeakMb,
+                         long heapCommittedMb, Path log) {
+    }
+
+    private static final Pattern PAUSE = Pattern.compile("\\bPause\\b.*?([\\d.]+)ms\\s*$");
+    private static final Pattern HEAP_AFTER = Pattern.compile("\\d+M(?:\\(\\d+%\\))?->(\\d+)M");
+    private static final Pattern WORKLOAD = Pattern.compile(
+            "GC-WORKLOAD ops=(\\d+) seconds=([\\d.]+) rssPeakMB=(-?\\d+) heapCommittedMB=(\\d+)");
+
+    private final JvmLauncher launcher;
+    private final Path logDir;
+    private final String workloadMainClass;
+    private final int seconds;
+    private final Map<Collector, Boolean> supported = new EnumMap<>(Collector.class);
+
+    public GcComparison(JvmLauncher launcher, Path logDir, String workloadMainClass, int seconds) {
+        this.launcher = launcher;
+        this.logDir = logDir;
+        this.workloadMainClass = workloadMainClass;
+        this.seconds = seconds;
+        try {
+            Files.createDirectories(logDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Collector flags for the child JDK, null when this JDK has no such collector
+    public List<String> flags(Collector collector) {
+        int version = launcher.javaVersion();
+        return switch (collector) {
+            case SERIAL -> List.of("-XX:+UseSerialGC");
+            case PARALLEL -> List.of("-XX:+UseParallelGC");
+            case G1 -> List.of("-XX:+UseG1GC");
+            case ZGC -> version >= 24 ? null
+                    : version == 23 ? List.of("-XX:+UseZGC", "-XX:-ZGenerational") : List.of("-XX:+UseZGC");
+            case GENERATIONAL_ZGC -> version < 21 ? null
+                    : version <= 22 ? List.of("-XX:+UseZGC", "-XX:+ZGenerational") : List.of("-XX:+UseZGC");
+            case SHENANDOAH -> List.of("-XX:+UseShenandoahGC");
+        };
+    }
+
+    public boolean supports(Collector collector) {
+        return supported.computeIfAbsent(collector, c -> {
+            List<String> flags = flags(c);
+            if (flags == null) return false;
+            List<String> options = new ArrayList<>(flags);
+            options.add("-version");
+            JvmLauncher.Result result = launcher.run(null, options, Duration.ofSeconds(30));
+            return result.exitCode() == 0;
+        });
+    }
+
+    public Result run(Collector collector, String heap, int liveSetMb) {
+        Path log = logDir.resolve(collector.name().toLowerCase() + "-" + heap + ".log");
+        if (!supports(collector)) return failed(collector, heap, "not available in this JDK", log);
+        try {
+            Files.deleteIfExists(log);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<String> options = new ArrayList<>(flags(collector));
+        options.add("-Xms" + heap);
+        options.add("-Xmx" + heap);
+        options.add("-Xlog:gc*:file=" + log + ":uptime,level,tags");
+        JvmLauncher.Result result = launcher.run(workloadMainClass, options,
+                Duration.ofSeconds(seconds + 120L), Integer.toString(seconds), Integer.toString(liveSetMb));
+
+        Matcher workload = null;
+        for (String line : result.output()) {
+            Matcher matcher = WORKLOAD.matcher(line);
+            if (matcher.find()) workload = matcher;
+        }
+        if (workload == null) {
+            String last = result.output().isEmpty() ? "no output" : result.output().get(result.output().size() - 1);
+            return failed(collector, heap, result.timedOut() ? "timed out" : last, log);
+        }
+        double elapsedSeconds = Double.parseDouble(workload.group(2));
+        LatencyHistogram pauses = new LatencyHistogram();
+        long heapAfterGcPeakMb = 0;
+        try {
+            for (String line : Files.readAllLines(log)) {
+                Matcher pause = PAUSE.matcher(line);
+                if (pause.find()) pauses.record((long) (Double.parseDouble(pause.group(1)) * 1_000_000));
+                Matcher after = HEAP_AFTER.matcher(line);
+                if (after.find()) heapAfterGcPeakMb = Math.max(heapAfterGcPeakMb, Long.parseLong(after.group(1)));
+            }
+        } catch (IOException e) {
+            return failed(collector, heap, "cannot read " + log + ": " + e.getMessage(), log);
+        }
+        double pausedPercent = pauses.mean() * pauses.count() / (result.totalNanos()) * 100; // Of the JVM lifetime
+        return new Result(collector, heap, true, null, Long.parseLong(workload.group(1)) / elapsedSeconds, pauses,
+                pausedPercent, heapAfterGcPeakMb, Long.parseLong(workload.group(3)), Long.parseLong(workload.group(4)), log);
+    }
+
+    // One row per run: throughput relative to the best run of the same heap size
+    public static String table(List<Result> results) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-17s %6s %11s %5s %6s %9s %9s %9s %7s %9s %8s%n", "collector", "heap", "kops/s",
+                "rel", "pauses", "p50", "p99", "max", "paused", " after GC", "RSS peak"));
+        for (Result result : results) {
+            if (!result.ok()) {
+                out.append(String.format("%-17s %6s  skipped: %s%n", result.collector(), result.heap(), result.error()));
+                continue;
+            }
+            double best = results.stream().filter(r -> r.ok() && r.heap().equals(result.heap()))
+                    .mapToDouble(Result::operationsPerSecond).max().orElse(result.operationsPerSecond());
+            LatencyHistogram pauses = result.pauses();
+            out.append(String.format("%-17s %6s %11.1f %4.0f%% %6d %9s %9s %9s %6.1f%% %7d MB %5d MB%n",
+                    result.collector(), result.heap(), result.operationsPerSecond() / 1_000,
+                    100 * result.operationsPerSecond() / best, pauses.count(),
+                    LatencyHistogram.format(pauses.valueAtPercentile(50)),
+                    LatencyHistogram.format(pauses.valueAtPercentile(99)), LatencyHistogram.format(pauses.max()),
+                    result.pausedPercent(), result.heapAfterGcPeakMb(), result.rssPeakMb()));
+        }
+        return out.toString();
+    }
+
+    private static Result failed(Collector collector, String heap, String error, Path log) {
+        return new Result(collector, heap, false, error, 0, new LatencyHistogram(), 0, 0, 0, 0, log);
+    }
+}
@@ -0,0 +1,150 @@
+package diagnosticsExample;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+// JfrEvents (custom Java Flight Recorder events of this project, all under the "JavaOptimus" category):
+// - BenchmarkPhase  : duration of one benchmark() call, named after its label (lets JMC slice a recording by phase)
+// - LockAcquisition : time spent in one tryLock(), which lock, whether it was obtained
+// - CacheAccess     : one cache lookup, hit or miss – disabled by default (one event per get() floods a recording),
+//                     enable it in a .jfc or with JfrRecorder's -Djfr.detailed=true
+// - CacheStatistics / QueueDepth : sampled every second (and at the end of each phase) from registered gauges,
+//                     the cheap way to follow hit rates and backlogs
+// - Event objects are plain allocations that the JIT removes when no recording is running: instrumented hot paths
+//   cost (almost) nothing outside a recording
+// Pros: Application-level context next to JFR's own allocation / lock / GC events, in the same file and timeline
+// Cons: Every committed event costs ~100 ns and buffer space: keep per-operation events off or thresholded
+public final class JfrEvents {
+    private static final Map<String, IntSupplier> QUEUES = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier[]> CACHES = new ConcurrentHashMap<>();
+
+    static {
+        FlightRecorder.addPeriodicEvent(QueueDepth.class, JfrEvents::emitQueueDepths);
+        FlightRecorder.addPeriodicEvent(CacheStatistics.class, JfrEvents::emitCacheStatistics);
+    }
+
+    @Name("javaoptimus.BenchmarkPhase")
+    @Label("Benchmark Phase")
+    @Category({"JavaOptimus", "Benchmark"})
+    @Description("One benchmark of a runnable class, from start to result")
+    @StackTrace(false)
+    public static final class BenchmarkPhase extends Event {
+        @Label("Name")
+        public String name;
+    }
+
+    @Name("javaoptimus.LockAcquisition")
+    @Label("Lock Acquisition")
+    @Category({"JavaOptimus", "Locking"})
+    @Description("Time spent waiting in tryLock() and its outcome")
+    public static final class LockAcquisition extends Event {
+        @Label("Lock")
+        public String lock;
+
+        @Label("Acquired")
+        public boolean acquired;
+    }
+
+    @Name("javaoptimus.CacheAccess")
+    @Label("Cache Access")
+    @Category({"JavaOptimus", "Cache"})
+    @Description("One cache lookup")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class CacheAccess extends Event {
+        @Label("Cache")
+        public String cache;
+
+        @Label("Hit")
+        public boolean hit;
+    }
+
+    @Name("javaoptimus.CacheStatistics")
+    @Label("Cache Statistics")
+    @Category({"JavaOptimus", "Cache"})
+    @Description("Cumulative hits and misses of a registered cache")
+    @Period("1 s")
+    @StackTrace(false)
+    public static final class CacheStatistics extends Event {
+        @Label("Cache")
+        public String cache;
+
+        @Label("Hits")
+        public long hits;
+
+        @Label("Misses")
+        public long misses;
+    }
+
+    @Name("javaoptimus.QueueDepth")
+    @Label("Queue Depth")
+    @Category({"JavaOptimus", "Queue"})
+    @Description("Number of elements waiting in a registered queue or pool")
+    @Period("1 s")
+    @StackTrace(false)
+    public static final class QueueDepth extends Event {
+        @Label("Queue")
+        public String queue;
+
+        @Label("Depth")
+        public int depth;
+    }
+
+    // Handle of a registered gauge: unregister() in a finally block
+    public interface Registration {
+        void unregister();
+    }
+
+    private JfrEvents() {
+    }
+
+    public static Registration registerQueue(String name, IntSupplier depth) {
+        QUEUES.put(name, depth);
+        return () -> QUEUES.remove(name, depth);
+    }
+
+    public static Registration registerCache(String name, LongSupplier hits, LongSupplier misses) {
+        LongSupplier[] counters = {hits, misses};
+        CACHES.put(name, counters);
+        return () -> CACHES.remove(name, counters);
+    }
+
+    // Samples every registered gauge now (JfrRecorder calls it when a phase ends, periods are longer than most phases)
+    public static void emitGauges() {
+        emitQueueDepths();
+        emitCacheStatistics();
+    }
+
+    private static void emitQueueDepths() {
+        QUEUES.forEach((name, depth) -> {
+            QueueDepth event = new QueueDepth();
+            if (!event.shouldCommit()) return;
+            event.queue = name;
+            event.depth = depth.getAsInt();
+            event.commit();
+        });
+    }
+
+    private static void emitCacheStatistics() {
+        CACHES.forEach((name, counters) -> {
+            CacheStatistics event = new CacheStatistics();
+            if (!event.shouldCommit()) return;
+            event.cache = name;
+            event.hits = counters[0].getAsLong();
+            event.misses = counters[1].getAsLong();
+            event.commit();
+        });
+    }
+}
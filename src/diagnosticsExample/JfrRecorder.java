@@ -0,0 +1,121 @@
+package diagnosticsExample;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// JfrRecorder (one JFR recording per benchmark, the same workflow as profiling a production service):
+// - phase(label) always emits a JfrEvents.BenchmarkPhase event (visible in any recording started with -XX:StartFlightRecording)
+// - Recording mode: -Djfr.record=<dir> (or recordTo(dir)) starts a recording with the JDK "profile" settings around
+//   each phase and dumps it to <dir>/<nn>-<label>.jfr, then prints a JfrSummary of it (-Djfr.summary=false to skip)
+// - -Djfr.detailed=true also enables the per-operation JfrEvents.CacheAccess event
+// - Without recording mode a phase costs one event object: the benchmark helpers of the runnable classes use it
+//   as  Phase phase = JfrRecorder.phase(label); try { ... } finally { phase.end(); }
+// Pros: One file per benchmark – allocation sites, contention and GC pauses can't be mixed up between phases
+// Cons: Starting and dumping a recording takes tens of ms and the "profile" settings add a few % of overhead:
+//       compare timings with recording mode off
+public final class JfrRecorder {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    private static volatile Path outputDirectory = property("jfr.record");
+    private static final boolean SUMMARY = !"false".equals(System.getProperty("jfr.summary"));
+    private static final boolean DETAILED = Boolean.getBoolean("jfr.detailed");
+
+    private JfrRecorder() {
+    }
+
+    // Turns recording mode on (a directory) or off (null) for the following phases
+    public static void recordTo(Path directory) {
+        outputDirectory = directory;
+    }
+
+    public static boolean recording() {
+        return outputDirectory != null;
+    }
+
+    public static Phase phase(String label) {
+        return new Phase(label, outputDirectory);
+    }
+
+    public static final class Phase {
+        private final JfrEvents.BenchmarkPhase event = new JfrEvents.BenchmarkPhase();
+        private final Recording recording;
+        private final Path file;
+
+        private Phase(String label, Path directory) {
+            if (directory == null) {
+                recording = null;
+                file = null;
+            } else {
+                file = directory.resolve(String.format("%02d-%s.jfr", SEQUENCE.incrementAndGet(), fileName(label)));
+                recording = start(label);
+            }
+            event.name = label;
+            event.begin();
+        }
+
+        // null outside recording mode
+        public Path file() {
+            return file;
+        }
+
+        public void end() {
+            event.commit();
+            if (recording == null) {
+                if (FlightRecorder.isInitialized()) JfrEvents.emitGauges(); // Started with -XX:StartFlightRecording
+                return;
+            }
+            JfrEvents.emitGauges();
+            try {
+                recording.stop();
+                Files.createDirectories(file.getParent());
+                recording.dump(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                recording.close();
+            }
+            if (SUMMARY) {
+                try {
+                    System.out.print(JfrSummary.summarize(file, 5));
+                } catch (IOException e) {
+                    System.out.println("[WARN] cannot read " + file + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static Recording start(String label) {
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration("profile"));
+        } catch (IOException | ParseException e) {
+            recording = new Recording(); // No settings: only the enabled events below
+        }
+        recording.setName(label);
+        recording.setToDisk(true);
+        recording.enable(JfrEvents.BenchmarkPhase.class);
+        recording.enable(JfrEvents.LockAcquisition.class);
+        recording.enable(JfrEvents.CacheStatistics.class);
+        recording.enable(JfrEvents.QueueDepth.class);
+        if (DETAILED) recording.enable(JfrEvents.CacheAccess.class);
+        recording.start();
+        return recording;
+    }
+
+    private static String fileName(String label) {
+        String name = label.replaceAll("[^A-Za-z0-9]+", "-").replaceAll("(^-|-$)", "");
+        return name.length() > 60 ? name.substring(0, 60) : name;
+    }
+
+    private static Path property(String name) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? null : Path.of(value);
+    }
+}
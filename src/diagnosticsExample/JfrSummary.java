@@ -0,0 +1,178 @@
+package diagnosticsExample;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// JfrSummary (the three questions asked of every recording, answered from the .jfr file with jdk.jfr.consumer):
+// - Top allocation sites: jdk.ObjectAllocationSample weights (JDK 16+, "profile" settings), or TLAB events on older
+//   settings, attributed to the first frame outside java.* / jdk.* / sun.* – the line of OUR code that allocates
+// - Lock contention: jdk.JavaMonitorEnter (synchronized), jdk.ThreadPark (j.u.c. locks, queues) and
+//   javaoptimus.LockAcquisition, total blocked time per monitor class / lock
+// - GC pauses: jdk.GarbageCollection count, total and longest pause
+// - Plus the last CacheStatistics and the deepest QueueDepth sample of each registered gauge
+// Pros: No JMC needed to read a recording in CI or over SSH
+// Cons: Sampled data (allocation samples are throttled, short parks below the threshold are not recorded):
+//       good for rankings, not for exact totals
+public final class JfrSummary {
+    public record Entry(String name, long value) {
+    }
+
+    public record Summary(Path file, List<Entry> allocationBytes, List<Entry> blockedNanos, int gcCount,
+                          Duration gcPauseTotal, Duration gcPauseLongest, Map<String, String> gauges) {
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder();
+            out.append("  JFR ").append(file.getFileName()).append('\n');
+            out.append(String.format("    GC: %d collections, %.1f ms paused, longest %.1f ms%n", gcCount,
+                    gcPauseTotal.toNanos() / 1e6, gcPauseLongest.toNanos() / 1e6));
+            for (Entry entry : allocationBytes) {
+                out.append(String.format("    alloc   %10s  %s%n", bytes(entry.value()), entry.name()));
+            }
+            for (Entry entry : blockedNanos) {
+                out.append(String.format("    blocked %8.1f ms  %s%n", entry.value() / 1e6, entry.name()));
+            }
+            gauges.forEach((name, value) -> out.append("    ").append(name).append(": ").append(value).append('\n'));
+            return out.toString();
+        }
+    }
+
+    private JfrSummary() {
+    }
+
+    public static Summary summarize(Path file, int top) throws IOException {
+        Map<String, Long> allocations = new HashMap<>();
+        Map<String, Long> tlabAllocations = new HashMap<>();
+        Map<String, Long> blocked = new HashMap<>();
+        Map<String, String> gauges = new LinkedHashMap<>();
+        Map<String, Integer> deepest = new HashMap<>();
+        Set<String> sampledThreads = new HashSet<>();
+        int gcCount = 0;
+        Duration pauseTotal = Duration.ZERO;
+        Duration pauseLongest = Duration.ZERO;
+
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                if (recorderItself(event.getStackTrace())) continue;
+                switch (event.getEventType().getName()) {
+                    case "jdk.ObjectAllocationSample" -> {
+                        // A sample weighs what its thread allocated since the previous sample, possibly before the
+                        // recording started: the first sample of each thread is not attributable
+                        if (sampledThreads.add(threadName(event))) continue;
+                        allocations.merge(site(event.getStackTrace()), event.getLong("weight"), Long::sum);
+                    }
+                    case "jdk.ObjectAllocationInNewTLAB" ->
+                            tlabAllocations.merge(site(event.getStackTrace()), event.getLong("tlabSize"), Long::sum);
+                    case "jdk.ObjectAllocationOutsideTLAB" ->
+                            tlabAllocations.merge(site(event.getStackTrace()), event.getLong("allocationSize"), Long::sum);
+                    case "jdk.JavaMonitorEnter" ->
+                            blocked.merge("synchronized " + className(event, "monitorClass"), nanos(event), Long::sum);
+                    case "jdk.ThreadPark" ->
+                            blocked.merge("park " + className(event, "parkedClass") + " in " + threadName(event), nanos(event),
+                                    Long::sum);
+                    case "javaoptimus.LockAcquisition" ->
+                            blocked.merge("tryLock " + event.getString("lock"), nanos(event), Long::sum);
+                    case "jdk.GarbageCollection" -> {
+                        gcCount++;
+                        pauseTotal = pauseTotal.plus(event.getDuration("sumOfPauses"));
+                        Duration longest = event.getDuration("longestPause");
+                        if (longest.compareTo(pauseLongest) > 0) pauseLongest = longest;
+                    }
+                    case "javaoptimus.CacheStatistics" -> {
+                        long hits = event.getLong("hits");
+                        long misses = event.getLong("misses");
+                        long total = Math.max(1, hits + misses);
+                        gauges.put("cache " + event.getString("cache"),
+                                String.format("%d hits, %d misses (%.1f%% hit rate)", hits, misses, 100.0 * hits / total));
+                    }
+                    case "javaoptimus.QueueDepth" -> {
+                        String queue = "queue " + event.getString("queue");
+                        int depth = deepest.merge(queue, event.getInt("depth"), Math::max);
+                        gauges.put(queue, "max depth " + depth);
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+        return new Summary(file, top(allocations.isEmpty() ? tlabAllocations : allocations, top), top(blocked, top),
+                gcCount, pauseTotal, pauseLongest, gauges);
+    }
+
+    private static List<Entry> top(Map<String, Long> totals, int limit) {
+        List<Entry> entries = new ArrayList<>();
+        totals.forEach((name, value) -> entries.add(new Entry(name, value)));
+        entries.sort(Comparator.comparingLong(Entry::value).reversed());
+        return entries.size() > limit ? entries.subList(0, limit) : entries;
+    }
+
+    // JFR's own threads and the recording start / dump
+    private static boolean recorderItself(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) return false;
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("jdk.jfr.") || type.equals(JfrRecorder.class.getName())
+                    || type.equals(JfrRecorder.Phase.class.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // First frame of application code: the JDK frames above it (ArrayList.grow, Integer.valueOf) are the "how"
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) return "<no stack trace>";
+        RecordedFrame first = null;
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (!frame.isJavaFrame()) continue;
+            if (first == null) first = frame;
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return describe(frame);
+            }
+        }
+        return first == null ? "<native>" : describe(first);
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static String className(RecordedEvent event, String field) {
+        RecordedClass type = event.getClass(field);
+        return type == null ? "<unknown>" : type.getName();
+    }
+
+    // Idle pool and JDK threads park too: the thread name tells a waiting worker from a blocked one
+    private static String threadName(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        return thread == null || thread.getJavaName() == null ? "<unknown thread>" : thread.getJavaName();
+    }
+
+    private static long nanos(RecordedEvent event) {
+        return event.getDuration().toNanos();
+    }
+
+    private static String bytes(long bytes) {
+        if (bytes >= 1L << 30) return String.format("%.1f GB", bytes / (double) (1L << 30));
+        if (bytes >= 1L << 20) return String.format("%.1f MB", bytes / (double) (1L << 20));
+        if (bytes >= 1L << 10) return String.format("%.1f KB", bytes / (double) (1L << 10));
+        return bytes + " B";
+    }
+}
@@ -0,0 +1,106 @@
+package diagnosticsExample;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JvmLauncher (run a main class in a fresh JVM and time it from the outside):
+// - Same java binary and class path as the current JVM, --enable-preview forwarded when we run with it
+// - Measures time to the first line of output (what a health check or a user sees) and total run time
+// - Stops the child after 'timeout' (long-running benchmarks only need their startup measured)
+// - Output lines are kept so callers can parse them (class-load logs, GC logs, results)
+// Pros: Every measurement starts from a cold JVM: class loading, JIT and GC choices all count
+// Cons: Process creation itself adds a few ms, run several times and take the median
+public final class JvmLauncher {
+    private final String javaBinary;
+    private final String classPath;
+    private final List<String> baseOptions = new ArrayList<>();
+
+    // First line time, total time, exit code (-1 if stopped) and everything printed on stdout + stderr
+    public record Result(long firstOutputNanos, long totalNanos, int exitCode, boolean timedOut, List<String> output) {
+        public long firstOutputMillis() {
+            return firstOutputNanos / 1_000_000;
+        }
+
+        public long totalMillis() {
+            return totalNanos / 1_000_000;
+        }
+    }
+
+    public JvmLauncher() {
+        this(System.getProperty("java.class.path"));
+    }
+
+    public JvmLauncher(String classPath) {
+        this.javaBinary = ProcessHandle.current().info().command()
+                .orElse(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        this.classPath = classPath;
+        if (ManagementFactory.getRuntimeMXBean().getInputArguments().contains("--enable-preview")) {
+            baseOptions.add("--enable-preview");
+        }
+    }
+
+    public String classPath() {
+        return classPath;
+    }
+
+    // Feature release of the child JVM (same binary as ours)
+    public int javaVersion() {
+        return Runtime.version().feature();
+    }
+
+    public Result run(String mainClass, List<String> jvmOptions, Duration timeout, String... args) {
+        List<String> command = new ArrayList<>();
+        command.add(javaBinary);
+        command.addAll(baseOptions);
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(classPath);
+        if (mainClass != null) command.add(mainClass); // null: JVM-only invocations such as -XX:AOTMode=create
+        command.addAll(List.of(args));
+
+        ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true);
+        List<String> output = new ArrayList<>();
+        long[] firstOutput = {-1};
+        long start = System.nanoTime();
+        try {
+            Process process = builder.start();
+            Thread reader = Thread.ofPlatform().daemon().start(() -> {
+                try (BufferedReader lines = new BufferedReader(
+                        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = lines.readLine()) != null) {
+                        synchronized (output) {
+                            if (firstOutput[0] < 0) firstOutput[0] = System.nanoTime() - start;
+                            output.add(line);
+                        }
+                    }
+                } catch (IOException ignored) {
+                    // Process killed: keep what we have
+                }
+            });
+            boolean finished = process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (!finished) {
+                process.destroy(); // SIGTERM: shutdown hooks and exit-time dumps (-XX:ArchiveClassesAtExit) still run
+                if (!process.waitFor(10, TimeUnit.SECONDS)) process.destroyForcibly().waitFor();
+            }
+            long total = System.nanoTime() - start;
+            reader.join(1_000);
+            synchronized (output) {
+                return new Result(firstOutput[0], total, finished ? process.exitValue() : -1, !finished, List.copyOf(output));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot start " + javaBinary, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running " + mainClass, e);
+        }
+    }
+}
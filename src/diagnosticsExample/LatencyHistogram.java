@@ -0,0 +1,187 @@
+package diagnosticsExample;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// LatencyHistogram (HdrHistogram-style recording histogram for latencies in nanoseconds):
+// - Log-linear buckets: each power of two is split in 2^n linear sub-buckets, so every recorded value is kept with
+//   'significantDigits' decimal digits of precision (2 digits = 1% error) from 1 ns up to highestTrackableValue
+// - record() is two shifts, a leading-zero count and an array increment: no allocation, no lock, a few ns
+// - recordCorrected(value, expectedInterval): coordinated-omission correction – when one operation of a fixed-rate
+//   loop stalls, the operations that SHOULD have started during the stall are recorded too (what a user would see)
+// - Not thread-safe: one histogram per thread, then add() them together (same precision, any range)
+// - valueAtPercentile(99.0) returns the highest value equivalent to the bucket the 99th percentile falls in
+// Pros: Percentiles with bounded error at any scale, fixed memory (~36 KB for 1 ns..1 h at 2 digits)
+// Cons: Values above highestTrackableValue are clamped (max() stays exact), precision beyond 3 digits costs memory
+public final class LatencyHistogram {
+    private final long highestTrackableValue;
+    private final int significantDigits;
+    private final int subBucketHalfCountMagnitude;
+    private final int subBucketHalfCount;
+    private final long subBucketMask;
+    private final int leadingZeroCountBase;
+    private final long[] counts;
+
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private double sum;
+
+    // Default: 1 ns to 1 hour, 2 significant digits
+    public LatencyHistogram() {
+        this(TimeUnit.HOURS.toNanos(1), 2);
+    }
+
+    public LatencyHistogram(long highestTrackableValue, int significantDigits) {
+        if (highestTrackableValue < 2) throw new IllegalArgumentException("highestTrackableValue must be >= 2");
+        if (significantDigits < 1 || significantDigits > 5) {
+            throw new IllegalArgumentException("significantDigits must be between 1 and 5");
+        }
+        this.highestTrackableValue = highestTrackableValue;
+        this.significantDigits = significantDigits;
+
+        long largestSingleUnitResolution = 2 * (long) Math.pow(10, significantDigits);
+        int subBucketCountMagnitude = 64 - Long.numberOfLeadingZeros(largestSingleUnitResolution - 1); // ceil(log2)
+        this.subBucketHalfCountMagnitude = subBucketCountMagnitude - 1;
+        int subBucketCount = 1 << subBucketCountMagnitude;
+        this.subBucketHalfCount = subBucketCount / 2;
+        this.subBucketMask = subBucketCount - 1;
+        this.leadingZeroCountBase = 64 - subBucketHalfCountMagnitude - 1;
+
+        int bucketCount = 1;
+        long smallestUntrackableValue = subBucketCount;
+        while (smallestUntrackableValue <= highestTrackableValue) {
+            if (smallestUntrackableValue > Long.MAX_VALUE / 2) {
+                bucketCount++;
+                break;
+            }
+            smallestUntrackableValue <<= 1;
+            bucketCount++;
+        }
+        this.counts = new long[(bucketCount + 1) * subBucketHalfCount];
+    }
+
+    public void record(long value) {
+        recordCount(value, 1);
+    }
+
+    public void recordCount(long value, long count) {
+        if (value < 0) throw new IllegalArgumentException("negative value: " + value);
+        counts[countsIndex(Math.min(value, highestTrackableValue))] += count;
+        totalCount += count;
+        sum += (double) value * count;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    // For fixed-rate loops: also records the latencies of the operations a stall of 'value' delayed
+    public void recordCorrected(long value, long expectedInterval) {
+        record(value);
+        if (expectedInterval <= 0) return;
+        for (long missing = value - expectedInterval; missing >= expectedInterval; missing -= expectedInterval) {
+            record(missing);
+        }
+    }
+
+    // Merges another histogram (e.g. one per thread) into this one
+    public void add(LatencyHistogram other) {
+        if (other.totalCount == 0) return;
+        if (other.subBucketHalfCountMagnitude == subBucketHalfCountMagnitude && other.counts.length <= counts.length) {
+            for (int i = 0; i < other.counts.length; i++) counts[i] += other.counts[i];
+        } else {
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] == 0) continue;
+                counts[countsIndex(Math.min(other.valueFromIndex(i), highestTrackableValue))] += other.counts[i];
+            }
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    public long count() {
+        return totalCount;
+    }
+
+    public long min() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    public double mean() {
+        return totalCount == 0 ? 0 : sum / totalCount;
+    }
+
+    public int significantDigits() {
+        return significantDigits;
+    }
+
+    public long valueAtPercentile(double percentile) {
+        if (totalCount == 0) return 0;
+        if (percentile >= 100) return max;
+        long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= countAtPercentile) {
+                return Math.min(highestEquivalentValue(valueFromIndex(i)), max);
+            }
+        }
+        return max;
+    }
+
+    // "p50 850 ns, p90 ..., p99 ..., p99.9 ..., max ..." – the line every benchmark should print
+    public String percentiles() {
+        return String.format("p50 %s, p90 %s, p99 %s, p99.9 %s, max %s",
+                format(valueAtPercentile(50)), format(valueAtPercentile(90)), format(valueAtPercentile(99)),
+                format(valueAtPercentile(99.9)), format(max));
+    }
+
+    @Override
+    public String toString() {
+        return percentiles() + " (" + totalCount + " values, mean " + format((long) mean()) + ")";
+    }
+
+    public static String format(long nanos) {
+        if (nanos >= 1_000_000_000) return String.format("%.2f s", nanos / 1e9);
+        if (nanos >= 1_000_000) return String.format("%.2f ms", nanos / 1e6);
+        if (nanos >= 10_000) return String.format("%.1f µs", nanos / 1e3);
+        return nanos + " ns";
+    }
+
+    private int countsIndex(long value) {
+        int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(value | subBucketMask);
+        int subBucketIndex = (int) (value >>> bucketIndex);
+        return ((bucketIndex + 1) << subBucketHalfCountMagnitude) + (subBucketIndex - subBucketHalfCount);
+    }
+
+    private long valueFromIndex(int index) {
+        int bucketIndex = (index >> subBucketHalfCountMagnitude) - 1;
+        int subBucketIndex = (index & (subBucketHalfCount - 1)) + subBucketHalfCount;
+        if (bucketIndex < 0) {
+            subBucketIndex -= subBucketHalfCount;
+            bucketIndex = 0;
+        }
+        return (long) subBucketIndex << bucketIndex;
+    }
+
+    private long highestEquivalentValue(long value) {
+        int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(value | subBucketMask);
+        int subBucketIndex = (int) (value >>> bucketIndex);
+        int adjustedBucket = subBucketIndex >= 2 * subBucketHalfCount ? bucketIndex + 1 : bucketIndex;
+        long lowest = (long) subBucketIndex << bucketIndex;
+        return lowest + (1L << adjustedBucket) - 1;
+    }
+}
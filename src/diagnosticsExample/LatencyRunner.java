@@ -0,0 +1,124 @@
+package diagnosticsExample;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+
+// LatencyRunner (per-operation timing modes for the benchmarks: percentiles instead of one total duration):
+// - closedLoop : operations back to back, each one timed – the service time distribution
+// - openLoop   : operations scheduled at a fixed rate, latency measured from the INTENDED start time, so a stall
+//                also counts against the operations queued behind it (no coordinated omission); the naive
+//                figure from the actual start time is printed next to it for comparison
+// - threads    : closed loop on n threads, one histogram per thread merged at the end (no shared state while timing)
+// - Every mode does a warm-up pass first (JIT), runs inside a JfrRecorder phase and prints
+//   "label : p50 ..., p90 ..., p99 ..., p99.9 ..., max ..."
+// - Timing costs two System.nanoTime() calls per operation (~20-50 ns): for sub-100 ns operations, let each
+//   Operation loop over a batch of calls and divide, or keep the classic total-duration benchmark
+// Pros: Shows the tail (GC pauses, lock convoys, page faults) that averages and totals hide – SLAs are on p99
+// Cons: Per-operation clocks perturb very short operations, a single run is one sample of a noisy machine
+public final class LatencyRunner {
+    private static final String LINE = "%-50s : %s\n";
+
+    // One timed operation, 'index' counts from 0
+    public interface Operation {
+        void run(int index);
+    }
+
+    private LatencyRunner() {
+    }
+
+    public static LatencyHistogram closedLoop(String label, int operations, Operation operation) {
+        warmUp(operations, operation);
+        LatencyHistogram histogram = new LatencyHistogram();
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            for (int i = 0; i < operations; i++) {
+                long start = System.nanoTime();
+                operation.run(i);
+                histogram.record(System.nanoTime() - start);
+            }
+            System.out.printf(LINE, label, histogram.percentiles());
+        } finally {
+            phase.end();
+        }
+        return histogram;
+    }
+
+    // Returns the corrected histogram (latency from the intended start time); 1 to 10^9 operations per second
+    public static LatencyHistogram openLoop(String label, int operations, long operationsPerSecond, Operation operation) {
+        if (operationsPerSecond < 1 || operationsPerSecond > 1_000_000_000L) {
+            throw new IllegalArgumentException("operationsPerSecond must be between 1 and 10^9 (the interval is whole "
+                    + "nanoseconds): " + operationsPerSecond);
+        }
+        warmUp(operations, operation);
+        long intervalNanos = 1_000_000_000L / operationsPerSecond;
+        LatencyHistogram corrected = new LatencyHistogram();
+        LatencyHistogram naive = new LatencyHistogram();
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            long begin = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                long intended = begin + i * intervalNanos;
+                long now;
+                while ((now = System.nanoTime()) < intended) {
+                    long wait = intended - now;
+                    if (wait > 100_000) LockSupport.parkNanos(wait - 50_000); // Sleep coarsely, spin the rest
+                    else Thread.onSpinWait();
+                }
+                long start = System.nanoTime();
+                operation.run(i);
+                long end = System.nanoTime();
+                corrected.record(end - intended);
+                naive.record(end - start);
+            }
+            System.out.printf(LINE, label, corrected.percentiles());
+            System.out.printf(LINE, "    (naive, from actual start)", naive.percentiles());
+        } finally {
+            phase.end();
+        }
+        return corrected;
+    }
+
+    public static LatencyHistogram threads(String label, int threads, int operationsPerThread, Operation operation) {
+        warmUp(operationsPerThread, operation);
+        LatencyHistogram[] perThread = new LatencyHistogram[threads];
+        JfrRecorder.Phase phase = JfrRecorder.phase(label);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(threads);
+            for (int t = 0; t < threads; t++) {
+                LatencyHistogram histogram = perThread[t] = new LatencyHistogram();
+                new Thread(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < operationsPerThread; i++) {
+                            long begin = System.nanoTime();
+                            operation.run(i);
+                            histogram.record(System.nanoTime() - begin);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }).start();
+            }
+            start.countDown();
+            try {
+                done.await(); // Happens-before: every thread's histogram is safely visible after this
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            LatencyHistogram merged = new LatencyHistogram();
+            for (LatencyHistogram histogram : perThread) merged.add(histogram);
+            System.out.printf(LINE, label + " x" + threads, merged.percentiles());
+            return merged;
+        } finally {
+            phase.end();
+        }
+    }
+
+    private static void warmUp(int operations, Operation operation) {
+        int warmUp = Math.min(operations, 10_000);
+        for (int i = 0; i < warmUp; i++) operation.run(i);
+    }
+}
@@ -0,0 +1,347 @@
+package diagnosticsExample;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// ProfiledLock (a ReentrantLock that measures its own contention, reported per lock name):
+// - Uncontended path: one tryLock() – no clock read – and, 1 in 'sampleEvery' acquisitions, a hold-time sample
+// - Contended path: the wait is always timed (it costs microseconds anyway) and counted
+// - A timed tryLock that gives up is a wait too: it goes to its own histogram and counts in the ranking, so a lock
+//   whose waiters keep timing out (back-off loops) shows up as hot, not as cold
+// - Every counter and histogram is updated while the lock is held, so the lock itself guards them: no atomics,
+//   no extra cache-line traffic (failed tryLock calls never own the lock: a LongAdder, and a histogram guarded by
+//   its own monitor on that already slow path)
+// - Only the outermost acquisition of a reentrant hold counts
+// - Condition.await() releases the lock: it ends the hold sample, lets other threads' acquisitions count, and the
+//   hold restarts (same depth, not a new acquisition) once await() returns with the lock
+// - Locks with the same name are merged in report(): one name per lock role (e.g. "Counter.lock"), not per instance
+// - Instances are tracked weakly: a lock's figures leave the report once the lock is garbage collected
+// Pros: Finds the hot lock (count, p99 wait, total wait) with a log line instead of a profiler attach
+// Cons: ~2 clock reads per sampled acquisition, fair locks lose the tryLock fast path when threads are queued
+public final class ProfiledLock implements Lock {
+    private static final Set<ProfiledLock> LOCKS = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    public record Stats(String name, int instances, long acquisitions, long contended, long failedTryLocks,
+                        LatencyHistogram waits, LatencyHistogram timedOutWaits, LatencyHistogram holds) {
+        // Successful and timed-out waits
+        public long totalWaitNanos() {
+            return total(waits) + total(timedOutWaits);
+        }
+
+        private static long total(LatencyHistogram histogram) {
+            return Math.round(histogram.mean() * histogram.count());
+        }
+
+        public double contendedPercent() {
+            return acquisitions == 0 ? 0 : 100.0 * contended / acquisitions;
+        }
+    }
+
+    private final String name;
+    private final ReentrantLock delegate;
+    private final long sampleMask;
+    private final LongAdder failedTryLocks = new LongAdder();
+    private final LatencyHistogram timedOutWaits = new LatencyHistogram(HIGHEST_TRACKABLE_NANOS, 2); // Guarded by itself
+
+    // Guarded by delegate
+    private final LatencyHistogram waits = new LatencyHistogram(HIGHEST_TRACKABLE_NANOS, 2);
+    private final LatencyHistogram holds = new LatencyHistogram(HIGHEST_TRACKABLE_NANOS, 2);
+    private long acquisitions;
+    private long contended;
+    private int depth;
+    private long holdStart;
+
+    public ProfiledLock(String name) {
+        this(name, false, 1);
+    }
+
+    // sampleEvery: hold time measured on 1 acquisition in sampleEvery (a power of two, 1 = all of them)
+    public ProfiledLock(String name, boolean fair, int sampleEvery) {
+        if (sampleEvery < 1 || Integer.bitCount(sampleEvery) != 1) {
+            throw new IllegalArgumentException("sampleEvery must be a power of two: " + sampleEvery);
+        }
+        this.name = name;
+        this.delegate = new ReentrantLock(fair);
+        this.sampleMask = sampleEvery - 1;
+        LOCKS.add(this);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public void lock() {
+        if (fastAcquire()) {
+            acquired(0);
+        } else {
+            long start = System.nanoTime();
+            delegate.lock();
+            acquiredAfterWait(start);
+        }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (fastAcquire()) {
+            acquired(0);
+        } else {
+            long start = System.nanoTime();
+            delegate.lockInterruptibly();
+            acquiredAfterWait(start);
+        }
+    }
+
+    @Override
+    public boolean tryLock() {
+        if (delegate.tryLock()) {
+            acquired(0);
+            return true;
+        }
+        failedTryLocks.increment();
+        return false;
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+        if (fastAcquire()) {
+            acquired(0);
+            return true;
+        }
+        long start = System.nanoTime();
+        if (delegate.tryLock(time, unit)) {
+            acquiredAfterWait(start);
+            return true;
+        }
+        long waited = System.nanoTime() - start;
+        synchronized (timedOutWaits) {
+            timedOutWaits.record(waited);
+        }
+        failedTryLocks.increment();
+        return false;
+    }
+
+    @Override
+    public void unlock() {
+        if (delegate.isHeldByCurrentThread() && --depth == 0 && holdStart != 0) {
+            holds.record(System.nanoTime() - holdStart);
+        }
+        delegate.unlock(); // IllegalMonitorStateException when not held, as with a plain ReentrantLock
+    }
+
+    @Override
+    public Condition newCondition() {
+        return new ProfiledCondition(delegate.newCondition());
+    }
+
+    // Consistent copy of this lock's figures (takes the lock briefly)
+    public Stats stats() {
+        delegate.lock();
+        try {
+            LatencyHistogram waitsCopy = new LatencyHistogram(HIGHEST_TRACKABLE_NANOS, 2);
+            LatencyHistogram timedOutCopy = new LatencyHistogram(HIGHEST_TRACKABLE_NANOS, 2);
+            LatencyHistogram holdsCopy = new LatencyHistogram(HIGHEST_TRACKABLE_NANOS, 2);
+            waitsCopy.add(waits);
+            synchronized (timedOutWaits) {
+                timedOutCopy.add(timedOutWaits);
+            }
+            holdsCopy.add(holds);
+            return new Stats(name, 1, acquisitions, contended, failedTryLocks.sum(), waitsCopy, timedOutCopy, holdsCopy);
+        } finally {
+            delegate.unlock();
+        }
+    }
+
+    public void reset() {
+        delegate.lock();
+        try {
+            waits.reset();
+            holds.reset();
+            acquisitions = 0;
+            contended = 0;
+            failedTryLocks.reset();
+            synchronized (timedOutWaits) {
+                timedOutWaits.reset();
+            }
+        } finally {
+            delegate.unlock();
+        }
+    }
+
+    // Live locks merged by name, most total wait first
+    public static List<Stats> allStats() {
+        List<ProfiledLock> locks;
+        synchronized (LOCKS) {
+            locks = new ArrayList<>(LOCKS);
+        }
+        Map<String, Stats> byName = new LinkedHashMap<>();
+        for (ProfiledLock lock : locks) {
+            byName.merge(lock.name, lock.stats(), ProfiledLock::merge);
+        }
+        List<Stats> stats = new ArrayList<>(byName.values());
+        stats.sort(Comparator.comparingLong(Stats::totalWaitNanos).thenComparingLong(Stats::contended).reversed());
+        return stats;
+    }
+
+    public static void resetAll() {
+        List<ProfiledLock> locks;
+        synchronized (LOCKS) {
+            locks = new ArrayList<>(LOCKS);
+        }
+        for (ProfiledLock lock : locks) lock.reset();
+    }
+
+    // The 'top' most contended lock names as a table (hold times are sampled)
+    public static String report(int top) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-36s %4s %12s %10s %7s %9s %9s %9s %10s %9s %9s%n", "lock", "inst", "acquisitions",
+                "contended", "", "wait p50", "wait p99", "wait max", "wait total", "hold p50", "hold p99"));
+        List<Stats> stats = allStats();
+        for (Stats s : stats.subList(0, Math.min(top, stats.size()))) {
+            out.append(String.format("%-36s %4d %12d %10d %6.2f%% %9s %9s %9s %10s %9s %9s%n", s.name(), s.instances(),
+                    s.acquisitions(), s.contended(), s.contendedPercent(), LatencyHistogram.format(s.waits().valueAtPercentile(50)),
+                    LatencyHistogram.format(s.waits().valueAtPercentile(99)), LatencyHistogram.format(s.waits().max()),
+                    LatencyHistogram.format(s.totalWaitNanos()), LatencyHistogram.format(s.holds().valueAtPercentile(50)),
+                    LatencyHistogram.format(s.holds().valueAtPercentile(99))));
+            if (s.failedTryLocks() > 0) {
+                out.append(String.format("%-36s %d failed tryLock, %d timed out (%s waited, part of wait total)%n",
+                        "", s.failedTryLocks(), s.timedOutWaits().count(),
+                        LatencyHistogram.format(Math.round(s.timedOutWaits().mean() * s.timedOutWaits().count()))));
+            }
+        }
+        return out.toString();
+    }
+
+    // tryLock() barges even on a fair lock: a fair lock only takes the fast path when nobody is queued
+    private boolean fastAcquire() {
+        return (!delegate.isFair() || !delegate.hasQueuedThreads()) && delegate.tryLock();
+    }
+
+    private void acquiredAfterWait(long start) {
+        long now = System.nanoTime();
+        if (depth == 0) {
+            contended++;
+            waits.record(now - start);
+        }
+        acquired(now);
+    }
+
+    // 'now': a clock value already read by the caller, 0 when none
+    private void acquired(long now) {
+        if (depth++ == 0) {
+            acquisitions++;
+            holdStart = (acquisitions & sampleMask) == 0 ? (now != 0 ? now : System.nanoTime()) : 0;
+        }
+    }
+
+    // What a Condition wait puts aside: depth and holdStart belong to whichever thread holds the lock meanwhile
+    private record SuspendedHold(int depth, boolean sampled) {
+    }
+
+    // Lock held, right before the condition releases it; null when not held (await() then throws, nothing to undo)
+    private SuspendedHold suspendHold() {
+        if (!delegate.isHeldByCurrentThread()) return null;
+        SuspendedHold suspended = new SuspendedHold(depth, holdStart != 0);
+        if (holdStart != 0) holds.record(System.nanoTime() - holdStart);
+        depth = 0;
+        holdStart = 0;
+        return suspended;
+    }
+
+    // Lock held again: await() re-acquires it before returning or throwing
+    private void resumeHold(SuspendedHold suspended) {
+        if (suspended == null) return;
+        depth = suspended.depth();
+        holdStart = suspended.sampled() ? System.nanoTime() : 0;
+    }
+
+    private final class ProfiledCondition implements Condition {
+        private final Condition condition;
+
+        ProfiledCondition(Condition condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        public void await() throws InterruptedException {
+            SuspendedHold suspended = suspendHold();
+            try {
+                condition.await();
+            } finally {
+                resumeHold(suspended);
+            }
+        }
+
+        @Override
+        public void awaitUninterruptibly() {
+            SuspendedHold suspended = suspendHold();
+            try {
+                condition.awaitUninterruptibly();
+            } finally {
+                resumeHold(suspended);
+            }
+        }
+
+        @Override
+        public long awaitNanos(long nanosTimeout) throws InterruptedException {
+            SuspendedHold suspended = suspendHold();
+            try {
+                return condition.awaitNanos(nanosTimeout);
+            } finally {
+                resumeHold(suspended);
+            }
+        }
+
+        @Override
+        public boolean await(long time, TimeUnit unit) throws InterruptedException {
+            SuspendedHold suspended = suspendHold();
+            try {
+                return condition.await(time, unit);
+            } finally {
+                resumeHold(suspended);
+            }
+        }
+
+        @Override
+        public boolean awaitUntil(Date deadline) throws InterruptedException {
+            SuspendedHold suspended = suspendHold();
+            try {
+                return condition.awaitUntil(deadline);
+            } finally {
+                resumeHold(suspended);
+            }
+        }
+
+        @Override
+        public void signal() {
+            condition.signal();
+        }
+
+        @Override
+        public void signalAll() {
+            condition.signalAll();
+        }
+    }
+
+    private static Stats merge(Stats a, Stats b) {
+        a.waits().add(b.waits());
+        a.timedOutWaits().add(b.timedOutWaits());
+        a.holds().add(b.holds());
+        return new Stats(a.name(), a.instances() + b.instances(), a.acquisitions() + b.acquisitions(),
+                a.contended() + b.contended(), a.failedTryLocks() + b.failedTryLocks(), a.waits(), a.timedOutWaits(),
+                a.holds());
+    }
+}
@@ -0,0 +1,169 @@
+package diagnosticsExample;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+// StartupBenchmark (cold-start time of a main class, with and without class-data sharing):
+// - NO_CDS      : -Xshare:off, every JDK class is parsed and verified from the jrt image
+// - DEFAULT_CDS : the JDK's built-in archive (JDK classes only) – what you get by default
+// - APP_CDS     : dynamic AppCDS archive of the application's own classes, written by a training run
+//                 (-XX:ArchiveClassesAtExit) and mapped at startup (-XX:SharedArchiveFile)
+// - AOT_CACHE   : JDK 24+ ahead-of-time cache (JEP 483): the training run also records which classes get
+//                 loaded and linked, they are then preloaded from -XX:AOTCache
+// - Each run logs class loading to a file (-Xlog:class+load) to count loaded classes and those served by an archive
+// - Archives are per class path and per JDK build: regenerate them whenever either changes
+// - CDS only archives classes loaded from JARs: class-path directories (an IDE's out/ folder) are packed into
+//   JARs under workDir first, and every mode runs from that same class path
+// Pros: Measures what autoscaling waits for (time to first output), from a real cold JVM
+// Cons: Training runs cost a full start each, archives are tens of MB on disk
+public final class StartupBenchmark {
+    public enum Mode {NO_CDS, DEFAULT_CDS, APP_CDS, AOT_CACHE}
+
+    // Medians over the runs
+    public record Measurement(String mainClass, Mode mode, long firstOutputMillis, long totalMillis,
+                              int classesLoaded, int classesFromArchive) {
+    }
+
+    private final JvmLauncher launcher;
+    private final Path workDir;
+    private final int runs;
+    private final Duration timeout;
+
+    public StartupBenchmark(JvmLauncher launcher, Path workDir, int runs, Duration timeout) {
+        if (runs <= 0) throw new IllegalArgumentException("runs must be positive");
+        this.workDir = workDir;
+        this.runs = runs;
+        this.timeout = timeout;
+        try {
+            Files.createDirectories(workDir);
+            this.launcher = new JvmLauncher(jarClassPath(launcher.classPath(), workDir));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int javaVersion() {
+        return launcher.javaVersion();
+    }
+
+    public boolean supports(Mode mode) {
+        return mode != Mode.AOT_CACHE || launcher.javaVersion() >= 24;
+    }
+
+    // Training run(s) for the archive-based modes, no-op for the others. Returns false if no archive was produced.
+    public boolean train(String mainClass, Mode mode) {
+        try {
+            for (String extension : List.of(".jsa", ".aotconf", ".aot")) {
+                Files.deleteIfExists(archive(mainClass, extension)); // Never measure a stale archive
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        switch (mode) {
+            case APP_CDS -> {
+                launcher.run(mainClass, List.of("-XX:ArchiveClassesAtExit=" + archive(mainClass, ".jsa")), timeout);
+                return Files.exists(archive(mainClass, ".jsa"));
+            }
+            case AOT_CACHE -> {
+                if (!supports(mode)) return false;
+                Path configuration = archive(mainClass, ".aotconf");
+                launcher.run(mainClass, List.of("-XX:AOTMode=record", "-XX:AOTConfiguration=" + configuration), timeout);
+                launcher.run(null, List.of("-XX:AOTMode=create", "-XX:AOTConfiguration=" + configuration,
+                        "-XX:AOTCache=" + archive(mainClass, ".aot")), timeout);
+                return Files.exists(archive(mainClass, ".aot"));
+            }
+            default -> {
+                return true;
+            }
+        }
+    }
+
+    public Measurement measure(String mainClass, Mode mode) {
+        long[] firstOutput = new long[runs];
+        long[] total = new long[runs];
+        int[] loaded = new int[runs];
+        int[] fromArchive = new int[runs];
+        for (int run = 0; run < runs; run++) {
+            Path classLog = workDir.resolve(mainClass + "-" + mode + "-" + run + ".classload.log");
+            List<String> options = new ArrayList<>(modeOptions(mainClass, mode));
+            options.add("-Xlog:class+load=info:file=" + classLog);
+            JvmLauncher.Result result = launcher.run(mainClass, options, timeout);
+            firstOutput[run] = result.firstOutputMillis();
+            total[run] = result.totalMillis();
+            int[] counts = countClasses(classLog);
+            loaded[run] = counts[0];
+            fromArchive[run] = counts[1];
+        }
+        return new Measurement(mainClass, mode, median(firstOutput), median(total),
+                (int) median(Arrays.stream(loaded).asLongStream().toArray()),
+                (int) median(Arrays.stream(fromArchive).asLongStream().toArray()));
+    }
+
+    private List<String> modeOptions(String mainClass, Mode mode) {
+        return switch (mode) {
+            case NO_CDS -> List.of("-Xshare:off");
+            case DEFAULT_CDS -> List.of();
+            case APP_CDS -> List.of("-XX:SharedArchiveFile=" + archive(mainClass, ".jsa"));
+            case AOT_CACHE -> List.of("-XX:AOTCache=" + archive(mainClass, ".aot"));
+        };
+    }
+
+    private Path archive(String mainClass, String extension) {
+        return workDir.resolve(mainClass + extension);
+    }
+
+    // [classes loaded, classes loaded from a CDS / AOT archive]
+    private static int[] countClasses(Path classLog) {
+        try {
+            List<String> lines = Files.readAllLines(classLog);
+            Files.deleteIfExists(classLog);
+            int shared = 0;
+            for (String line : lines) {
+                if (line.contains("shared objects file")) shared++; // "source: shared objects file (top)"
+            }
+            return new int[]{lines.size(), shared};
+        } catch (IOException e) {
+            return new int[]{-1, -1};
+        }
+    }
+
+    // Same class path with every directory entry replaced by a JAR of its content
+    private static String jarClassPath(String classPath, Path workDir) throws IOException {
+        List<String> entries = new ArrayList<>();
+        int jars = 0;
+        for (String entry : classPath.split(File.pathSeparator)) {
+            Path path = Path.of(entry);
+            if (!Files.isDirectory(path)) {
+                entries.add(entry);
+                continue;
+            }
+            Path jar = workDir.resolve("classpath-" + jars++ + ".jar");
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+                 Stream<Path> files = Files.walk(path)) {
+                for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                    out.putNextEntry(new JarEntry(path.relativize(file).toString().replace(File.separatorChar, '/')));
+                    Files.copy(file, out);
+                    out.closeEntry();
+                }
+            }
+            entries.add(jar.toString());
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
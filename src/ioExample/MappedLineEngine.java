@@ -0,0 +1,305 @@
+package ioExample;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Filters/aggregates huge newline-delimited files without decoding every line:
+// - The file is cut into line-aligned chunks (no line crosses a chunk boundary), each chunk is mapped on its own
+// - A Line is a view over the mapped bytes: predicates run on raw bytes, asString() only for the lines you keep
+// - Chunks are processed in parallel, either through a Spliterator (plugs into java.util.stream)
+//   or with explicit fork/join tasks on a pool of your choice
+// Pros: No per-line String/char[] allocation, no read() copies, scales with cores
+// Cons: UTF-8/ASCII line-oriented data only, a Line must not be kept once the callback returns
+public class MappedLineEngine implements AutoCloseable {
+    public static final long DEFAULT_CHUNK_SIZE = 32L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long[] boundaries; // chunk i = [boundaries[i], boundaries[i + 1])
+
+    private MappedLineEngine(FileChannel channel, long[] boundaries) {
+        this.channel = channel;
+        this.boundaries = boundaries;
+    }
+
+    public static MappedLineEngine open(Path file) throws IOException {
+        return open(file, DEFAULT_CHUNK_SIZE);
+    }
+
+    public static MappedLineEngine open(Path file, long chunkSize) throws IOException {
+        if (chunkSize <= 0 || chunkSize > (1L << 30)) {
+            throw new IllegalArgumentException("chunkSize must be in (0, 1 GB]: " + chunkSize);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new MappedLineEngine(channel, lineAlignedBoundaries(channel, chunkSize));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int chunkCount() {
+        return boundaries.length - 1;
+    }
+
+    // Matching lines as a stream of Strings: only matched lines are ever decoded
+    public Stream<String> lines(Predicate<Line> filter, boolean parallel) {
+        return StreamSupport.stream(new ChunkSpliterator(0, chunkCount(), filter), parallel);
+    }
+
+    public long count(Predicate<Line> filter, ForkJoinPool pool) {
+        return aggregate(() -> new long[1], (counter, line) -> {
+            if (filter.test(line)) counter[0]++;
+        }, (a, b) -> {
+            a[0] += b[0];
+            return a;
+        }, pool)[0];
+    }
+
+    // Same contract as Stream.collect: one accumulator per chunk, merged pairwise
+    public <A> A aggregate(Supplier<A> newAccumulator, BiConsumer<A, Line> accumulator, BinaryOperator<A> combiner,
+                           ForkJoinPool pool) {
+        return pool.invoke(new ChunkTask<>(this, 0, chunkCount(), newAccumulator, accumulator, combiner));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Flyweight over one line of a mapped chunk (without the trailing "\n" or "\r\n")
+    public static final class Line {
+        private ByteBuffer buffer;
+        private int start;
+        private int length;
+
+        public int length() {
+            return length;
+        }
+
+        public byte byteAt(int index) {
+            return buffer.get(start + index);
+        }
+
+        public boolean startsWith(byte[] prefix) {
+            return regionMatches(0, prefix);
+        }
+
+        public boolean regionMatches(int offset, byte[] bytes) {
+            if (offset < 0 || offset + bytes.length > length) return false;
+            for (int i = 0; i < bytes.length; i++) {
+                if (buffer.get(start + offset + i) != bytes[i]) return false;
+            }
+            return true;
+        }
+
+        public boolean contains(byte[] needle) {
+            return indexOf(needle) >= 0;
+        }
+
+        public int indexOf(byte[] needle) {
+            if (needle.length == 0) return 0;
+            byte first = needle[0];
+            for (int i = 0, last = length - needle.length; i <= last; i++) {
+                if (buffer.get(start + i) == first && regionMatches(i, needle)) return i;
+            }
+            return -1;
+        }
+
+        public String asString() {
+            byte[] bytes = new byte[length];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String toString() {
+            return asString();
+        }
+    }
+
+    // Visits every line of one chunk, reusing the same Line instance
+    private void forEachLine(int chunk, Consumer<Line> action) {
+        MappedByteBuffer buffer = map(chunk);
+        Line line = new Line();
+        line.buffer = buffer;
+        int limit = buffer.limit();
+        int position = 0;
+        while (position < limit) {
+            int end = nextLineEnd(buffer, position, limit);
+            setLine(line, position, end);
+            action.accept(line);
+            position = end + 1;
+        }
+    }
+
+    private MappedByteBuffer map(int chunk) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, boundaries[chunk], boundaries[chunk + 1] - boundaries[chunk]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int nextLineEnd(ByteBuffer buffer, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (buffer.get(i) == '\n') return i;
+        }
+        return limit; // Last line without a trailing newline
+    }
+
+    private static void setLine(Line line, int start, int end) {
+        int length = end - start;
+        if (length > 0 && line.buffer.get(end - 1) == '\r') length--;
+        line.start = start;
+        line.length = length;
+    }
+
+    // Cuts every ~chunkSize bytes, then moves each cut just after the next '\n'
+    private static long[] lineAlignedBoundaries(FileChannel channel, long chunkSize) throws IOException {
+        long size = channel.size();
+        List<Long> cuts = new ArrayList<>();
+        cuts.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long cut = 0;
+        while (cut + chunkSize < size) {
+            long position = cut + chunkSize;
+            long newline = -1;
+            while (newline < 0 && position < size) {
+                probe.clear();
+                int read = channel.read(probe, position);
+                if (read <= 0) break;
+                for (int i = 0; i < read; i++) {
+                    if (probe.get(i) == '\n') {
+                        newline = position + i;
+                        break;
+                    }
+                }
+                position += read;
+            }
+            if (newline < 0 || newline + 1 >= size) break;
+            if (newline + 1 - cut > Integer.MAX_VALUE) {
+                throw new IOException("A line longer than 2 GB cannot be mapped");
+            }
+            cut = newline + 1;
+            cuts.add(cut);
+        }
+        if (size - cut > Integer.MAX_VALUE) {
+            throw new IOException("A line longer than 2 GB cannot be mapped");
+        }
+        cuts.add(size);
+        long[] boundaries = new long[cuts.size()];
+        for (int i = 0; i < boundaries.length; i++) boundaries[i] = cuts.get(i);
+        return boundaries;
+    }
+
+    // Splits by chunk ranges, walks one mapped chunk at a time when advancing
+    private final class ChunkSpliterator implements Spliterator<String> {
+        private final Predicate<Line> filter;
+        private int nextChunk;
+        private int endChunk;
+        private final Line line = new Line();
+        private int position;
+        private int limit;
+
+        ChunkSpliterator(int fromChunk, int endChunk, Predicate<Line> filter) {
+            this.nextChunk = fromChunk;
+            this.endChunk = endChunk;
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            while (true) {
+                if (line.buffer == null || position >= limit) {
+                    if (nextChunk >= endChunk) return false;
+                    line.buffer = map(nextChunk++);
+                    position = 0;
+                    limit = line.buffer.limit();
+                    continue;
+                }
+                int end = nextLineEnd(line.buffer, position, limit);
+                setLine(line, position, end);
+                position = end + 1;
+                if (filter.test(line)) {
+                    action.accept(line.asString());
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            int remaining = endChunk - nextChunk;
+            if (remaining < 2) return null;
+            int middle = nextChunk + remaining / 2;
+            ChunkSpliterator suffix = new ChunkSpliterator(middle, endChunk, filter);
+            endChunk = middle;
+            return suffix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return boundaries[endChunk] - boundaries[nextChunk] + (limit - position); // In bytes, good enough for splitting
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    // ForkJoinTask is Serializable, this task never is: the fields are transient
+    private static final class ChunkTask<A> extends RecursiveTask<A> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient MappedLineEngine engine;
+        private final int fromChunk;
+        private final int endChunk;
+        private final transient Supplier<A> newAccumulator;
+        private final transient BiConsumer<A, Line> accumulator;
+        private final transient BinaryOperator<A> combiner;
+
+        ChunkTask(MappedLineEngine engine, int fromChunk, int endChunk, Supplier<A> newAccumulator,
+                  BiConsumer<A, Line> accumulator, BinaryOperator<A> combiner) {
+            this.engine = engine;
+            this.fromChunk = fromChunk;
+            this.endChunk = endChunk;
+            this.newAccumulator = newAccumulator;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected A compute() {
+            if (endChunk - fromChunk <= 1) {
+                A result = newAccumulator.get();
+                if (fromChunk < endChunk) engine.forEachLine(fromChunk, line -> accumulator.accept(result, line));
+                return result;
+            }
+            int middle = (fromChunk + endChunk) >>> 1;
+            ChunkTask<A> right = new ChunkTask<>(engine, middle, endChunk, newAccumulator, accumulator, combiner);
+            right.fork();
+            A left = new ChunkTask<>(engine, fromChunk, middle, newAccumulator, accumulator, combiner).compute();
+            return combiner.apply(left, right.join());
+        }
+    }
+}
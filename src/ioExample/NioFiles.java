@@ -0,0 +1,205 @@
+package ioExample;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+// Reusable file I/O helpers, from the slowest to the fastest way of touching the bytes.
+// Every "count" method returns the number of '\n' (or lines), so the implementations are interchangeable.
+public final class NioFiles {
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    // A mapping is limited to 2 GB, bigger files are mapped region by region
+    private static final long MAX_MAPPING_SIZE = Integer.MAX_VALUE;
+
+    private NioFiles() {
+    }
+
+    // Classic approach: decodes every byte to a char and allocates one String per line
+    public static long countLinesBufferedReader(Path file, int bufferSize) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file.toFile()), StandardCharsets.UTF_8), bufferSize)) {
+            long lines = 0;
+            while (reader.readLine() != null) lines++;
+            return lines;
+        }
+    }
+
+    // Same cost as BufferedReader (it is one underneath), but lazily streamed
+    public static long countLinesFilesLines(Path file) throws IOException {
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines.count();
+        }
+    }
+
+    // Raw bytes, no decoding: the buffer size decides the number of read() system calls
+    public static long countNewlinesInputStream(Path file, int bufferSize) throws IOException {
+        try (InputStream in = new FileInputStream(file.toFile())) {
+            byte[] buffer = new byte[bufferSize];
+            long newlines = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') newlines++;
+                }
+            }
+            return newlines;
+        }
+    }
+
+    // Pass ByteBuffer.allocate(n) or ByteBuffer.allocateDirect(n): a heap buffer costs one extra copy per read
+    // because the kernel can only write into native memory. Reuse the buffer between calls.
+    public static long countNewlinesChannel(Path file, ByteBuffer buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long newlines = 0;
+            buffer.clear();
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                newlines += countNewlines(buffer);
+                buffer.clear();
+            }
+            return newlines;
+        }
+    }
+
+    // No read() calls at all: pages are faulted in on access, the page cache is the buffer
+    public static long countNewlinesMapped(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long newlines = 0;
+            for (long position = 0; position < size; position += MAX_MAPPING_SIZE) {
+                long length = Math.min(MAX_MAPPING_SIZE, size - position);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                newlines += scanDirect(region);
+            }
+            return newlines;
+        }
+    }
+
+    // Counts '\n' between position and limit without moving the position
+    public static long countNewlines(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            byte[] array = buffer.array();
+            long newlines = 0;
+            for (int i = buffer.arrayOffset() + buffer.position(), limit = buffer.arrayOffset() + buffer.limit(); i < limit; i++) {
+                if (array[i] == '\n') newlines++;
+            }
+            return newlines;
+        }
+        return scanDirect(buffer);
+    }
+
+    // Kept apart from the heap loop so each loop only ever sees one buffer class (monomorphic, fully inlined get)
+    private static long scanDirect(ByteBuffer buffer) {
+        long newlines = 0;
+        for (int i = buffer.position(), limit = buffer.limit(); i < limit; i++) {
+            if (buffer.get(i) == '\n') newlines++;
+        }
+        return newlines;
+    }
+
+    // Copy through a Java byte[]: every byte crosses the user/kernel boundary twice
+    public static long copyStreams(Path source, Path target, int bufferSize) throws IOException {
+        try (InputStream in = new FileInputStream(source.toFile());
+             OutputStream out = new FileOutputStream(target.toFile())) {
+            byte[] buffer = new byte[bufferSize];
+            long copied = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                copied += read;
+            }
+            return copied;
+        }
+    }
+
+    // Copy through a (preferably direct) ByteBuffer
+    public static long copyChannel(Path source, Path target, ByteBuffer buffer) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = openForWrite(target)) {
+            long copied = 0;
+            buffer.clear();
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) copied += out.write(buffer);
+                buffer.clear();
+            }
+            return copied;
+        }
+    }
+
+    // Zero-copy: the kernel moves the bytes (sendfile/copy_file_range), they never reach the Java heap
+    public static long copyTransferTo(Path source, Path target) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = openForWrite(target)) {
+            long size = in.size();
+            long position = 0;
+            // transferTo may move fewer bytes than asked for: always loop, but stop if the source shrank meanwhile
+            // (past the end, transferTo returns 0 forever)
+            while (position < size) {
+                long transferred = in.transferTo(position, size - position, out);
+                if (transferred == 0) {
+                    size = Math.min(size, in.size());
+                    if (position >= size) break;
+                }
+                position += transferred;
+            }
+            return position;
+        }
+    }
+
+    // Log-like test data: "2025-01-01T00:00:00.000 INFO  [worker-3] request 42 served in 17 ms"
+    public static Path createLogFile(Path file, long targetBytes) throws IOException {
+        String[] levels = {"INFO ", "DEBUG", "WARN ", "ERROR"};
+        ByteBuffer buffer = ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE);
+        try (FileChannel out = openForWrite(file)) {
+            long written = 0;
+            for (long i = 0; written < targetBytes; i++) {
+                String line = "2025-01-01T00:00:" + String.format("%02d.%03d", (i / 1000) % 60, i % 1000)
+                        + " " + levels[(int) (i % 97 == 0 ? 3 : i % 3)] + " [worker-" + (i % 8) + "] request "
+                        + i + " served in " + (i * 31 % 250) + " ms\n";
+                byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+                if (buffer.remaining() < bytes.length) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) out.write(buffer);
+                    buffer.clear();
+                }
+                buffer.put(bytes);
+                written += bytes.length;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) out.write(buffer);
+        }
+        return file;
+    }
+
+    // Bytes per second expressed in MB/s (1 MB = 1024 * 1024 bytes)
+    public static double megabytesPerSecond(long bytes, long nanos) {
+        return (bytes / (1024.0 * 1024.0)) / (nanos / 1_000_000_000.0);
+    }
+
+    public static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static FileChannel openForWrite(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+}
@@ -0,0 +1,107 @@
+package memoryExample;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Heap pressure monitor (push instead of System.gc() + sleep):
+// - Arms the JVM's own low-memory detector on every heap pool that supports it:
+//   * usage threshold            : occupancy crossed X% of the pool max (garbage included)
+//   * collection usage threshold : still above X% right AFTER a GC (= live data, the real signal)
+// - Listeners are called on the JMX notification thread, once per threshold crossing
+// - Listeners are held weakly: registering a cache never keeps it alive
+// Pros: Caches can shed entries before the collector is forced into back-to-back full GCs
+// Cons: Thresholds are per pool and global to the JVM (one monitor per JVM), pools without a max are skipped
+public final class HeapPressureMonitor implements AutoCloseable {
+    @FunctionalInterface
+    public interface Listener {
+        void onHeapPressure(String pool, MemoryUsage usage);
+    }
+
+    private final List<MemoryPoolMXBean> pools = new ArrayList<>();
+    private final List<WeakReference<Listener>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong events = new AtomicLong();
+    private final NotificationEmitter emitter = (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+    private final NotificationListener notificationListener = this::handle;
+
+    private HeapPressureMonitor(double occupancy) {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            long max = pool.getUsage().getMax();
+            if (pool.getType() != MemoryType.HEAP || max <= 0) continue;
+            long threshold = (long) (max * occupancy);
+            boolean armed = false;
+            if (pool.isUsageThresholdSupported()) {
+                pool.setUsageThreshold(threshold);
+                armed = true;
+            }
+            if (pool.isCollectionUsageThresholdSupported()) {
+                pool.setCollectionUsageThreshold(threshold);
+                armed = true;
+            }
+            if (armed) pools.add(pool);
+        }
+        emitter.addNotificationListener(notificationListener, null, null);
+    }
+
+    // occupancy: fraction of each pool's max, e.g. 0.7
+    public static HeapPressureMonitor install(double occupancy) {
+        if (occupancy <= 0 || occupancy >= 1) throw new IllegalArgumentException("occupancy must be in (0, 1)");
+        return new HeapPressureMonitor(occupancy);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(new WeakReference<>(listener));
+    }
+
+    public List<String> monitoredPools() {
+        return pools.stream().map(MemoryPoolMXBean::getName).toList();
+    }
+
+    public long pressureEvents() {
+        return events.get();
+    }
+
+    private void handle(Notification notification, Object handback) {
+        String type = notification.getType();
+        if (!MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(type)
+                && !MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(type)) {
+            return;
+        }
+        MemoryNotificationInfo info = MemoryNotificationInfo.from((CompositeData) notification.getUserData());
+        events.incrementAndGet();
+        for (WeakReference<Listener> reference : listeners) {
+            Listener listener = reference.get();
+            if (listener == null) {
+                listeners.remove(reference); // Owner was collected
+            } else {
+                listener.onHeapPressure(info.getPoolName(), info.getUsage());
+            }
+        }
+    }
+
+    // Disarms the thresholds (0 = disabled) and stops listening
+    @Override
+    public void close() {
+        for (MemoryPoolMXBean pool : pools) {
+            if (pool.isUsageThresholdSupported()) pool.setUsageThreshold(0);
+            if (pool.isCollectionUsageThresholdSupported()) pool.setCollectionUsageThreshold(0);
+        }
+        try {
+            emitter.removeNotificationListener(notificationListener);
+        } catch (ListenerNotFoundException ignored) {
+            // Already removed
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package memoryExample;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Persistent String -> String map stored in memory-mapped files:
+// - <file>      append-only log, put/remove only ever append a record
+// - <file>.idx  open-addressing hash table (key hash -> log offset of the latest record for that key)
+// - Re-opening maps both files and only replays the log tail the index has not seen yet:
+//   no key is decoded and nothing is re-populated, so a warm restart takes milliseconds
+// - compact() rewrites only the live records once overwritten/removed ones dominate the log
+// - Not thread-safe, a single process must own the files
+// Pros: Survives restarts, keys and values stay in the page cache instead of the Java heap
+// Cons: Log limited to 2 GB (one MappedByteBuffer), data reaches the disk only on force() or OS write-back
+//
+// Log layout:
+//   [int magic][int version][long end][long generation]      'end' is the committed log size
+//   [int keyLength][int valueLength or -1][key][value] ...   records (-1 = tombstone)
+// Index layout:
+//   [int magic][int slotCount][long generation][long indexedEnd][long deadBytes][int live][int used]
+//   [int hash][int offset] x slotCount                        offset 0 = empty slot
+// 'generation' ties an index to its log: a mismatch (e.g. crash during compaction) means a rebuild.
+// The index magic is written last when the table is (re)built: a crash while growing it also means a rebuild.
+public class MappedKeyValueStore implements AutoCloseable {
+    private static final int LOG_MAGIC = 0x4A4F4B56; // "JOKV"
+    private static final int INDEX_MAGIC = 0x4A4F4958; // "JOIX"
+    private static final int VERSION = 2;
+    private static final int LOG_HEADER_SIZE = 24;
+    private static final int INDEX_HEADER_SIZE = 40;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int SLOT_SIZE = 8;
+    private static final int TOMBSTONE = -1;
+    private static final int MIN_SLOTS = 1024;
+    private static final long MIN_COMPACTION_SIZE = 4L * 1024 * 1024;
+
+    private final Path logPath;
+    private final Path indexPath;
+    private FileChannel logChannel;
+    private FileChannel indexChannel;
+    private MappedByteBuffer log;
+    private MappedByteBuffer index;
+
+    // Mirrors of the header fields (the headers are rewritten on every change)
+    private int end;
+    private long generation;
+    private int slotCount;
+    private long deadBytes;
+    private int live;
+    private int used;
+
+    private MappedKeyValueStore(Path logPath, int initialLogCapacity, int initialSlots) throws IOException {
+        this.logPath = logPath;
+        this.indexPath = logPath.resolveSibling(logPath.getFileName() + ".idx");
+        open(initialLogCapacity, initialSlots);
+    }
+
+    public static MappedKeyValueStore open(Path path) throws IOException {
+        return new MappedKeyValueStore(path, 1024 * 1024, MIN_SLOTS);
+    }
+
+    // Pre-sizing avoids remapping the log and rehashing the index while it fills up
+    public static MappedKeyValueStore open(Path path, int initialLogBytes, int expectedEntries) throws IOException {
+        return new MappedKeyValueStore(path, Math.max(LOG_HEADER_SIZE, initialLogBytes), slotsFor(expectedEntries));
+    }
+
+    public String get(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int slot = findSlot(keyBytes, hash(keyBytes));
+        if (slot < 0) return null;
+        int offset = slotOffset(slot);
+        int valueLength = log.getInt(offset + 4);
+        if (valueLength == TOMBSTONE) return null;
+        return decode(offset + RECORD_HEADER_SIZE + keyBytes.length, valueLength);
+    }
+
+    public boolean containsKey(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int slot = findSlot(keyBytes, hash(keyBytes));
+        return slot >= 0 && log.getInt(slotOffset(slot) + 4) != TOMBSTONE;
+    }
+
+    public void put(String key, String value) throws IOException {
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        applyToIndex(append(key.getBytes(StandardCharsets.UTF_8), valueBytes, valueBytes.length));
+        compactIfNeeded();
+    }
+
+    public void remove(String key) throws IOException {
+        if (!containsKey(key)) return;
+        applyToIndex(append(key.getBytes(StandardCharsets.UTF_8), new byte[0], TOMBSTONE));
+        compactIfNeeded();
+    }
+
+    public int size() {
+        return live;
+    }
+
+    public long fileBytes() {
+        return end;
+    }
+
+    // Flushes dirty pages to the storage device (mapped writes alone only survive a process crash)
+    public void force() {
+        log.force();
+        index.force();
+    }
+
+    // Rewrites the live records into fresh files and swaps them in
+    public void compact() throws IOException {
+        Path compactedLog = logPath.resolveSibling(logPath.getFileName() + ".compact");
+        Path compactedIndex = compactedLog.resolveSibling(compactedLog.getFileName() + ".idx");
+        Files.deleteIfExists(compactedLog);
+        Files.deleteIfExists(compactedIndex);
+        int liveBytes = (int) (end - deadBytes);
+        try (MappedKeyValueStore target = new MappedKeyValueStore(compactedLog, liveBytes, slotsFor(live))) {
+            for (int slot = 0; slot < slotCount; slot++) {
+                int offset = slotOffset(slot);
+                if (offset == 0 || log.getInt(offset + 4) == TOMBSTONE) continue;
+                int keyLength = log.getInt(offset);
+                int valueLength = log.getInt(offset + 4);
+                byte[] keyBytes = new byte[keyLength];
+                byte[] valueBytes = new byte[valueLength];
+                log.get(offset + RECORD_HEADER_SIZE, keyBytes);
+                log.get(offset + RECORD_HEADER_SIZE + keyLength, valueBytes);
+                target.applyToIndex(target.append(keyBytes, valueBytes, valueLength));
+            }
+        }
+        closeChannels();
+        // Whatever the crash point between the two moves, the generations differ and open() rebuilds the index
+        Files.move(compactedIndex, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(compactedLog, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        open(LOG_HEADER_SIZE, MIN_SLOTS);
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        closeChannels();
+    }
+
+    private void open(int initialLogCapacity, int initialSlots) throws IOException {
+        logChannel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean freshLog = logChannel.size() == 0;
+        log = logChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(logChannel.size(), initialLogCapacity));
+        if (freshLog) {
+            log.putInt(0, LOG_MAGIC);
+            log.putInt(4, VERSION);
+            log.putLong(16, ThreadLocalRandom.current().nextLong());
+            writeEnd(LOG_HEADER_SIZE);
+        } else if (log.getInt(0) != LOG_MAGIC || log.getInt(4) != VERSION) {
+            logChannel.close();
+            throw new IOException(logPath + " is not a key/value log (bad magic or version)");
+        }
+        end = (int) log.getLong(8);
+        generation = log.getLong(16);
+
+        indexChannel = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (indexChannel.size() >= INDEX_HEADER_SIZE) {
+            index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexChannel.size());
+        }
+        long indexedEnd;
+        if (index != null && index.getInt(0) == INDEX_MAGIC && index.getLong(8) == generation
+                && index.getLong(16) <= end) {
+            slotCount = index.getInt(4);
+            indexedEnd = index.getLong(16);
+            deadBytes = index.getLong(24);
+            live = index.getInt(32);
+            used = index.getInt(36);
+        } else {
+            // Missing, foreign or stale index: start over and replay the whole log
+            formatIndex(initialSlots);
+            indexedEnd = LOG_HEADER_SIZE;
+        }
+        for (int offset = (int) indexedEnd; offset < end; offset += recordSize(offset)) {
+            applyToIndex(offset);
+        }
+    }
+
+    private void formatIndex(int slots) throws IOException {
+        mapEmptyIndex(slots);
+        deadBytes = 0;
+        live = 0;
+        used = 0;
+        publishIndex(LOG_HEADER_SIZE);
+    }
+
+    // Truncating drops the magic too: until publishIndex(), a crash leaves no valid index and open() replays the log
+    private void mapEmptyIndex(int slots) throws IOException {
+        indexChannel.truncate(0);
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER_SIZE + (long) slots * SLOT_SIZE);
+        slotCount = slots;
+    }
+
+    // The magic goes in last, once the slots and counters describe the log up to 'indexedEnd'
+    private void publishIndex(long indexedEnd) {
+        index.putInt(4, slotCount);
+        index.putLong(8, generation);
+        writeIndexHeader(indexedEnd);
+        index.putInt(0, INDEX_MAGIC);
+    }
+
+    // Points the key's slot at the record written at 'offset' and keeps the counters in sync
+    private void applyToIndex(int offset) throws IOException {
+        int keyLength = log.getInt(offset);
+        boolean tombstone = log.getInt(offset + 4) == TOMBSTONE;
+        byte[] keyBytes = new byte[keyLength];
+        log.get(offset + RECORD_HEADER_SIZE, keyBytes);
+        int hash = hash(keyBytes);
+        int slot = findSlot(keyBytes, hash);
+
+        if (slot >= 0) {
+            int previous = slotOffset(slot);
+            boolean previousTombstone = log.getInt(previous + 4) == TOMBSTONE;
+            if (!previousTombstone) deadBytes += recordSize(previous); // A tombstone was already counted as dead
+            if (previousTombstone && !tombstone) live++;
+            if (!previousTombstone && tombstone) live--;
+            index.putInt(slotPosition(slot) + 4, offset);
+        } else if (!tombstone) {
+            int position = slotPosition(-slot - 1);
+            index.putInt(position, hash);
+            index.putInt(position + 4, offset);
+            live++;
+            used++;
+        }
+        if (tombstone) deadBytes += recordSize(offset);
+        writeIndexHeader(offset + recordSize(offset));
+
+        if (used * 2L > slotCount) {
+            growIndex();
+        }
+    }
+
+    // Doubles the table; slots whose latest record is a tombstone are dropped on the way
+    private void growIndex() throws IOException {
+        int[] hashes = new int[live];
+        int[] offsets = new int[live];
+        int count = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            int offset = slotOffset(slot);
+            if (offset == 0 || log.getInt(offset + 4) == TOMBSTONE) continue;
+            hashes[count] = index.getInt(slotPosition(slot));
+            offsets[count++] = offset;
+        }
+        long indexedEnd = index.getLong(16);
+        mapEmptyIndex(slotsFor(Math.max(live, slotCount)));
+        int mask = slotCount - 1;
+        for (int i = 0; i < count; i++) {
+            int slot = hashes[i] & mask;
+            while (slotOffset(slot) != 0) slot = (slot + 1) & mask;
+            index.putInt(slotPosition(slot), hashes[i]);
+            index.putInt(slotPosition(slot) + 4, offsets[i]);
+        }
+        live = count;
+        used = count;
+        publishIndex(indexedEnd); // deadBytes is unchanged: the log did not move
+    }
+
+    // Linear probing: slot index if the key is present, -(insertion point + 1) otherwise
+    private int findSlot(byte[] keyBytes, int hash) {
+        int mask = slotCount - 1;
+        int slot = hash & mask;
+        while (true) {
+            int offset = slotOffset(slot);
+            if (offset == 0) return -slot - 1;
+            if (index.getInt(slotPosition(slot)) == hash && keyEquals(offset, keyBytes)) return slot;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean keyEquals(int offset, byte[] keyBytes) {
+        if (log.getInt(offset) != keyBytes.length) return false;
+        int keyStart = offset + RECORD_HEADER_SIZE;
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (log.get(keyStart + i) != keyBytes[i]) return false;
+        }
+        return true;
+    }
+
+    private int append(byte[] keyBytes, byte[] valueBytes, int valueLength) throws IOException {
+        int size = RECORD_HEADER_SIZE + keyBytes.length + valueBytes.length;
+        ensureLogCapacity((long) end + size);
+        int offset = end;
+        log.putInt(offset, keyBytes.length);
+        log.putInt(offset + 4, valueLength);
+        log.put(offset + RECORD_HEADER_SIZE, keyBytes);
+        log.put(offset + RECORD_HEADER_SIZE + keyBytes.length, valueBytes);
+        // The record is fully written before 'end' moves past it: a crash never exposes half a record
+        writeEnd(offset + size);
+        return offset;
+    }
+
+    private void ensureLogCapacity(long required) throws IOException {
+        if (required <= log.capacity()) return;
+        if (required > Integer.MAX_VALUE) {
+            throw new IOException("Key/value log is full (2 GB): compact it or shard the data");
+        }
+        long newCapacity = Math.min(Integer.MAX_VALUE, Math.max(required, (long) log.capacity() * 2));
+        log = logChannel.map(FileChannel.MapMode.READ_WRITE, 0, newCapacity);
+    }
+
+    private void compactIfNeeded() throws IOException {
+        if (end >= MIN_COMPACTION_SIZE && deadBytes * 2 > end) {
+            compact();
+        }
+    }
+
+    private void closeChannels() throws IOException {
+        logChannel.close();
+        indexChannel.close();
+        index = null;
+    }
+
+    private void writeEnd(int newEnd) {
+        end = newEnd;
+        log.putLong(8, newEnd);
+    }
+
+    private void writeIndexHeader(long indexedEnd) {
+        index.putLong(16, indexedEnd);
+        index.putLong(24, deadBytes);
+        index.putInt(32, live);
+        index.putInt(36, used);
+    }
+
+    private int slotPosition(int slot) {
+        return INDEX_HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private int slotOffset(int slot) {
+        return index.getInt(slotPosition(slot) + 4);
+    }
+
+    private int recordSize(int offset) {
+        int valueLength = log.getInt(offset + 4);
+        return RECORD_HEADER_SIZE + log.getInt(offset) + (valueLength == TOMBSTONE ? 0 : valueLength);
+    }
+
+    private String decode(int offset, int length) {
+        byte[] bytes = new byte[length];
+        log.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Power of two, at most half full
+    private static int slotsFor(int entries) {
+        int slots = MIN_SLOTS;
+        while (slots < entries * 2L) slots <<= 1;
+        return slots;
+    }
+
+    private static int hash(byte[] keyBytes) {
+        int h = 1;
+        for (byte b : keyBytes) h = 31 * h + b;
+        h *= 0x9E3779B9; // Spreads sequential keys ("user1", "user2", ...) across the table
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,206 @@
+package memoryExample;
+
+import java.lang.ref.Cleaner;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// ObjectPool (reuse instead of new – only when the benchmarks say so):
+// - acquire(): thread-local cache first (no synchronization), then a shared lock-free stack, then the factory
+// - release(): reset hook, back to the thread-local cache; overflow goes to the shared stack (bounded by maxIdle),
+//   beyond that the object is dropped and left to the GC
+// - lease(): try-with-resources handle; a lease collected without close() is reported as a leak
+//   (with the acquiring stack trace when leak tracking is on)
+// - Leak tracking (debug only: one synchronized map update per acquire/release) also covers acquire()/release():
+//   outstanding() lists what was never given back, a double or foreign release() throws instead of corrupting the pool
+// - Thread-safe, objects may be released on another thread than the one that acquired them
+// Pros: Saves the allocation + zeroing of large buffers and the setup of expensive objects (digests, codecs...)
+// Cons: Slower than a TLAB allocation for small objects, pooled objects get promoted to the old generation,
+//       a missing reset() leaks state between users
+public class ObjectPool<T> {
+    private static final int LOCAL_CAPACITY = 8;
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final Supplier<? extends T> factory;
+    private final Consumer<? super T> reset;
+    private final int maxIdle;
+    private final boolean trackLeaks;
+    private final Map<T, Throwable> outstanding; // Leak tracking only: object -> where it was acquired
+    private final ThreadLocal<LocalCache> local = ThreadLocal.withInitial(LocalCache::new);
+    private final AtomicReference<Node<T>> shared = new AtomicReference<>();
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder leaked = new LongAdder();
+
+    private static final class LocalCache {
+        final Object[] items = new Object[LOCAL_CAPACITY];
+        int count;
+    }
+
+    // Immutable Treiber-stack node: depth bounds the stack without a separate counter
+    private record Node<T>(T item, Node<T> next, int depth) {
+    }
+
+    // maxIdle: objects kept in the shared stack (thread-local caches hold up to 8 more per thread)
+    public ObjectPool(Supplier<? extends T> factory, Consumer<? super T> reset, int maxIdle, boolean trackLeaks) {
+        if (maxIdle < 0) throw new IllegalArgumentException("maxIdle must be >= 0");
+        this.factory = factory;
+        this.reset = reset;
+        this.maxIdle = maxIdle;
+        this.trackLeaks = trackLeaks;
+        this.outstanding = trackLeaks ? Collections.synchronizedMap(new IdentityHashMap<>()) : null;
+    }
+
+    public ObjectPool(Supplier<? extends T> factory, Consumer<? super T> reset, int maxIdle) {
+        this(factory, reset, maxIdle, false);
+    }
+
+    public T acquire() {
+        T item = take();
+        if (outstanding != null) outstanding.put(item, new Throwable("Acquired here"));
+        return item;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T take() {
+        LocalCache cache = local.get();
+        if (cache.count > 0) {
+            T item = (T) cache.items[--cache.count];
+            cache.items[cache.count] = null;
+            reused.increment();
+            return item;
+        }
+        Node<T> head;
+        while ((head = shared.get()) != null) {
+            if (shared.compareAndSet(head, head.next())) {
+                reused.increment();
+                return head.item();
+            }
+        }
+        created.increment();
+        return factory.get();
+    }
+
+    public void release(T item) {
+        if (item == null) throw new NullPointerException();
+        if (outstanding != null && outstanding.remove(item) == null) {
+            throw new IllegalStateException("Released twice, or never acquired from this pool: "
+                    + item.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(item)));
+        }
+        reset.accept(item);
+        LocalCache cache = local.get();
+        if (cache.count < LOCAL_CAPACITY) {
+            cache.items[cache.count++] = item;
+            return;
+        }
+        Node<T> head;
+        do {
+            head = shared.get();
+            int depth = head == null ? 0 : head.depth();
+            if (depth >= maxIdle) {
+                dropped.increment(); // Pool is full: let the GC have it
+                return;
+            }
+        } while (!shared.compareAndSet(head, new Node<>(item, head, head == null ? 1 : head.depth() + 1)));
+    }
+
+    // try (var lease = pool.lease()) { use(lease.get()); } – released on close, reported if never closed
+    public Lease<T> lease() {
+        return new Lease<>(this, acquire());
+    }
+
+    // Objects waiting in the shared stack (thread-local caches not included)
+    public int idle() {
+        Node<T> head = shared.get();
+        return head == null ? 0 : head.depth();
+    }
+
+    public long created() {
+        return created.sum();
+    }
+
+    public long reused() {
+        return reused.sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    // Leases that were garbage-collected without close(): their object never came back
+    public long leaked() {
+        return leaked.sum();
+    }
+
+    // Leak tracking only: where each object acquired and not released yet was acquired (empty when tracking is off)
+    public List<Throwable> outstanding() {
+        if (outstanding == null) return List.of();
+        synchronized (outstanding) {
+            return new ArrayList<>(outstanding.values());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ObjectPool[created=" + created() + ", reused=" + reused() + ", dropped=" + dropped()
+                + ", leaked=" + leaked() + "]";
+    }
+
+    public static final class Lease<T> implements AutoCloseable {
+        private final ObjectPool<T> pool;
+        private final T item;
+        private final LeakState state;
+        private final Cleaner.Cleanable cleanable;
+
+        private Lease(ObjectPool<T> pool, T item) {
+            this.pool = pool;
+            this.item = item;
+            this.state = new LeakState(pool.leaked, pool.trackLeaks ? new Throwable("Acquired here") : null);
+            this.cleanable = CLEANER.register(this, state);
+        }
+
+        public T get() {
+            if (state.closed.get()) throw new IllegalStateException("Lease already closed");
+            return item;
+        }
+
+        // Idempotent, also when two threads close the same lease: only the CAS winner releases the object
+        @Override
+        public void close() {
+            if (!state.closed.compareAndSet(false, true)) return;
+            cleanable.clean(); // Runs LeakState once, sees closed = true, reports nothing
+            pool.release(item);
+        }
+    }
+
+    // Cleaner action: must not reference the Lease, or the lease would never become unreachable
+    private static final class LeakState implements Runnable {
+        private final LongAdder leaked;
+        private final Throwable acquiredAt;
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        LeakState(LongAdder leaked, Throwable acquiredAt) {
+            this.leaked = leaked;
+            this.acquiredAt = acquiredAt;
+        }
+
+        @Override
+        public void run() {
+            if (closed.get()) return;
+            leaked.increment();
+            if (acquiredAt != null) {
+                System.err.println("[POOL LEAK] pooled object never released");
+                acquiredAt.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package memoryExample;
+
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.ValueLayout;
+import java.util.HashMap;
+import java.util.Map;
+
+// Off-heap store of fixed-layout records:
+// - The record shape is a StructLayout (e.g. id:long, lastAccess:long, score:double)
+// - Each record lives in one SlabAllocator slot, its id is the slot handle
+// - Not thread-safe
+// Pros: Millions of records cost the GC nothing (no object headers, no references to trace)
+// Cons: Only primitive fields, records must be removed explicitly, close() invalidates every id
+public class OffHeapRecordStore implements AutoCloseable {
+
+    // Resolved once, then reused on every access (avoids a name lookup in the hot path)
+    public static final class Field {
+        private final String name;
+        private final ValueLayout layout;
+        private final long offset;
+
+        private Field(String name, ValueLayout layout, long offset) {
+            this.name = name;
+            this.layout = layout;
+            this.offset = offset;
+        }
+
+        public String name() {
+            return name;
+        }
+    }
+
+    private final StructLayout layout;
+    private final SlabAllocator allocator;
+    private final Map<String, Field> fields = new HashMap<>();
+
+    public OffHeapRecordStore(StructLayout layout, int recordsPerSlab) {
+        this.layout = layout;
+        this.allocator = SlabAllocator.ofArena(layout.byteSize(), recordsPerSlab);
+        for (MemoryLayout member : layout.memberLayouts()) {
+            if (member.name().isEmpty()) continue; // padding
+            if (!(member instanceof ValueLayout valueLayout)) {
+                throw new IllegalArgumentException("Only primitive fields are supported: " + member);
+            }
+            String name = member.name().get();
+            long offset = layout.byteOffset(MemoryLayout.PathElement.groupElement(name));
+            fields.put(name, new Field(name, valueLayout, offset));
+        }
+    }
+
+    public Field field(String name) {
+        Field field = fields.get(name);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown field '" + name + "' in " + layout);
+        }
+        return field;
+    }
+
+    // New record, zero-filled
+    public long add() {
+        long id = allocator.allocate();
+        allocator.segment(id).fill((byte) 0);
+        return id;
+    }
+
+    public void remove(long id) {
+        allocator.free(id);
+    }
+
+    public long getLong(long id, Field field) {
+        return allocator.segment(id).get(as(field, ValueLayout.OfLong.class), field.offset);
+    }
+
+    public void setLong(long id, Field field, long value) {
+        allocator.segment(id).set(as(field, ValueLayout.OfLong.class), field.offset, value);
+    }
+
+    public int getInt(long id, Field field) {
+        return allocator.segment(id).get(as(field, ValueLayout.OfInt.class), field.offset);
+    }
+
+    public void setInt(long id, Field field, int value) {
+        allocator.segment(id).set(as(field, ValueLayout.OfInt.class), field.offset, value);
+    }
+
+    public double getDouble(long id, Field field) {
+        return allocator.segment(id).get(as(field, ValueLayout.OfDouble.class), field.offset);
+    }
+
+    public void setDouble(long id, Field field, double value) {
+        allocator.segment(id).set(as(field, ValueLayout.OfDouble.class), field.offset, value);
+    }
+
+    // Raw record view, e.g. to copy a record in one call with MemorySegment.copy
+    public MemorySegment record(long id) {
+        return allocator.segment(id);
+    }
+
+    public long size() {
+        return allocator.liveSlots();
+    }
+
+    public long reservedBytes() {
+        return allocator.reservedBytes();
+    }
+
+    @Override
+    public void close() {
+        allocator.close();
+    }
+
+    private static <T extends ValueLayout> T as(Field field, Class<T> type) {
+        if (!type.isInstance(field.layout)) {
+            throw new IllegalArgumentException("Field '" + field.name + "' is " + field.layout + ", not " + type.getSimpleName());
+        }
+        return type.cast(field.layout);
+    }
+}
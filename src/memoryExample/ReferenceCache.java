@@ -0,0 +1,284 @@
+package memoryExample;
+
+import diagnosticsExample.JfrEvents;
+
+import java.lang.management.MemoryUsage;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// ReferenceCache (a concurrent, value-aware WeakHashMap):
+// - Keys STRONG or WEAK (WeakHashMap semantics: equals() lookup, entry dropped once the key is unreachable)
+// - Values STRONG, WEAK (dropped at the next GC) or SOFT (dropped when the GC is short of memory)
+// - Backed by a ConcurrentHashMap: thread-safe, reads never lock
+// - Collected keys/values are removed from a ReferenceQueue on the caller's thread (no background thread)
+// - evictOnPressure(monitor, fraction): when the heap crosses the monitor's threshold, the least recently used
+//   fraction of entries is dropped right away instead of waiting for the GC to clear every soft reference at once
+// - No null keys or values
+// Pros: Memory-sensitive caching without System.gc() / sleep tricks, hit/miss/eviction counters
+// Cons: One reference object per weak/soft key or value (extra GC work), recency is approximate
+public class ReferenceCache<K, V> implements HeapPressureMonitor.Listener {
+    public enum Strength {STRONG, WEAK, SOFT}
+
+    private static final int DRAIN_INTERVAL = 64; // Reads check the reference queue once every N calls
+
+    private final Strength keyStrength;
+    private final Strength valueStrength;
+    private final ConcurrentHashMap<Object, Entry<V>> map = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    private double pressureFraction;
+    private long clock; // Racy on purpose: a lost tick only blurs the LRU order a little
+    private int reads;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder collected = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    private static final class Entry<V> {
+        final Object value; // V, or a ValueReference holding it
+        volatile long lastAccess;
+
+        Entry(Object value, long lastAccess) {
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    // Weak key: equal to another WeakKey holding an equal referent, or to itself once cleared
+    private static final class WeakKey<K> extends WeakReference<K> {
+        final int hash;
+
+        WeakKey(K key, ReferenceQueue<Object> queue) {
+            super(key, queue);
+            this.hash = key.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (!(other instanceof WeakKey<?> key) || key.hash != hash) return false;
+            Object referent = get();
+            return referent != null && referent.equals(key.get());
+        }
+    }
+
+    private interface ValueReference {
+        Object mapKey();
+
+        Entry<?> entry();
+    }
+
+    private static final class WeakValue<V> extends WeakReference<V> implements ValueReference {
+        final Object mapKey;
+        Entry<?> entry;
+
+        WeakValue(Object mapKey, V value, ReferenceQueue<Object> queue) {
+            super(value, queue);
+            this.mapKey = mapKey;
+        }
+
+        public Object mapKey() {
+            return mapKey;
+        }
+
+        public Entry<?> entry() {
+            return entry;
+        }
+    }
+
+    private static final class SoftValue<V> extends SoftReference<V> implements ValueReference {
+        final Object mapKey;
+        Entry<?> entry;
+
+        SoftValue(Object mapKey, V value, ReferenceQueue<Object> queue) {
+            super(value, queue);
+            this.mapKey = mapKey;
+        }
+
+        public Object mapKey() {
+            return mapKey;
+        }
+
+        public Entry<?> entry() {
+            return entry;
+        }
+    }
+
+    public ReferenceCache(Strength keyStrength, Strength valueStrength) {
+        if (keyStrength == Strength.SOFT) {
+            throw new IllegalArgumentException("Soft keys are not supported (use soft values)");
+        }
+        this.keyStrength = Objects.requireNonNull(keyStrength);
+        this.valueStrength = Objects.requireNonNull(valueStrength);
+    }
+
+    // Registers this cache on the monitor: each pressure event drops the 'fraction' least recently used entries
+    public ReferenceCache<K, V> evictOnPressure(HeapPressureMonitor monitor, double fraction) {
+        if (fraction <= 0 || fraction > 1) throw new IllegalArgumentException("fraction must be in (0, 1]");
+        this.pressureFraction = fraction;
+        monitor.addListener(this);
+        return this;
+    }
+
+    public V get(K key) {
+        JfrEvents.CacheAccess event = new JfrEvents.CacheAccess(); // Free unless a recording enables it
+        event.begin();
+        if (++reads % DRAIN_INTERVAL == 0) drainQueue();
+        Entry<V> entry = map.get(lookupKey(key));
+        V value = entry == null ? null : valueOf(entry);
+        if (value == null) {
+            misses.increment();
+        } else {
+            entry.lastAccess = ++clock;
+            hits.increment();
+        }
+        if (event.shouldCommit()) {
+            event.cache = "ReferenceCache@" + Integer.toHexString(System.identityHashCode(this));
+            event.hit = value != null;
+            event.commit();
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        Objects.requireNonNull(value);
+        drainQueue();
+        Object mapKey = keyStrength == Strength.WEAK ? new WeakKey<>(key, queue) : Objects.requireNonNull(key);
+        map.put(mapKey, newEntry(mapKey, value));
+    }
+
+    // Loads on a miss; concurrent callers for the same key may both load (the loader must be idempotent)
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) return value;
+        value = loader.apply(key);
+        if (value != null) put(key, value);
+        return value;
+    }
+
+    public V remove(K key) {
+        drainQueue();
+        Entry<V> entry = map.remove(lookupKey(key));
+        return entry == null ? null : valueOf(entry);
+    }
+
+    // Includes entries whose referent was collected but not yet drained: call cleanUp() first for an exact figure
+    public int size() {
+        return map.size();
+    }
+
+    public void cleanUp() {
+        drainQueue();
+    }
+
+    public void clear() {
+        map.clear();
+        drainQueue();
+    }
+
+    // Drops the given fraction of entries, least recently used first. Returns how many were removed.
+    public int evictOldest(double fraction) {
+        drainQueue();
+        long[] accesses = map.values().stream().mapToLong(entry -> entry.lastAccess).toArray();
+        int toEvict = (int) (accesses.length * fraction);
+        if (toEvict == 0) return 0;
+        Arrays.sort(accesses);
+        long cutoff = accesses[toEvict - 1];
+        int removed = 0;
+        for (var iterator = map.values().iterator(); iterator.hasNext() && removed < toEvict; ) {
+            if (iterator.next().lastAccess <= cutoff) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        evicted.add(removed);
+        return removed;
+    }
+
+    @Override
+    public void onHeapPressure(String pool, MemoryUsage usage) {
+        evictOldest(pressureFraction);
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    // Entries removed because the GC cleared their key or value
+    public long collected() {
+        return collected.sum();
+    }
+
+    // Entries removed by evictOldest() / heap pressure
+    public long evicted() {
+        return evicted.sum();
+    }
+
+    public double hitRate() {
+        long hit = hits(), total = hit + misses();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ReferenceCache[keys=%s, values=%s, size=%d, hitRate=%.1f%%, collected=%d, evicted=%d]",
+                keyStrength, valueStrength, size(), hitRate() * 100, collected(), evicted());
+    }
+
+    // ---------------------------------------------------------------- internals
+
+    private Object lookupKey(K key) {
+        Objects.requireNonNull(key);
+        return keyStrength == Strength.WEAK ? new WeakKey<>(key, null) : key; // Never enqueued: no queue
+    }
+
+    private Entry<V> newEntry(Object mapKey, V value) {
+        long now = ++clock;
+        return switch (valueStrength) {
+            case STRONG -> new Entry<>(value, now);
+            case WEAK -> {
+                WeakValue<V> reference = new WeakValue<>(mapKey, value, queue);
+                Entry<V> entry = new Entry<>(reference, now);
+                reference.entry = entry;
+                yield entry;
+            }
+            case SOFT -> {
+                SoftValue<V> reference = new SoftValue<>(mapKey, value, queue);
+                Entry<V> entry = new Entry<>(reference, now);
+                reference.entry = entry;
+                yield entry;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueOf(Entry<V> entry) {
+        return entry.value instanceof Reference<?> reference ? (V) reference.get() : (V) entry.value;
+    }
+
+    private void drainQueue() {
+        Reference<?> reference;
+        while ((reference = queue.poll()) != null) {
+            boolean removed = reference instanceof ValueReference value
+                    ? map.remove(value.mapKey(), value.entry())  // Only if the entry was not replaced since
+                    : map.remove(reference) != null;            // Cleared WeakKey: equal only to itself
+            if (removed) collected.increment();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package memoryExample;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+// Slab allocator for fixed-size off-heap slots:
+// - Memory is reserved in big slabs (one Arena allocation or one direct ByteBuffer each)
+// - Slots are handed out as a long handle and must be released with free(handle)
+// - Not thread-safe (guard it externally or use one allocator per thread)
+// Pros: Nothing here is visible to the GC – no scanning, no copying, no promotion
+// Cons: Manual memory management – a forgotten free() is a real leak, a double free() is a bug (detected here)
+public class SlabAllocator implements AutoCloseable {
+    private final Arena arena;
+    private final boolean directBuffers;
+    private final long slotSize;
+    private final int slotsPerSlab;
+    private final List<MemorySegment> slabs = new ArrayList<>();
+    private final BitSet allocated = new BitSet();
+
+    // Stack of released handles, reused before a new slab is carved
+    private long[] freeHandles = new long[64];
+    private int freeCount = 0;
+    private long nextUnused = 0;
+    private long liveSlots = 0;
+
+    private SlabAllocator(long slotSize, int slotsPerSlab, boolean directBuffers) {
+        if (slotSize <= 0 || slotsPerSlab <= 0) {
+            throw new IllegalArgumentException("slotSize and slotsPerSlab must be positive");
+        }
+        this.slotSize = slotSize;
+        this.slotsPerSlab = slotsPerSlab;
+        this.directBuffers = directBuffers;
+        this.arena = directBuffers ? null : Arena.ofConfined();
+    }
+
+    // Slabs come from a confined Arena and are released all at once by close()
+    public static SlabAllocator ofArena(long slotSize, int slotsPerSlab) {
+        return new SlabAllocator(slotSize, slotsPerSlab, false);
+    }
+
+    // Slabs are direct ByteBuffers viewed as segments (still FFM): freed by the GC's Cleaner once unreachable, not by close()
+    public static SlabAllocator ofDirectBuffers(long slotSize, int slotsPerSlab) {
+        if (slotSize * slotsPerSlab > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A direct ByteBuffer slab cannot exceed 2 GB");
+        }
+        return new SlabAllocator(slotSize, slotsPerSlab, true);
+    }
+
+    public long allocate() {
+        long handle;
+        if (freeCount > 0) {
+            handle = freeHandles[--freeCount];
+        } else {
+            if (nextUnused == (long) slabs.size() * slotsPerSlab) {
+                slabs.add(newSlab());
+            }
+            handle = nextUnused++;
+        }
+        allocated.set(Math.toIntExact(handle));
+        liveSlots++;
+        return handle;
+    }
+
+    public void free(long handle) {
+        checkAllocated(handle);
+        allocated.clear((int) handle);
+        if (freeCount == freeHandles.length) {
+            long[] grown = new long[freeHandles.length * 2];
+            System.arraycopy(freeHandles, 0, grown, 0, freeCount);
+            freeHandles = grown;
+        }
+        freeHandles[freeCount++] = handle;
+        liveSlots--;
+    }
+
+    // View over the slot memory – only valid until the handle is freed
+    public MemorySegment segment(long handle) {
+        checkAllocated(handle);
+        MemorySegment slab = slabs.get((int) (handle / slotsPerSlab));
+        return slab.asSlice((handle % slotsPerSlab) * slotSize, slotSize);
+    }
+
+    public long slotSize() {
+        return slotSize;
+    }
+
+    public long liveSlots() {
+        return liveSlots;
+    }
+
+    public long reservedBytes() {
+        return (long) slabs.size() * slotsPerSlab * slotSize;
+    }
+
+    @Override
+    public void close() {
+        slabs.clear();
+        allocated.clear();
+        freeCount = 0;
+        nextUnused = 0;
+        liveSlots = 0;
+        if (arena != null) {
+            arena.close(); // Memory is returned to the OS immediately
+        }
+    }
+
+    private MemorySegment newSlab() {
+        long slabBytes = slotSize * slotsPerSlab;
+        if (directBuffers) {
+            return MemorySegment.ofBuffer(ByteBuffer.allocateDirect((int) slabBytes));
+        }
+        return arena.allocate(slabBytes, 8);
+    }
+
+    private void checkAllocated(long handle) {
+        if (handle < 0 || handle >= nextUnused || !allocated.get((int) handle)) {
+            throw new IllegalStateException("Slot " + handle + " is not allocated (double free or stale handle?)");
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package serializationExample;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// BinaryIO (the primitives of RecordCodec, straight into / out of a ByteBuffer):
+// - Varints (LEB128, protobuf-compatible): 7 bits per byte, small values in 1-2 bytes instead of 4 / 8
+// - ZigZag for signed values: -1 -> 1, 1 -> 2, ... so small negative numbers stay small too
+// - UTF-8 written char by char into the buffer (no String.getBytes() array), length computed first for the
+//   prefix; unpaired surrogates become '?' like String.getBytes(UTF_8)
+// - Decoding a string allocates the String only: heap buffers are decoded in place, direct buffers through a
+//   per-thread scratch array
+// Pros: 2-3x fewer bytes than fixed-width fields for typical data, no intermediate objects
+// Cons: Varints cost a loop and a branch per byte, values > 2^28 take 5 bytes (int) / 10 bytes (long)
+public final class BinaryIO {
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[256]);
+
+    private BinaryIO() {
+    }
+
+    public static void writeVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    public static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalStateException("Malformed varint at " + (in.position() - 5));
+    }
+
+    public static void writeVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    public static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalStateException("Malformed varlong at " + (in.position() - 10));
+    }
+
+    public static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    public static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    public static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public static int utf8Length(String s) {
+        int length = s.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) continue;
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                bytes += 2; // 4 bytes for 2 chars
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired: '?', 1 byte
+            } else {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    // Writes exactly utf8Length(s) bytes, no length prefix
+    public static void writeUtf8(ByteBuffer out, String s) {
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                out.put((byte) (0xF0 | (codePoint >> 18)));
+                out.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    public static String readUtf8(ByteBuffer in, int byteLength) {
+        if (byteLength > in.remaining()) throw new BufferUnderflowException();
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), byteLength, StandardCharsets.UTF_8);
+            in.position(in.position() + byteLength);
+        } else {
+            byte[] scratch = SCRATCH.get();
+            if (scratch.length < byteLength) SCRATCH.set(scratch = new byte[Math.max(byteLength, scratch.length * 2)]);
+            in.get(scratch, 0, byteLength);
+            value = new String(scratch, 0, byteLength, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+}
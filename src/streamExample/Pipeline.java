@@ -0,0 +1,316 @@
+package streamExample;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Pipeline (push-based, backpressured operators on java.util.concurrent.Flow, fused into ONE subscriber):
+// - Pipeline.from(publisher).map(..).filter(..).batch(..).window(..) is a Flow.Publisher: each subscription
+//   builds a chain of plain objects called in the upstream's onNext thread – no queue, no executor, no thread
+//   hop between operators (a chain of SubmissionPublisher processors pays all three per element and per stage)
+// - Every operator emits at most one element per input, so requesting at most demand x (inputs per output)
+//   from upstream can never overflow the subscriber: memory stays bounded by 'prefetch' however slow it is
+// - Upstream is requested in chunks of up to 'prefetch' (default 256), topped up at half – not one by one
+// - Signals are serialized with a work-in-progress counter (no lock): request() and onNext() on different threads
+//   are fine, a synchronous publisher calling onNext from inside request() does not recurse
+// - batch(n): lists of n (the last one shorter), window(d): lists of what arrived within d of the first element –
+//   closed by the next element or the completion (no timer thread: a silent stream keeps its window open)
+// Pros: Bounded memory when the sink slows down, operator cost close to a plain loop
+// Cons: No flatMap (more than one output per input), no error recovery operator, cancel() drops buffered batches
+public final class Pipeline<T> implements Flow.Publisher<T> {
+    private static final int DEFAULT_PREFETCH = 256;
+
+    private final Flow.Publisher<?> source;
+    private final List<Supplier<Stage>> stages;
+    private final long inputsPerOutput;
+    private final int prefetch;
+
+    private Pipeline(Flow.Publisher<?> source, List<Supplier<Stage>> stages, long inputsPerOutput, int prefetch) {
+        this.source = source;
+        this.stages = stages;
+        this.inputsPerOutput = inputsPerOutput;
+        this.prefetch = prefetch;
+    }
+
+    public static <T> Pipeline<T> from(Flow.Publisher<T> source) {
+        return new Pipeline<>(Objects.requireNonNull(source, "source"), List.of(), 1, DEFAULT_PREFETCH);
+    }
+
+    public <R> Pipeline<R> map(Function<? super T, ? extends R> mapper) {
+        return then(() -> new Stage() {
+            @Override
+            @SuppressWarnings("unchecked")
+            void push(Object item) {
+                next.push(mapper.apply((T) item));
+            }
+        }, 1);
+    }
+
+    public Pipeline<T> filter(Predicate<? super T> predicate) {
+        return then(() -> new Stage() {
+            @Override
+            @SuppressWarnings("unchecked")
+            void push(Object item) {
+                if (predicate.test((T) item)) next.push(item);
+            }
+        }, 1);
+    }
+
+    public Pipeline<List<T>> batch(int size) {
+        if (size < 1) throw new IllegalArgumentException("size must be >= 1: " + size);
+        return then(() -> new Stage() {
+            private List<Object> batch = new ArrayList<>(size);
+
+            @Override
+            void push(Object item) {
+                batch.add(item);
+                if (batch.size() == size) {
+                    List<Object> full = batch;
+                    batch = new ArrayList<>(size);
+                    next.push(full);
+                }
+            }
+
+            @Override
+            void flush() {
+                if (!batch.isEmpty()) next.push(batch);
+                batch = new ArrayList<>(0);
+                next.flush();
+            }
+        }, size);
+    }
+
+    public Pipeline<List<T>> window(Duration duration) {
+        long durationNanos = duration.toNanos();
+        return then(() -> new Stage() {
+            private List<Object> window = new ArrayList<>();
+            private long end;
+
+            @Override
+            void push(Object item) {
+                long now = System.nanoTime();
+                if (!window.isEmpty() && now - end >= 0) {
+                    List<Object> closed = window;
+                    window = new ArrayList<>(closed.size());
+                    next.push(closed);
+                }
+                if (window.isEmpty()) end = now + durationNanos;
+                window.add(item);
+            }
+
+            @Override
+            void flush() {
+                if (!window.isEmpty()) next.push(window);
+                window = new ArrayList<>(0);
+                next.flush();
+            }
+        }, 1);
+    }
+
+    // Elements requested from upstream ahead of time (bounded memory: at most this many in flight)
+    public Pipeline<T> prefetch(int prefetch) {
+        if (prefetch < 1) throw new IllegalArgumentException("prefetch must be >= 1: " + prefetch);
+        return new Pipeline<>(source, stages, inputsPerOutput, prefetch);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        ((Flow.Publisher<Object>) source).subscribe(new Fused<>(this, subscriber));
+    }
+
+    private <R> Pipeline<R> then(Supplier<Stage> stage, long stageInputsPerOutput) {
+        List<Supplier<Stage>> chain = new ArrayList<>(stages);
+        chain.add(stage);
+        long ratio = inputsPerOutput * stageInputsPerOutput;
+        return new Pipeline<>(source, List.copyOf(chain), ratio < 0 ? Long.MAX_VALUE : ratio, prefetch);
+    }
+
+    // One fused operator: pushes its output into 'next', only ever called inside the serialized drain
+    private abstract static class Stage {
+        Stage next;
+
+        abstract void push(Object item);
+
+        void flush() {
+            if (next != null) next.flush();
+        }
+    }
+
+    // The subscriber to the source and the subscription given to the downstream subscriber
+    private static final class Fused<T> extends Stage implements Flow.Subscriber<Object>, Flow.Subscription {
+        private final Flow.Subscriber<? super T> downstream;
+        private final Stage head;
+        private final long inputsPerOutput;
+        private final int prefetch;
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicLong demand = new AtomicLong();
+        private final ConcurrentLinkedQueue<Object> inbox = new ConcurrentLinkedQueue<>(); // Only when signals race
+        private final ArrayDeque<Object> ready = new ArrayDeque<>(); // Outputs waiting for demand, serialized
+        private Flow.Subscription upstream;
+        private long requestedUpstream; // Serialized
+        private long received; // Serialized
+        private volatile boolean upstreamDone;
+        private volatile Throwable error;
+        private volatile boolean cancelled;
+        private boolean flushed; // Serialized
+        private boolean terminated; // Serialized
+
+        Fused(Pipeline<T> pipeline, Flow.Subscriber<? super T> downstream) {
+            this.downstream = downstream;
+            this.inputsPerOutput = pipeline.inputsPerOutput;
+            this.prefetch = pipeline.prefetch;
+            Stage first = this;
+            for (int i = pipeline.stages.size() - 1; i >= 0; i--) {
+                Stage stage = pipeline.stages.get(i).get();
+                stage.next = first;
+                first = stage;
+            }
+            this.head = first;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (upstream != null) {
+                subscription.cancel(); // Rule 2.5: one subscription only
+                return;
+            }
+            upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(Object item) {
+            if (wip.get() == 0 && wip.compareAndSet(0, 1)) { // Fast path: process in place
+                process(item);
+                if (!terminated) replenish();
+                int missed = wip.decrementAndGet();
+                if (missed != 0) drainLoop(missed);
+            } else {
+                inbox.offer(item);
+                drain();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            upstreamDone = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            upstreamDone = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                onError(new IllegalArgumentException("Rule 3.9: request must be positive, was " + n));
+                upstream.cancel();
+                return;
+            }
+            demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            upstream.cancel();
+        }
+
+        // Last stage: hands the output to the downstream subscriber, or keeps it until it is requested
+        @Override
+        @SuppressWarnings("unchecked")
+        void push(Object item) {
+            if (ready.isEmpty() && demand.get() > 0) deliver((T) item);
+            else ready.add(item);
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() == 0) drainLoop(1);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void drainLoop(int missed) {
+            do {
+                if (cancelled) {
+                    inbox.clear();
+                    ready.clear();
+                } else if (!terminated) {
+                    Object item;
+                    while ((item = inbox.poll()) != null) process(item);
+                    while (!ready.isEmpty() && demand.get() > 0) deliver((T) ready.poll());
+                    if (!terminated && upstreamDone && inbox.isEmpty()) complete();
+                    if (!terminated) replenish();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void process(Object item) {
+            if (cancelled || terminated) return; // Nothing after cancel(), nor after an operator failed
+            received++;
+            try {
+                head.push(item);
+            } catch (RuntimeException e) {
+                error = e;
+                upstreamDone = true;
+                upstream.cancel();
+                complete();
+            }
+        }
+
+        @SuppressWarnings("unchecked") // ready only ever holds the head stage's T outputs
+        private void complete() {
+            Throwable failure = error;
+            if (failure != null) {
+                terminated = true;
+                ready.clear();
+                downstream.onError(failure);
+                return;
+            }
+            if (!flushed) { // Partial batches / windows, once
+                flushed = true;
+                head.flush();
+            }
+            while (!ready.isEmpty() && demand.get() > 0) deliver((T) ready.poll());
+            if (ready.isEmpty()) {
+                terminated = true;
+                downstream.onComplete();
+            }
+        }
+
+        // Keep up to 'prefetch' inputs in flight, never more than the outputs still requested can absorb
+        private void replenish() {
+            if (upstreamDone) return;
+            long unmet = demand.get() - ready.size();
+            if (unmet <= 0) return;
+            long wanted = unmet > prefetch / inputsPerOutput ? prefetch : unmet * inputsPerOutput;
+            long outstanding = requestedUpstream - received;
+            if (outstanding <= wanted / 2) {
+                long missing = wanted - outstanding;
+                requestedUpstream += missing;
+                upstream.request(missing); // A synchronous source re-enters onNext: queued in the inbox
+            }
+        }
+
+        private void deliver(T item) {
+            demand.getAndUpdate(current -> current == Long.MAX_VALUE ? current : current - 1);
+            downstream.onNext(item);
+        }
+    }
+}